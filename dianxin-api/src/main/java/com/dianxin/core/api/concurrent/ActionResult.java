@@ -63,6 +63,18 @@ public class ActionResult<T> {
         return new ActionResult<>(ActionStatus.CANCELLED, null, null);
     }
 
+    /**
+     * Chuyển tiếp kết quả không thành công (FAILURE/CANCELLED) sang stage sau mà không tạo đối tượng mới:
+     * kết quả này không mang giá trị nên đổi kiểu tham số là an toàn.
+     */
+    @SuppressWarnings("unchecked")
+    <U> ActionResult<U> propagate() {
+        if (status == ActionStatus.SUCCESS) {
+            throw new IllegalStateException("Chỉ chuyển tiếp được kết quả không thành công");
+        }
+        return (ActionResult<U>) this;
+    }
+
     /** @return {@code true} nếu action hoàn tất và có dữ liệu hợp lệ. */
     public boolean isSuccess() { return status == ActionStatus.SUCCESS; }
 
@@ -0,0 +1,78 @@
+package com.dianxin.core.api.concurrent;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cách tính thời gian chờ giữa các lần thử lại của {@link RetryPolicy}.
+ *
+ * <pre>{@code
+ * Backoff.exponential(Duration.ofMillis(100), Duration.ofSeconds(10)); // 0..100ms, 0..200ms, 0..400ms... tối đa 10s
+ * Backoff.fixed(Duration.ofSeconds(1));
+ * }</pre>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class Backoff {
+    private final long baseNanos;
+    private final long maxNanos;
+    private final boolean exponential;
+
+    private Backoff(long baseNanos, long maxNanos, boolean exponential) {
+        this.baseNanos = baseNanos;
+        this.maxNanos = maxNanos;
+        this.exponential = exponential;
+    }
+
+    /**
+     * Lũy thừa với "full jitter": lần thử lại thứ {@code n} chờ ngẫu nhiên trong {@code [0, min(max, base × 2^(n-1))]}.
+     * Jitter giúp các client cùng gặp lỗi không dồn lại thử cùng một lúc.
+     *
+     * @throws IllegalArgumentException Nếu {@code base} không dương hoặc {@code max < base}.
+     */
+    public static Backoff exponential(@NotNull Duration base, @NotNull Duration max) {
+        if (base.isNegative() || base.isZero()) {
+            throw new IllegalArgumentException("base phải lớn hơn 0");
+        }
+        if (max.compareTo(base) < 0) {
+            throw new IllegalArgumentException("max không được nhỏ hơn base");
+        }
+        return new Backoff(base.toNanos(), max.toNanos(), true);
+    }
+
+    /**
+     * Chờ cố định {@code delay} giữa các lần thử (không jitter).
+     */
+    public static Backoff fixed(@NotNull Duration delay) {
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("delay không được âm");
+        }
+        return new Backoff(delay.toNanos(), delay.toNanos(), false);
+    }
+
+    /** Thử lại ngay, không chờ. */
+    public static Backoff none() {
+        return new Backoff(0, 0, false);
+    }
+
+    /**
+     * @param retry Lần thử lại thứ mấy (bắt đầu từ 1).
+     * @return Thời gian chờ (nano giây) trước lần thử lại đó.
+     */
+    public long delayNanos(int retry) {
+        if (!exponential) return baseNanos;
+        int shift = Math.max(0, retry - 1);
+        long cap = shift >= Long.numberOfLeadingZeros(baseNanos) - 1 ? maxNanos : Math.min(maxNanos, baseNanos << shift);
+        return ThreadLocalRandom.current().nextLong(cap == Long.MAX_VALUE ? cap : cap + 1);
+    }
+
+    @Override
+    public String toString() {
+        return exponential
+                ? "Backoff{exponential, base=" + Duration.ofNanos(baseNanos) + ", max=" + Duration.ofNanos(maxNanos) + "}"
+                : "Backoff{fixed, delay=" + Duration.ofNanos(baseNanos) + "}";
+    }
+}
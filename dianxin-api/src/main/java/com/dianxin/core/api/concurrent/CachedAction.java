@@ -0,0 +1,36 @@
+package com.dianxin.core.api.concurrent;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * {@link LazyAction} dùng chung một lần chạy cho nhiều người đăng ký, tạo bởi {@link LazyAction#cached()},
+ * {@link LazyAction#cached(java.time.Duration)} và {@link LazyAction#share()}.
+ * <p>
+ * Mỗi người đăng ký có "vé" riêng: {@link #cancel(boolean)} chỉ bỏ lượt chờ của lần kích hoạt gần nhất,
+ * không hủy lần chạy đang được dùng chung. Lần chạy dùng chung mang {@code ExecutionContext} của người đã
+ * kích hoạt nó. Các stage nối thêm ({@code map}, {@code onSuccess}...) vẫn chạy lại cho từng lần kích hoạt.
+ * </p>
+ *
+ * <pre>{@code
+ * CachedAction<GuildStats> stats = LazyAction.defer(() -> statsRepo.query(guildId)).cached(Duration.ofMinutes(5));
+ * stats.queue(this::renderEmbed);
+ * stats.queue(this::updateLeaderboard); // Không query lại
+ * onMemberJoin(e -> stats.invalidate()); // Dữ liệu cũ, lần sau query lại
+ * }</pre>
+ *
+ * @param <T> Kiểu dữ liệu trả về khi hành động hoàn tất thành công.
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public interface CachedAction<T> extends LazyAction<T> {
+
+    /**
+     * Bỏ kết quả đang được ghi nhớ (và tách khỏi lần chạy đang dở, nếu có):
+     * lần kích hoạt kế tiếp sẽ chạy lại tác vụ. Lần chạy đang dở không bị hủy nhưng kết quả của nó
+     * sẽ không được ghi nhớ.
+     */
+    void invalidate();
+
+    /** @return {@code true} nếu đang có kết quả được ghi nhớ và còn hạn. */
+    boolean isCached();
+}
@@ -0,0 +1,184 @@
+package com.dianxin.core.api.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Giữ promise của lần chạy dùng chung. Mọi thao tác của {@link LazyAction} được chuyển cho {@link #view},
+ * một {@link LazyActionImpl} có stage đầu tiên là chờ promise đó ({@link #acquire()}).
+ */
+class CachedActionImpl<T> implements CachedAction<T> {
+    static final long FOREVER = Long.MAX_VALUE;
+
+    private final LazyAction<T> upstream;
+    private final long ttlNanos; // 0: chỉ gộp lần chạy đồng thời; FOREVER: ghi nhớ đến khi invalidate()
+    private final LazyActionImpl<T> view;
+
+    private final Object lock = new Object();
+    private ResultPromise<T> shared; // Giữ dưới lock
+    private long expiresAt;           // Giữ dưới lock; chỉ có nghĩa khi shared đã THÀNH CÔNG
+
+    CachedActionImpl(LazyAction<T> upstream, long ttlNanos) {
+        this.upstream = upstream;
+        this.ttlNanos = ttlNanos;
+        this.view = LazyActionImpl.from(this::acquire);
+    }
+
+    /**
+     * Lấy promise dùng chung: kết quả còn hạn hoặc lần chạy đang dở; nếu không có thì kích hoạt lần chạy mới.
+     */
+    private ResultPromise<T> acquire() {
+        ResultPromise<T> promise;
+        synchronized (lock) {
+            ResultPromise<T> current = shared;
+            if (current != null) {
+                ActionResult<T> result = current.getNow();
+                if (result == null) return current; // Đang chạy: chờ chung
+                if (result.isSuccess() && isFresh()) return current;
+            }
+            promise = new ResultPromise<>();
+            shared = promise;
+        }
+        // Kích hoạt ngoài lock: các stage đồng bộ của upstream có thể chạy ngay trên luồng này
+        LazyActionImpl.promiseOf(upstream).whenDone(result -> {
+            synchronized (lock) {
+                if (shared == promise) {
+                    if (result.isSuccess() && ttlNanos > 0) {
+                        expiresAt = System.nanoTime() + ttlNanos;
+                    } else {
+                        shared = null; // Lỗi/bị hủy hoặc chỉ share(): lần sau chạy lại
+                    }
+                }
+            }
+            promise.complete(result);
+        });
+        return promise;
+    }
+
+    @Override
+    public void invalidate() {
+        synchronized (lock) {
+            shared = null;
+        }
+    }
+
+    @Override
+    public boolean isCached() {
+        synchronized (lock) {
+            ResultPromise<T> current = shared;
+            if (current == null) return false;
+            ActionResult<T> result = current.getNow();
+            return result != null && result.isSuccess() && isFresh();
+        }
+    }
+
+    /** Gọi dưới lock, khi {@link #shared} đã THÀNH CÔNG. */
+    private boolean isFresh() {
+        return ttlNanos == FOREVER || System.nanoTime() - expiresAt < 0;
+    }
+
+    // =========================================================================
+    // LazyAction (chuyển cho view)
+    // =========================================================================
+
+    @Override
+    public void queue() {
+        view.queue();
+    }
+
+    @Override
+    public void queue(@NotNull Consumer<T> success, @NotNull Consumer<Throwable> failure) {
+        view.queue(success, failure);
+    }
+
+    @Override
+    public void queue(@NotNull Consumer<ActionResult<T>> callback) {
+        view.queue(callback);
+    }
+
+    @Override
+    public @NotNull ActionResult<T> complete() {
+        return view.complete();
+    }
+
+    @Override
+    public @NotNull ActionResult<T> complete(long timeout, @NotNull TimeUnit unit) {
+        return view.complete(timeout, unit);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<ActionResult<T>> submit() {
+        return view.submit();
+    }
+
+    @Override
+    public @NotNull LazyAction<T> onSuccess(@NotNull Consumer<T> successCallback) {
+        return view.onSuccess(successCallback);
+    }
+
+    @Override
+    public @NotNull LazyAction<T> onError(@NotNull Consumer<Throwable> failureCallback) {
+        return view.onError(failureCallback);
+    }
+
+    @Override
+    public <U> @NotNull LazyAction<U> map(@NotNull Function<T, U> mapper) {
+        return view.map(mapper);
+    }
+
+    @Override
+    public <U> @NotNull LazyAction<U> flatMap(@NotNull Function<T, LazyAction<U>> mapper) {
+        return view.flatMap(mapper);
+    }
+
+    @Override
+    public @NotNull LazyAction<T> onExecutor(@NotNull Executor executor) {
+        return view.onExecutor(executor);
+    }
+
+    @Override
+    public @NotNull LazyAction<T> recover(@NotNull Function<Throwable, T> fallback) {
+        return view.recover(fallback);
+    }
+
+    @Override
+    public @NotNull LazyAction<T> retry(@NotNull RetryPolicy policy) {
+        return view.retry(policy);
+    }
+
+    @Override
+    public @NotNull CachedAction<T> cached() {
+        return view.cached();
+    }
+
+    @Override
+    public @NotNull CachedAction<T> cached(@NotNull Duration ttl) {
+        return view.cached(ttl);
+    }
+
+    @Override
+    public @NotNull CachedAction<T> share() {
+        return view.share();
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return view.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public boolean isDone() {
+        return view.isDone();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return view.isCancelled();
+    }
+}
@@ -1,6 +1,7 @@
 package com.dianxin.core.api.concurrent;
 
 import com.dianxin.core.api.annotations.ReleasedSince;
+import com.dianxin.core.api.lifecycle.ExecutionContext;
 import com.dianxin.core.api.lifecycle.ExecutorManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -154,13 +155,8 @@ public interface IAction<T> {
      */
     static <T> IAction<T> supplyAsync(@NotNull Callable<T> task, @Nullable Executor executor) {
         Executor exec = (executor != null) ? executor : ExecutorManager.io();
-        return new IActionImpl<>(CompletableFuture.supplyAsync(() -> {
-            try {
-                return task.call();
-            } catch (Exception e) {
-                throw new CompletionException(e);
-            }
-        }, exec));
+        Callable<T> bound = ExecutionContext.wrap(task);
+        return new IActionImpl<>(ResultPromise.supply(exec, () -> ActionResult.success(bound.call())));
     }
 
     /**
@@ -169,19 +165,17 @@ public interface IAction<T> {
      */
     static IAction<Void> runAsync(@NotNull Runnable task, @Nullable Executor executor) {
         Executor exec = (executor != null) ? executor : ExecutorManager.io();
-        return new IActionImpl<>(CompletableFuture.runAsync(() -> {
-            try {
-                task.run();
-            } catch (Exception e) {
-                throw new CompletionException(e);
-            }
-        }, exec));
+        Runnable bound = ExecutionContext.wrap(task);
+        return new IActionImpl<>(ResultPromise.supply(exec, () -> {
+            bound.run();
+            return ActionResult.<Void>success(null);
+        }));
     }
 
     /**
      * Tạo một IAction đã hoàn thành sẵn với giá trị cố định.
      */
     static <T> IAction<T> completed(T value) {
-        return new IActionImpl<>(CompletableFuture.completedFuture(value));
+        return new IActionImpl<>(ResultPromise.completed(ActionResult.success(value)));
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.dianxin.core.api.concurrent;
 
+import com.dianxin.core.api.lifecycle.ExecutionContext;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -11,11 +12,11 @@ import java.util.function.Function;
 
 class IActionImpl<T> implements IAction<T> {
 
-    private final CompletableFuture<T> future;
+    private final ResultPromise<T> promise;
     private final Logger logger = LoggerFactory.getLogger(IActionImpl.class);
 
-    IActionImpl(CompletableFuture<T> future) {
-        this.future = future;
+    IActionImpl(ResultPromise<T> promise) {
+        this.promise = promise;
     }
 
     @Override
@@ -25,8 +26,9 @@ class IActionImpl<T> implements IAction<T> {
 
     @Override
     public void queue(@Nullable Consumer<T> success, @Nullable Consumer<Throwable> failure) {
-        future.whenComplete((result, error) -> {
-            if (error != null) {
+        Consumer<ActionResult<T>> handler = result -> {
+            if (!result.isSuccess()) {
+                Throwable error = errorOf(result);
                 if (failure != null) {
                     failure.accept(error);
                 } else {
@@ -36,54 +38,105 @@ class IActionImpl<T> implements IAction<T> {
                 }
             } else {
                 if (success != null) {
-                    success.accept(result);
+                    success.accept(result.getValue());
                 }
             }
-        });
+        };
+        promise.whenDone(ExecutionContext.wrapConsumer(handler));
     }
 
     @Override
     public T complete() {
-        return future.join();
+        ActionResult<T> result = promise.await();
+        if (result.isSuccess()) return result.getValue();
+        Throwable error = errorOf(result);
+        if (error instanceof CancellationException cancelled) throw cancelled;
+        throw error instanceof CompletionException completion ? completion : new CompletionException(error);
     }
 
     @Override
     public T complete(long timeout, @NotNull TimeUnit unit) throws TimeoutException {
+        ActionResult<T> result;
         try {
-            return future.get(timeout, unit);
-        } catch (InterruptedException | ExecutionException e) {
+            result = promise.await(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
+        if (result.isSuccess()) return result.getValue();
+        Throwable error = errorOf(result);
+        if (error instanceof CancellationException cancelled) throw cancelled;
+        throw new RuntimeException(new ExecutionException(error));
     }
 
     @Override
     public @NotNull CompletableFuture<T> submit() {
-        // Trả về bản sao để tránh người dùng can thiệp vào future gốc của Action
-        return future.thenApply(Function.identity());
+        // Trả về Future riêng để tránh người dùng can thiệp vào kết quả gốc của Action
+        CompletableFuture<T> future = new CompletableFuture<>();
+        promise.whenDone(result -> {
+            if (result.isSuccess()) {
+                future.complete(result.getValue());
+            } else {
+                future.completeExceptionally(errorOf(result));
+            }
+        });
+        return future;
     }
 
     @Override
     public <U> @NotNull IAction<U> map(@NotNull Function<T, U> mapper) {
-        return new IActionImpl<>(future.thenApply(mapper));
+        Function<T, U> bound = ExecutionContext.wrapFunction(mapper);
+        return new IActionImpl<>(promise.then(result -> {
+            // Lỗi phía trước được chuyển tiếp nguyên vẹn, không bọc thêm CompletionException
+            if (!result.isSuccess()) return result.propagate();
+            try {
+                return ActionResult.success(bound.apply(result.getValue()));
+            } catch (Throwable t) {
+                return ActionResult.failure(t);
+            }
+        }));
     }
 
     @Override
     public <U> @NotNull IAction<U> flatMap(@NotNull Function<T, IAction<U>> mapper) {
-        // Đây là phép thuật của chaining
-        // thenCompose cho phép nối 1 CompletableFuture với 1 CompletableFuture khác
-        return new IActionImpl<>(future.thenCompose(result ->
-                mapper.apply(result).submit() // Chuyển IAction về CompletableFuture
-        ));
+        // Đây là phép thuật của chaining: stage sau chờ promise của IAction mà mapper trả về
+        Function<T, IAction<U>> bound = ExecutionContext.wrapFunction(mapper);
+        return new IActionImpl<>(promise.thenCompose(result -> {
+            if (!result.isSuccess()) return ResultPromise.completed(result.propagate());
+            return promiseOf(bound.apply(result.getValue()));
+        }));
     }
 
     @Override
     public @NotNull IAction<T> onErrorReturn(T fallback) {
-        return new IActionImpl<>(future.exceptionally(ex -> fallback));
+        return new IActionImpl<>(promise.then(result -> result.isSuccess() ? result : ActionResult.success(fallback)));
     }
 
     @Override
     public @NotNull IAction<T> onExecutor(@NotNull Executor executor) {
         // Chuyển kết quả sang xử lý ở executor mới
-        return new IActionImpl<>(future.thenApplyAsync(Function.identity(), executor));
+        return new IActionImpl<>(promise.onExecutor(ExecutionContext.propagating(executor)));
+    }
+
+    /**
+     * Lỗi của một kết quả không thành công; kết quả bị hủy được đổi thành {@link CancellationException}.
+     */
+    private static Throwable errorOf(ActionResult<?> result) {
+        Throwable error = result.getException();
+        return error != null ? error : new CancellationException("IAction đã bị hủy.");
+    }
+
+    /**
+     * Lấy thẳng promise khi action cùng loại; action lạ thì đi qua {@link #submit()}.
+     */
+    private static <U> ResultPromise<U> promiseOf(IAction<U> action) {
+        if (action instanceof IActionImpl<U> impl) {
+            return impl.promise;
+        }
+        ResultPromise<U> promise = new ResultPromise<>();
+        action.submit().whenComplete((value, error) -> promise.complete(error != null
+                ? ActionResult.failure(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error)
+                : ActionResult.success(value)));
+        return promise;
     }
-}
\ No newline at end of file
+}
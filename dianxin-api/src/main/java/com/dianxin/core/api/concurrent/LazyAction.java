@@ -5,12 +5,14 @@ import com.dianxin.core.api.lifecycle.ExecutorManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Đại diện cho một hành động bất đồng bộ lười biếng (Lazy Asynchronous Action).
@@ -104,6 +106,55 @@ public interface LazyAction<T> {
     @NotNull
     LazyAction<T> recover(@NotNull Function<Throwable, T> fallback);
 
+    /**
+     * Chạy lại toàn bộ chuỗi phía trước khi gặp lỗi, theo {@link RetryPolicy} (số lần tối đa, {@link Backoff},
+     * lỗi nào đáng thử lại). Thời gian chờ được hẹn qua {@code Scheduler} của policy, không chặn luồng nào.
+     * Hủy action trả về sẽ dừng luôn các lần thử còn lại.
+     *
+     * <pre>{@code
+     * LazyAction.defer(() -> http.get(url))
+     *         .retry(RetryPolicy.of(scheduler, 5, Backoff.exponential(Duration.ofMillis(200), Duration.ofSeconds(5)),
+     *                 e -> e instanceof IOException))
+     *         .queue(...);
+     * }</pre>
+     */
+    @NotNull
+    LazyAction<T> retry(@NotNull RetryPolicy policy);
+
+    // =========================================================================
+    // Sharing & Caching (Dùng chung một lần chạy)
+    // =========================================================================
+
+    /**
+     * Ghi nhớ kết quả THÀNH CÔNG đầu tiên: tác vụ chạy tối đa một lần, mọi lần kích hoạt sau nhận lại
+     * đúng {@link ActionResult} đó cho đến khi {@link CachedAction#invalidate()}.
+     * Kết quả FAILURE/CANCELLED không được ghi nhớ, lần kích hoạt sau sẽ chạy lại.
+     */
+    @NotNull
+    CachedAction<T> cached();
+
+    /**
+     * Như {@link #cached()} nhưng kết quả chỉ được dùng lại trong {@code ttl} kể từ lúc tác vụ chạy xong.
+     *
+     * <pre>{@code
+     * CachedAction<GuildStats> stats = LazyAction.defer(() -> statsRepo.query(guildId))
+     *         .cached(Duration.ofMinutes(1));
+     * stats.queue(s -> ...); // Chạy query
+     * stats.queue(s -> ...); // Dùng lại kết quả trong vòng 1 phút
+     * }</pre>
+     *
+     * @throws IllegalArgumentException Nếu {@code ttl} không dương.
+     */
+    @NotNull
+    CachedAction<T> cached(@NotNull Duration ttl);
+
+    /**
+     * Gộp các lần kích hoạt đồng thời: trong lúc tác vụ đang chạy, mọi lần kích hoạt mới đều chờ chung
+     * lần chạy đó và nhận cùng một {@link ActionResult}. Chạy xong thì lần kích hoạt sau sẽ chạy lại (không ghi nhớ).
+     */
+    @NotNull
+    CachedAction<T> share();
+
     // =========================================================================
     // Process Management (Quản lý Tiến trình)
     // =========================================================================
@@ -135,12 +186,18 @@ public interface LazyAction<T> {
     static <T> LazyAction<T> defer(@NotNull Callable<T> task, @Nullable Executor executor) {
         Executor exec = (executor != null) ? executor : ExecutorManager.io();
 
-        return new LazyActionImpl<>(() -> CompletableFuture.supplyAsync(() -> {
-            try {
-                return ActionResult.success(task.call());
-            } catch (Throwable e) {
-                return ActionResult.failure(e);
-            }
-        }, exec));
+        // Ngữ cảnh được chụp lúc submit(), không phải lúc defer()
+        return LazyActionImpl.defer(task, exec);
+    }
+
+    /**
+     * Tạo một LazyAction từ một "nhà máy" Future: mỗi lần kích hoạt ({@code queue}/{@code submit})
+     * sẽ gọi {@code factory} để lấy một Future mới.
+     *
+     * @param factory Hàm tạo Future chứa kết quả.
+     * @param <T>     Kiểu dữ liệu trả về.
+     */
+    static <T> LazyAction<T> fromFuture(@NotNull Supplier<CompletableFuture<ActionResult<T>>> factory) {
+        return new LazyActionImpl<>(factory);
     }
-}
\ No newline at end of file
+}
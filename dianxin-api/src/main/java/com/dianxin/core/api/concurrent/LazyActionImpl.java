@@ -1,25 +1,65 @@
 package com.dianxin.core.api.concurrent;
 
+import com.dianxin.core.api.lifecycle.ExecutionContext;
+import com.dianxin.core.api.lifecycle.RejectableTask;
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * Bản thiết kế của {@link LazyAction}: một danh sách liên kết bất biến các {@link Stage}.
+ * <p>
+ * Mỗi lần kích hoạt, một {@link Run} duy nhất đi qua toàn bộ các stage trong một vòng lặp: các stage đồng bộ
+ * chạy liền nhau trên cùng một luồng, chỉ dừng lại ở stage chuyển Executor hoặc chờ action khác.
+ * Ngữ cảnh ({@link ExecutionContext}) được chụp một lần lúc kích hoạt và gắn lại mỗi khi chuỗi tiếp tục chạy.
+ * </p>
+ */
 class LazyActionImpl<T> implements LazyAction<T> {
+    private static final ActionResult<Object> START = ActionResult.success(null);
 
-    // Đây là "Bản thiết kế" - Một nhà máy chuyên tạo ra CompletableFuture
-    private final Supplier<CompletableFuture<ActionResult<T>>> actionFactory;
+    // Stage cuối của bản thiết kế (nối ngược về stage đầu)
+    private final Stage tail;
 
-    // Lưu lại cái Future đang chạy (nếu đã được kích hoạt) để có thể gọi cancel()
-    private volatile CompletableFuture<ActionResult<T>> runningFuture;
+    // Các stage theo thứ tự chạy, dựng một lần từ tail rồi dùng lại cho mọi lần kích hoạt
+    private volatile Stage[] plan;
 
+    // Promise của lần kích hoạt gần nhất để có thể gọi cancel()
+    private volatile ResultPromise<T> running;
+
+    private LazyActionImpl(Stage tail) {
+        this.tail = tail;
+    }
+
+    /**
+     * Mỗi lần kích hoạt sẽ gọi {@code actionFactory} để lấy một Future mới.
+     */
     LazyActionImpl(Supplier<CompletableFuture<ActionResult<T>>> actionFactory) {
-        this.actionFactory = actionFactory;
+        this(Stage.await(null, ignored -> ResultPromise.from(actionFactory.get())));
+    }
+
+    /**
+     * Mỗi lần kích hoạt sẽ chạy {@code task} trên {@code executor}.
+     */
+    static <T> LazyActionImpl<T> defer(Callable<T> task, Executor executor) {
+        Stage hop = Stage.hop(null, executor);
+        // Executor từ chối thì kết quả đã là FAILURE: không được chạy task ngay trên luồng gọi
+        return new LazyActionImpl<>(Stage.step(hop, result -> result.isSuccess() ? ActionResult.success(task.call()) : result));
+    }
+
+    /**
+     * Mỗi lần kích hoạt sẽ chờ promise do {@code source} cung cấp.
+     */
+    static <T> LazyActionImpl<T> from(Supplier<ResultPromise<T>> source) {
+        return new LazyActionImpl<>(Stage.await(null, ignored -> source.get()));
     }
 
     // =========================================================================
@@ -28,24 +68,23 @@ class LazyActionImpl<T> implements LazyAction<T> {
 
     @Override
     public @NotNull CompletableFuture<ActionResult<T>> submit() {
-        // Kích hoạt nhà máy sản xuất ra Future
-        this.runningFuture = actionFactory.get().exceptionally(ActionResult::failure);
-        return this.runningFuture;
+        // Hủy Future trả về cũng là hủy lần kích hoạt này
+        return start().toFuture(true);
     }
 
     @Override
     public void queue(@NotNull Consumer<ActionResult<T>> callback) {
-        submit().thenAccept(callback);
+        start().whenDone(ExecutionContext.wrapConsumer(callback));
     }
 
     @Override
     public void queue() {
-        submit().thenAccept(result -> {}); // Bắn và quên
+        start(); // Bắn và quên
     }
 
     @Override
     public void queue(@NotNull Consumer<T> success, @NotNull Consumer<Throwable> failure) {
-        submit().thenAccept(result -> {
+        Consumer<ActionResult<T>> handler = result -> {
             if (result.isSuccess()) {
                 success.accept(result.getValue());
             } else {
@@ -55,89 +94,73 @@ class LazyActionImpl<T> implements LazyAction<T> {
                 }
                 failure.accept(ex);
             }
-        });
+        };
+        start().whenDone(ExecutionContext.wrapConsumer(handler));
     }
 
     @Override
     public @NotNull ActionResult<T> complete() {
-        return submit().join();
+        return start().await();
     }
 
     @Override
     public @NotNull ActionResult<T> complete(long timeout, @NotNull TimeUnit unit) {
         try {
-            return submit().get(timeout, unit);
+            return start().await(timeout, unit);
         } catch (Exception e) {
             return ActionResult.failure(e);
         }
     }
 
     // =========================================================================
-    // CHAINING & MIDDLEWARE (Lười biếng: Chỉ bọc factory lại, không chạy code)
+    // CHAINING & MIDDLEWARE (Lười biếng: Chỉ nối thêm stage, không chạy code)
     // =========================================================================
 
     @Override
+    @SuppressWarnings("unchecked")
     public <U> @NotNull LazyAction<U> map(@NotNull Function<T, U> mapper) {
-        return new LazyActionImpl<>(() -> actionFactory.get().thenApply(result -> {
-            if (result.isSuccess()) {
-                try {
-                    return ActionResult.success(mapper.apply(result.getValue()));
-                } catch (Throwable t) {
-                    return ActionResult.failure(t);
-                }
-            }
-            return ActionResult.failure(result.getException());
+        return new LazyActionImpl<>(Stage.step(tail, result -> {
+            // Kết quả lỗi/bị hủy được chuyển tiếp nguyên vẹn, không bọc lại
+            if (!result.isSuccess()) return result;
+            return ActionResult.success(mapper.apply((T) result.getValue()));
         }));
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <U> @NotNull LazyAction<U> flatMap(@NotNull Function<T, LazyAction<U>> mapper) {
-        return new LazyActionImpl<>(() -> actionFactory.get().thenCompose(result -> {
-            if (result.isSuccess()) {
-                try {
-                    // Cực kỳ quan trọng: mapper trả về LazyAction,
-                    // ta phải gọi submit() để nó bung thành CompletableFuture nối vào chuỗi
-                    return mapper.apply(result.getValue()).submit();
-                } catch (Throwable t) {
-                    return CompletableFuture.completedFuture(ActionResult.failure(t));
-                }
-            }
-            return CompletableFuture.completedFuture(ActionResult.failure(result.getException()));
-        }));
+        // mapper trả về LazyAction: kích hoạt nó rồi chờ kết quả trước khi đi tiếp
+        return new LazyActionImpl<>(Stage.await(tail, value -> promiseOf(mapper.apply((T) value))));
     }
 
     @Override
     public @NotNull LazyAction<T> onExecutor(@NotNull Executor executor) {
-        return new LazyActionImpl<>(() -> actionFactory.get().thenApplyAsync(Function.identity(), executor));
+        return new LazyActionImpl<>(Stage.hop(tail, executor));
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public @NotNull LazyAction<T> recover(@NotNull Function<Throwable, T> fallback) {
-        return new LazyActionImpl<>(() -> actionFactory.get().thenApply(result -> {
-            // Nếu có lỗi (hoặc bị hủy)
-            if (!result.isSuccess()) {
-                try {
-                    // Lấy lỗi ra (nếu là null do bị cancel thì tự tạo lỗi Cancel)
-                    Throwable ex = result.getException() != null ? result.getException()
-                            : new CancellationException("Bị hủy");
-
-                    // Chạy hàm dự phòng và biến kết quả thành SUCCESS trở lại!
-                    return ActionResult.success(fallback.apply(ex));
-                } catch (Throwable t) {
-                    // Nếu chính hàm dự phòng cũng bị lỗi thì đành chịu, trả về lỗi mới
-                    return ActionResult.failure(t);
-                }
-            }
+        return new LazyActionImpl<>(Stage.step(tail, result -> {
             // Nếu vốn dĩ đã thành công thì giữ nguyên đi tiếp
-            return result;
+            if (result.isSuccess()) return result;
+
+            // Lấy lỗi ra (nếu là null do bị cancel thì tự tạo lỗi Cancel)
+            Throwable ex = result.getException() != null ? result.getException()
+                    : new CancellationException("Bị hủy");
+
+            // Chạy hàm dự phòng và biến kết quả thành SUCCESS trở lại!
+            // Nếu chính hàm dự phòng cũng bị lỗi thì đành chịu, Run sẽ trả về lỗi mới
+            return ActionResult.success(fallback.apply(ex));
         }));
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public @NotNull LazyAction<T> onSuccess(@NotNull Consumer<T> successCallback) {
-        return new LazyActionImpl<>(() -> actionFactory.get().thenApply(result -> {
+        return new LazyActionImpl<>(Stage.step(tail, result -> {
             if (result.isSuccess()) {
-                try { successCallback.accept(result.getValue()); }
+                try { successCallback.accept((T) result.getValue()); }
                 catch (Exception ignored) {}
             }
             return result;
@@ -146,7 +169,7 @@ class LazyActionImpl<T> implements LazyAction<T> {
 
     @Override
     public @NotNull LazyAction<T> onError(@NotNull Consumer<Throwable> failureCallback) {
-        return new LazyActionImpl<>(() -> actionFactory.get().thenApply(result -> {
+        return new LazyActionImpl<>(Stage.step(tail, result -> {
             if (!result.isSuccess()) {
                 Throwable ex = result.getException();
                 if (ex == null && result.isCancelled()) ex = new CancellationException("LazyAction Cancelled");
@@ -157,25 +180,219 @@ class LazyActionImpl<T> implements LazyAction<T> {
         }));
     }
 
+    @Override
+    public @NotNull LazyAction<T> retry(@NotNull RetryPolicy policy) {
+        // Mỗi lần thử kích hoạt lại toàn bộ bản thiết kế phía trước
+        return new LazyActionImpl<>(Stage.awaitOwned(null, ignored -> policy.execute(() -> promiseOf(this))));
+    }
+
+    @Override
+    public @NotNull CachedAction<T> cached() {
+        return new CachedActionImpl<>(this, CachedActionImpl.FOREVER);
+    }
+
+    @Override
+    public @NotNull CachedAction<T> cached(@NotNull Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl phải lớn hơn 0");
+        }
+        long nanos;
+        try {
+            nanos = ttl.toNanos();
+        } catch (ArithmeticException e) {
+            nanos = CachedActionImpl.FOREVER; // Hơn ~292 năm: coi như vĩnh viễn
+        }
+        return new CachedActionImpl<>(this, nanos);
+    }
+
+    @Override
+    public @NotNull CachedAction<T> share() {
+        return new CachedActionImpl<>(this, 0);
+    }
+
     // =========================================================================
     // STATE MANAGEMENT
     // =========================================================================
 
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
-        if (runningFuture != null) {
-            return runningFuture.cancel(mayInterruptIfRunning);
+        ResultPromise<T> current = running;
+        if (current != null) {
+            return current.cancel();
         }
         return false; // Chưa kích hoạt thì không thể hủy luồng
     }
 
     @Override
     public boolean isDone() {
-        return runningFuture != null && runningFuture.isDone();
+        ResultPromise<T> current = running;
+        return current != null && current.isDone();
     }
 
     @Override
     public boolean isCancelled() {
-        return runningFuture != null && runningFuture.isCancelled();
+        ResultPromise<T> current = running;
+        return current != null && current.isCancelled();
+    }
+
+    // =========================================================================
+    // Nội bộ
+    // =========================================================================
+
+    /**
+     * Kích hoạt bản thiết kế.
+     *
+     * @return Promise nhận kết quả của lần kích hoạt này.
+     */
+    ResultPromise<T> start() {
+        Run run = new Run(plan(), ExecutionContext.capture());
+        running = run.out;
+        run.resume();
+        return run.out;
+    }
+
+    private Stage[] plan() {
+        Stage[] p = plan;
+        if (p == null) {
+            p = new Stage[tail.depth];
+            for (Stage s = tail; s != null; s = s.prev) {
+                p[s.depth - 1] = s;
+            }
+            plan = p; // Có thể dựng trùng khi nhiều luồng cùng kích hoạt lần đầu, vô hại
+        }
+        return p;
+    }
+
+    /**
+     * Lấy thẳng promise khi action cùng loại; action lạ thì đi qua {@link #submit()}.
+     */
+    static <T> ResultPromise<T> promiseOf(LazyAction<T> action) {
+        if (action instanceof LazyActionImpl<T> impl) {
+            return impl.start();
+        }
+        return ResultPromise.from(action.submit());
+    }
+
+    /**
+     * Một bước trong bản thiết kế. Đúng một trong ba trường {@link #step}, {@link #executor}, {@link #await} khác null.
+     */
+    private static final class Stage {
+        private final Stage prev;
+        private final int depth;
+        private final Step step;                                  // Stage đồng bộ
+        private final Executor executor;                          // Chuyển sang Executor khác
+        private final Function<Object, ResultPromise<?>> await;  // Chờ một promise khác (chỉ khi đang SUCCESS)
+        private final boolean owned;                              // Promise chờ thuộc riêng lần kích hoạt: hủy theo
+
+        private Stage(Stage prev, Step step, Executor executor, Function<Object, ResultPromise<?>> await, boolean owned) {
+            this.prev = prev;
+            this.depth = prev == null ? 1 : prev.depth + 1;
+            this.step = step;
+            this.executor = executor;
+            this.await = await;
+            this.owned = owned;
+        }
+
+        static Stage step(Stage prev, Step step) {
+            return new Stage(prev, step, null, null, false);
+        }
+
+        static Stage hop(Stage prev, Executor executor) {
+            return new Stage(prev, null, executor, null, false);
+        }
+
+        static Stage await(Stage prev, Function<Object, ResultPromise<?>> await) {
+            return new Stage(prev, null, null, await, false);
+        }
+
+        /** Như {@link #await}, nhưng hủy lần kích hoạt thì hủy luôn promise đang chờ. */
+        static Stage awaitOwned(Stage prev, Function<Object, ResultPromise<?>> await) {
+            return new Stage(prev, null, null, await, true);
+        }
+    }
+
+    /**
+     * Hàm của stage đồng bộ. Lỗi ném ra được {@link Run} chuyển thành FAILURE.
+     */
+    @FunctionalInterface
+    private interface Step {
+        ActionResult<?> apply(ActionResult<?> result) throws Exception;
+    }
+
+    /**
+     * Một lần kích hoạt: giữ vị trí stage hiện tại và kết quả đang truyền.
+     * Chính nó là tác vụ gửi vào Executor và là callback chờ promise khác, nên không cấp phát thêm gì giữa các stage.
+     */
+    private final class Run implements RejectableTask, Consumer<ActionResult<?>> {
+        private final Stage[] stages;
+        private final ExecutionContext context;
+        private final ResultPromise<T> out = new ResultPromise<>();
+        private int next;
+        private ActionResult<?> current = START;
+
+        private Run(Stage[] stages, ExecutionContext context) {
+            this.stages = stages;
+            this.context = context;
+        }
+
+        @Override
+        public void run() {
+            resume(); // Sau khi chuyển Executor
+        }
+
+        @Override
+        public void reject(@NotNull RejectedExecutionException cause) {
+            current = ActionResult.failure(cause); // Executor bỏ tác vụ khỏi hàng đợi: giống như từ chối ngay lúc gửi
+            resume();
+        }
+
+        @Override
+        public void accept(ActionResult<?> result) {
+            current = result; // Promise đang chờ đã có kết quả
+            resume();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resume() {
+            ExecutionContext.Scope scope = context != null ? context.attach() : null;
+            try {
+                while (next < stages.length) {
+                    if (out.isDone()) return; // Đã bị hủy: bỏ các stage còn lại
+                    Stage stage = stages[next++];
+                    if (stage.step != null) {
+                        try {
+                            current = stage.step.apply(current);
+                        } catch (Throwable t) {
+                            current = ActionResult.failure(t);
+                        }
+                    } else if (stage.executor != null) {
+                        try {
+                            stage.executor.execute(this);
+                            return;
+                        } catch (RejectedExecutionException e) {
+                            current = ActionResult.failure(e);
+                        }
+                    } else if (current.isSuccess()) {
+                        ResultPromise<?> inner;
+                        try {
+                            inner = stage.await.apply(current.getValue());
+                        } catch (Throwable t) {
+                            current = ActionResult.failure(t);
+                            continue;
+                        }
+                        ActionResult<?> ready = inner.getNow();
+                        if (ready == null) {
+                            if (stage.owned) out.whenDone(ignored -> inner.cancel());
+                            inner.whenDone(this);
+                            return;
+                        }
+                        current = ready;
+                    }
+                }
+            } finally {
+                if (scope != null) scope.close();
+            }
+            out.complete((ActionResult<T>) current);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,374 @@
+package com.dianxin.core.api.concurrent;
+
+import com.dianxin.core.api.lifecycle.RejectableTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Lõi bất đồng bộ dùng chung của {@link IAction}, {@link ResultedAction} và {@link LazyAction},
+ * thay cho chuỗi {@link CompletableFuture}.
+ * <p>
+ * Chỉ hoàn tất một lần với một {@link ActionResult}. Callback đăng ký trước khi hoàn tất chạy trên luồng
+ * hoàn tất, đăng ký sau thì chạy ngay trên luồng gọi. Mỗi stage nối vào chỉ tốn một promise và một callback;
+ * kết quả không thành công được chuyển tiếp nguyên vẹn ({@link ActionResult#propagate()}).
+ * {@link CompletableFuture} chỉ được tạo khi thật sự cần ({@link #toFuture(boolean)}).
+ * </p>
+ *
+ * @param <T> Kiểu dữ liệu của kết quả.
+ */
+final class ResultPromise<T> {
+    private static final Logger logger = LoggerFactory.getLogger(ResultPromise.class);
+    private static final ThreadLocal<Trampoline> TRAMPOLINE = ThreadLocal.withInitial(Trampoline::new);
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(ResultPromise.class, "state", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // ActionResult khi đã xong; trước đó là null, một Consumer hoặc một chồng Node callback
+    private volatile Object state;
+
+    ResultPromise() {
+    }
+
+    private ResultPromise(ActionResult<T> result) {
+        this.state = result;
+    }
+
+    static <T> ResultPromise<T> completed(@NotNull ActionResult<T> result) {
+        return new ResultPromise<>(result);
+    }
+
+    /**
+     * Chuyển một Future có sẵn thành promise (Future hoàn tất bất thường thành FAILURE/CANCELLED).
+     */
+    static <T> ResultPromise<T> from(@NotNull CompletableFuture<ActionResult<T>> future) {
+        ActionResult<T> now = future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+        if (now != null) return new ResultPromise<>(now);
+        ResultPromise<T> promise = new ResultPromise<>();
+        future.whenComplete((r, e) -> promise.complete(e != null ? ActionResult.failure(e) : r));
+        return promise;
+    }
+
+    /**
+     * Chạy {@code task} trên {@code executor} và hoàn tất promise với kết quả của nó.
+     * Executor từ chối (kể cả bỏ tác vụ khỏi hàng đợi sau khi đã nhận, xem {@link RejectableTask})
+     * thì kết quả là FAILURE với {@link RejectedExecutionException};
+     * promise đã bị hủy trước khi tác vụ kịp chạy thì tác vụ bị bỏ qua.
+     */
+    static <T> ResultPromise<T> supply(@NotNull Executor executor, @NotNull ResultSupplier<T> task) {
+        ResultPromise<T> promise = new ResultPromise<>();
+        try {
+            executor.execute(new RejectableTask() {
+                @Override
+                public void run() {
+                    if (promise.isDone()) return;
+                    ActionResult<T> r;
+                    try {
+                        r = task.get();
+                    } catch (Throwable e) {
+                        r = ActionResult.failure(e);
+                    }
+                    promise.complete(r);
+                }
+
+                @Override
+                public void reject(@NotNull RejectedExecutionException cause) {
+                    promise.complete(ActionResult.failure(cause));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool đã đầy (RejectionPolicy.FAIL_FAST) hoặc đã shutdown
+            promise.complete(ActionResult.failure(e));
+        }
+        return promise;
+    }
+
+    /**
+     * @return {@code false} nếu đã hoàn tất từ trước (kết quả mới bị bỏ qua).
+     */
+    boolean complete(@NotNull ActionResult<T> value) {
+        Object s;
+        do {
+            s = state;
+            if (s instanceof ActionResult) return false;
+        } while (!STATE.compareAndSet(this, s, value));
+        if (s != null) dispatch(s, value);
+        return true;
+    }
+
+    boolean cancel() {
+        return complete(ActionResult.cancelled());
+    }
+
+    /**
+     * Đăng ký callback nhận kết quả. Nếu promise đã hoàn tất, callback được gọi ngay trên luồng này
+     * (hoặc ngay sau callback đang chạy dở, xem {@link #dispatch}).
+     */
+    @SuppressWarnings("unchecked")
+    void whenDone(@NotNull Consumer<? super ActionResult<T>> callback) {
+        Object s;
+        do {
+            s = state;
+            if (s instanceof ActionResult) {
+                dispatch(callback, s);
+                return;
+            }
+        } while (!STATE.compareAndSet(this, s, s == null ? callback : new Node((Consumer<Object>) callback, s)));
+    }
+
+    boolean isDone() {
+        return state instanceof ActionResult;
+    }
+
+    boolean isCancelled() {
+        ActionResult<T> r = getNow();
+        return r != null && r.isCancelled();
+    }
+
+    /** @return Kết quả, hoặc {@code null} nếu chưa xong. */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    ActionResult<T> getNow() {
+        Object s = state;
+        return s instanceof ActionResult ? (ActionResult<T>) s : null;
+    }
+
+    /**
+     * Chặn đến khi có kết quả (không bị ngắt bởi interrupt, giống {@link CompletableFuture#join()}).
+     * Nếu được gọi từ bên trong một callback, các callback đang xếp hàng trên luồng này được chạy trước khi chặn,
+     * vì kết quả đang chờ có thể nằm ngay trong số đó.
+     */
+    @NotNull
+    ActionResult<T> await() {
+        ActionResult<T> r = getNow();
+        if (r != null) return r;
+        Thread waiter = Thread.currentThread();
+        whenDone(ignored -> LockSupport.unpark(waiter));
+        boolean interrupted = false;
+        while ((r = getNow()) == null) {
+            if (runPending()) continue;
+            LockSupport.park(this);
+            if (Thread.interrupted()) interrupted = true;
+        }
+        if (interrupted) waiter.interrupt();
+        return r;
+    }
+
+    /**
+     * Chặn tối đa {@code timeout}.
+     *
+     * @throws TimeoutException Nếu hết thời gian mà chưa có kết quả.
+     */
+    @NotNull
+    ActionResult<T> await(long timeout, @NotNull TimeUnit unit) throws TimeoutException, InterruptedException {
+        ActionResult<T> r = getNow();
+        if (r != null) return r;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Thread waiter = Thread.currentThread();
+        whenDone(ignored -> LockSupport.unpark(waiter));
+        while ((r = getNow()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+            if (runPending()) continue;
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return r;
+    }
+
+    // =========================================================================
+    // Stage (mỗi stage: một promise + một callback)
+    // =========================================================================
+
+    /**
+     * Stage đồng bộ: {@code step} nhận kết quả của promise này và trả về kết quả mới.
+     * {@code step} phải tự bắt lỗi của mình. Stage sau đã bị hủy thì {@code step} không chạy.
+     */
+    <U> ResultPromise<U> then(@NotNull Function<ActionResult<T>, ActionResult<U>> step) {
+        ActionResult<T> r = getNow();
+        if (r != null) return new ResultPromise<>(step.apply(r)); // Đã xong: tính luôn, không cần callback
+        ResultPromise<U> next = new ResultPromise<>();
+        whenDone(value -> {
+            if (!next.isDone()) next.complete(step.apply(value));
+        });
+        return next;
+    }
+
+    /**
+     * Stage bất đồng bộ: {@code step} trả về promise mà stage sau phải chờ.
+     */
+    <U> ResultPromise<U> thenCompose(@NotNull Function<ActionResult<T>, ResultPromise<U>> step) {
+        ResultPromise<U> next = new ResultPromise<>();
+        whenDone(value -> {
+            if (next.isDone()) return;
+            ResultPromise<U> inner;
+            try {
+                inner = step.apply(value);
+            } catch (Throwable e) {
+                next.complete(ActionResult.failure(e));
+                return;
+            }
+            inner.whenDone(next::complete);
+        });
+        return next;
+    }
+
+    /**
+     * Chuyển kết quả sang {@code executor}. Executor từ chối (hoặc bỏ tác vụ khỏi hàng đợi) thì kết quả là FAILURE với
+     * {@link RejectedExecutionException}.
+     */
+    ResultPromise<T> onExecutor(@NotNull Executor executor) {
+        ResultPromise<T> next = new ResultPromise<>();
+        whenDone(value -> {
+            try {
+                executor.execute(new RejectableTask() {
+                    @Override
+                    public void run() {
+                        next.complete(value);
+                    }
+
+                    @Override
+                    public void reject(@NotNull RejectedExecutionException cause) {
+                        next.complete(ActionResult.failure(cause));
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                next.complete(ActionResult.failure(e));
+            }
+        });
+        return next;
+    }
+
+    /**
+     * Tạo {@link CompletableFuture} phản chiếu kết quả.
+     *
+     * @param propagateCancel {@code true} nếu hủy Future trả về cũng hủy promise này.
+     */
+    @NotNull
+    CompletableFuture<ActionResult<T>> toFuture(boolean propagateCancel) {
+        ActionResult<T> r = getNow();
+        if (r != null) return CompletableFuture.completedFuture(r);
+        CompletableFuture<ActionResult<T>> future = !propagateCancel ? new CompletableFuture<>() : new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                ResultPromise.this.cancel();
+                return cancelled;
+            }
+        };
+        whenDone(future::complete);
+        return future;
+    }
+
+    /**
+     * Tác vụ trả về {@link ActionResult}, được phép ném lỗi (lỗi thành FAILURE).
+     */
+    @FunctionalInterface
+    interface ResultSupplier<T> {
+        ActionResult<T> get() throws Exception;
+    }
+
+    /**
+     * Gọi các callback của một promise vừa hoàn tất, theo kiểu "trampoline" giống
+     * {@code CompletableFuture.postComplete}: nếu luồng này đang gọi callback dở (callback hoàn tất stage sau,
+     * stage sau lại hoàn tất stage sau nữa...), lượt mới chỉ được xếp hàng và vòng lặp ngoài cùng sẽ chạy tiếp.
+     * Nhờ vậy chuỗi hàng chục nghìn stage không làm tràn stack.
+     */
+    private static void dispatch(Object callbacks, Object value) {
+        Trampoline trampoline = TRAMPOLINE.get();
+        if (trampoline.running) {
+            trampoline.pending.add(new Pending(callbacks, value));
+            return;
+        }
+        trampoline.running = true;
+        try {
+            fire(callbacks, value);
+            Pending next;
+            while ((next = trampoline.pending.poll()) != null) {
+                fire(next.callbacks, next.value);
+            }
+        } finally {
+            trampoline.running = false;
+        }
+    }
+
+    /**
+     * Chạy các callback mà {@link #dispatch} đã hoãn trên luồng hiện tại. Dùng khi luồng sắp chặn bên trong
+     * một callback: nếu không, chúng chỉ chạy sau khi callback đó trả về và {@link #await} chờ mãi.
+     *
+     * @return {@code true} nếu có callback đã chạy.
+     */
+    private static boolean runPending() {
+        Trampoline trampoline = TRAMPOLINE.get();
+        if (!trampoline.running || trampoline.pending.isEmpty()) return false;
+        Pending next;
+        while ((next = trampoline.pending.poll()) != null) {
+            fire(next.callbacks, next.value);
+        }
+        return true;
+    }
+
+    /** Gọi các callback theo đúng thứ tự đăng ký (chồng Node lưu ngược); lỗi của callback này không chặn callback khác. */
+    @SuppressWarnings("unchecked")
+    private static void fire(Object callbacks, Object value) {
+        if (!(callbacks instanceof Node top)) {
+            invoke((Consumer<Object>) callbacks, value);
+            return;
+        }
+        ArrayList<Consumer<Object>> ordered = new ArrayList<>();
+        Object s = top;
+        while (s instanceof Node node) {
+            ordered.add(node.callback);
+            s = node.next;
+        }
+        ordered.add((Consumer<Object>) s);
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            invoke(ordered.get(i), value);
+        }
+    }
+
+    private static void invoke(Consumer<Object> callback, Object value) {
+        try {
+            callback.accept(value);
+        } catch (Throwable t) {
+            logger.error("Callback của action ném lỗi", t);
+        }
+    }
+
+    /** Hàng đợi callback chờ gọi của luồng hiện tại. */
+    private static final class Trampoline {
+        private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+        private boolean running;
+    }
+
+    private record Pending(Object callbacks, Object value) {
+    }
+
+    /** Một callback trong chồng khi có nhiều hơn một người chờ; {@code next} là Node hoặc Consumer đầu tiên. */
+    private record Node(Consumer<Object> callback, Object next) {
+    }
+}
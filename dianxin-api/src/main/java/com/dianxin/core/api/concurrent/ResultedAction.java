@@ -1,6 +1,7 @@
 package com.dianxin.core.api.concurrent;
 
 import com.dianxin.core.api.annotations.ReleasedSince;
+import com.dianxin.core.api.lifecycle.ExecutionContext;
 import com.dianxin.core.api.lifecycle.ExecutorManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -240,7 +241,8 @@ public interface ResultedAction<T> {
      * Tạo một ResultedAction từ một tác vụ (Callable).
      * <p>
      * Bất kỳ Exception nào quăng ra từ {@code task.call()} đều sẽ bị hệ thống bắt lại
-     * và tự động đóng gói vào {@link ActionResult#failure(Throwable)}.
+     * và tự động đóng gói vào {@link ActionResult#failure(Throwable)}. Nếu executor từ chối tác vụ
+     * (hàng đợi đầy), kết quả sẽ là FAILURE với {@link RejectedExecutionException}.
      * </p>
      *
      * @param task     Tác vụ cần thực thi.
@@ -250,15 +252,34 @@ public interface ResultedAction<T> {
      */
     static <T> ResultedAction<T> supplyAsync(@NotNull Callable<T> task, @Nullable Executor executor) {
         Executor exec = (executor != null) ? executor : ExecutorManager.io();
+        Callable<T> bound = ExecutionContext.wrap(task);
+        return new ResultedActionImpl<>(ResultPromise.supply(exec, () -> ActionResult.success(bound.call())));
+    }
 
-        CompletableFuture<ActionResult<T>> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                return ActionResult.success(task.call());
-            } catch (Throwable e) {
-                return ActionResult.failure(e);
-            }
-        }, exec);
+    /**
+     * Như {@link #supplyAsync(Callable, Executor)} nhưng chạy lại {@code task} khi gặp lỗi theo {@code policy}.
+     * ResultedAction chạy ngay khi tạo nên không thể thử lại sau khi đã có kết quả; hãy khai báo việc thử lại
+     * từ đầu bằng hàm này (hoặc dùng {@link LazyAction#retry(RetryPolicy)}).
+     *
+     * @param task     Tác vụ cần thực thi (mỗi lần thử gọi lại một lần).
+     * @param executor Thread pool để chạy tác vụ (mặc định dùng {@link ExecutorManager#io()} nếu là null).
+     * @param policy   Chính sách thử lại.
+     * @param <T>      Kiểu dữ liệu trả về.
+     */
+    static <T> ResultedAction<T> supplyAsync(@NotNull Callable<T> task, @Nullable Executor executor, @NotNull RetryPolicy policy) {
+        Executor exec = (executor != null) ? executor : ExecutorManager.io();
+        LazyAction<T> attempt = LazyAction.defer(task, exec);
+        return new ResultedActionImpl<>(policy.execute(() -> LazyActionImpl.promiseOf(attempt)));
+    }
 
+    /**
+     * Bọc một Future đã có sẵn (ví dụ từ {@code Scheduler.callTask}) thành ResultedAction.
+     * Future hoàn tất bất thường sẽ được chuyển thành {@link ActionResult#failure(Throwable)}.
+     *
+     * @param future Future chứa kết quả.
+     * @param <T>    Kiểu dữ liệu trả về.
+     */
+    static <T> ResultedAction<T> fromFuture(@NotNull CompletableFuture<ActionResult<T>> future) {
         return new ResultedActionImpl<>(future);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.dianxin.core.api.concurrent;
 
+import com.dianxin.core.api.lifecycle.ExecutionContext;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.concurrent.CancellationException;
@@ -11,22 +12,26 @@ import java.util.function.Function;
 
 class ResultedActionImpl<T> implements ResultedAction<T> {
 
-    // Future bây giờ ôm trọn ActionResult, không lo bị ngắt quãng bởi Exception
-    private final CompletableFuture<ActionResult<T>> future;
+    // Promise ôm trọn ActionResult, không lo bị ngắt quãng bởi Exception
+    private final ResultPromise<T> promise;
+
+    ResultedActionImpl(ResultPromise<T> promise) {
+        this.promise = promise;
+    }
 
     ResultedActionImpl(CompletableFuture<ActionResult<T>> future) {
         // Fallback an toàn: lỡ Future gốc bị lỗi do thread pool từ chối (RejectedExecutionException)
-        this.future = future.exceptionally(ActionResult::failure);
+        this(ResultPromise.from(future));
     }
 
     @Override
     public void queue() {
-        future.thenAccept(result -> {}); // Thực thi mà không làm gì với kết quả trả về
+        // Tác vụ đã chạy ngay từ lúc tạo, không cần đăng ký gì thêm
     }
 
     @Override
     public void queue(@NotNull Consumer<T> success, @NotNull Consumer<Throwable> failure) {
-        future.thenAccept(result -> {
+        Consumer<ActionResult<T>> handler = result -> {
             if (result.isSuccess()) {
                 // Nhánh thành công: Trả thẳng value ra ngoài
                 success.accept(result.getValue());
@@ -38,21 +43,23 @@ class ResultedActionImpl<T> implements ResultedAction<T> {
                 }
                 failure.accept(ex);
             }
-        });
+        };
+        promise.whenDone(ExecutionContext.wrapConsumer(handler));
     }
 
     @Override
     public void queue(@NotNull Consumer<ActionResult<T>> callback) {
-        future.thenAccept(callback);
+        promise.whenDone(ExecutionContext.wrapConsumer(callback));
     }
 
     @Override
     public @NotNull ResultedAction<T> onSuccess(@NotNull Consumer<T> successCallback) {
-        CompletableFuture<ActionResult<T>> successHandledFuture = future.thenApply(result -> {
+        Consumer<T> bound = ExecutionContext.wrapConsumer(successCallback);
+        return new ResultedActionImpl<>(promise.then(result -> {
             // Chỉ kích hoạt callback nếu tác vụ thực sự thành công
             if (result.isSuccess()) {
                 try {
-                    successCallback.accept(result.getValue());
+                    bound.accept(result.getValue());
                 } catch (Exception ignored) {
                     // Nuốt lỗi an toàn: Giả sử code trong onSuccess bị lỗi (ví dụ lỗi ghi file log),
                     // nó sẽ không làm hỏng dữ liệu đang truyền xuống hàm queue() ở cuối chuỗi.
@@ -60,14 +67,13 @@ class ResultedActionImpl<T> implements ResultedAction<T> {
             }
             // Trả lại y nguyên result (dù thành công hay thất bại) để đi tiếp con đường của nó
             return result;
-        });
-
-        return new ResultedActionImpl<>(successHandledFuture);
+        }));
     }
 
     @Override
     public @NotNull ResultedAction<T> onError(@NotNull Consumer<Throwable> failureCallback) {
-        CompletableFuture<ActionResult<T>> errorHandledFuture = future.thenApply(result -> {
+        Consumer<Throwable> bound = ExecutionContext.wrapConsumer(failureCallback);
+        return new ResultedActionImpl<>(promise.then(result -> {
             // Nếu có lỗi hoặc bị hủy, kích hoạt callback
             if (!result.isSuccess()) {
                 Throwable ex = result.getException();
@@ -76,27 +82,25 @@ class ResultedActionImpl<T> implements ResultedAction<T> {
                 }
 
                 try {
-                    failureCallback.accept(ex);
+                    bound.accept(ex);
                 } catch (Exception ignored) {
                     // Nuốt lỗi nếu code trong onError tự sinh ra lỗi, để không làm sập chuỗi chính
                 }
             }
             // Vẫn phải đẩy result gốc đi tiếp cho các hàm queue() hoặc flatMap() phía sau
             return result;
-        });
-
-        return new ResultedActionImpl<>(errorHandledFuture);
+        }));
     }
 
     @Override
     public @NotNull ActionResult<T> complete() {
-        return future.join();
+        return promise.await();
     }
 
     @Override
     public @NotNull ActionResult<T> complete(long timeout, @NotNull TimeUnit unit) {
         try {
-            return future.get(timeout, unit);
+            return promise.await(timeout, unit);
         } catch (Exception e) {
             return ActionResult.failure(e);
         }
@@ -104,58 +108,60 @@ class ResultedActionImpl<T> implements ResultedAction<T> {
 
     @Override
     public @NotNull CompletableFuture<ActionResult<T>> submit() {
-        return future.thenApply(Function.identity());
+        // Future riêng cho người gọi: hủy nó không ảnh hưởng đến action gốc
+        return promise.toFuture(false);
     }
 
     @Override
     public <U> @NotNull ResultedAction<U> map(@NotNull Function<T, U> mapper) {
-        CompletableFuture<ActionResult<U>> mappedFuture = future.thenApply(result -> {
-            // Chỉ chạy mapper nếu kết quả trước đó thành công
-            if (result.isSuccess()) {
-                try {
-                    return ActionResult.success(mapper.apply(result.getValue()));
-                } catch (Throwable t) {
-                    return ActionResult.failure(t); // Bắt lỗi xảy ra trong lúc map
-                }
+        Function<T, U> bound = ExecutionContext.wrapFunction(mapper);
+        return new ResultedActionImpl<>(promise.then(result -> {
+            // Nếu trước đó đã lỗi, đẩy tiếp nguyên kết quả đó xuống dưới
+            if (!result.isSuccess()) return result.propagate();
+            try {
+                return ActionResult.success(bound.apply(result.getValue()));
+            } catch (Throwable t) {
+                return ActionResult.failure(t); // Bắt lỗi xảy ra trong lúc map
             }
-            // Nếu trước đó đã lỗi, đẩy tiếp lỗi đó xuống dưới
-            return ActionResult.failure(result.getException());
-        });
-        return new ResultedActionImpl<>(mappedFuture);
+        }));
     }
 
     @Override
     public <U> @NotNull ResultedAction<U> flatMap(@NotNull Function<T, ResultedAction<U>> mapper) {
-        CompletableFuture<ActionResult<U>> flatMappedFuture = future.thenCompose(result -> {
-            if (result.isSuccess()) {
-                try {
-                    return mapper.apply(result.getValue()).submit();
-                } catch (Throwable t) {
-                    return CompletableFuture.completedFuture(ActionResult.failure(t));
-                }
-            }
-            return CompletableFuture.completedFuture(ActionResult.failure(result.getException()));
-        });
-        return new ResultedActionImpl<>(flatMappedFuture);
+        Function<T, ResultedAction<U>> bound = ExecutionContext.wrapFunction(mapper);
+        return new ResultedActionImpl<>(promise.thenCompose(result -> {
+            if (!result.isSuccess()) return ResultPromise.completed(result.propagate());
+            return promiseOf(bound.apply(result.getValue()));
+        }));
     }
 
     @Override
     public @NotNull ResultedAction<T> onExecutor(@NotNull Executor executor) {
-        return new ResultedActionImpl<>(future.thenApplyAsync(Function.identity(), executor));
+        return new ResultedActionImpl<>(promise.onExecutor(ExecutionContext.propagating(executor)));
     }
 
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
-        return future.cancel(mayInterruptIfRunning);
+        return promise.cancel();
     }
 
     @Override
     public boolean isDone() {
-        return future.isDone();
+        return promise.isDone();
     }
 
     @Override
     public boolean isCancelled() {
-        return future.isCancelled();
+        return promise.isCancelled();
+    }
+
+    /**
+     * Lấy thẳng promise của action cùng loại; action lạ thì đi qua {@link #submit()}.
+     */
+    private static <U> ResultPromise<U> promiseOf(ResultedAction<U> action) {
+        if (action instanceof ResultedActionImpl<U> impl) {
+            return impl.promise;
+        }
+        return ResultPromise.from(action.submit());
     }
-}
\ No newline at end of file
+}
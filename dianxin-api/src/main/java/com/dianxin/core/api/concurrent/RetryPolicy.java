@@ -0,0 +1,237 @@
+package com.dianxin.core.api.concurrent;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import com.dianxin.core.api.lifecycle.ExecutionContext;
+import com.dianxin.core.api.v2.scheduler.Scheduler;
+import com.dianxin.core.api.v2.scheduler.Task;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Chính sách thử lại cho {@link LazyAction#retry(RetryPolicy)} và
+ * {@link ResultedAction#supplyAsync(java.util.concurrent.Callable, java.util.concurrent.Executor, RetryPolicy)}.
+ * <p>
+ * Thời gian chờ giữa các lần thử được hẹn qua {@link Scheduler}, không có luồng nào phải ngủ.
+ * Một policy có thể dùng chung cho nhiều action; số liệu của mọi lần dùng được cộng dồn ở {@link #getStats()}.
+ * Kết quả CANCELLED không bao giờ được thử lại.
+ * </p>
+ *
+ * <pre>{@code
+ * RetryPolicy dbRetry = RetryPolicy.builder(scheduler)
+ *         .maxAttempts(4)
+ *         .backoff(Backoff.exponential(Duration.ofMillis(50), Duration.ofSeconds(2)))
+ *         .retryOn(e -> e instanceof SQLTransientException)
+ *         .build();
+ *
+ * LazyAction.defer(() -> repo.loadProfile(userId)).retry(dbRetry).queue(...);
+ * }</pre>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class RetryPolicy {
+    private final Scheduler scheduler;
+    private final int maxAttempts;
+    private final Backoff backoff;
+    private final Predicate<Throwable> retryOn;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder retriedSuccesses = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+
+    private RetryPolicy(Builder builder) {
+        this.scheduler = builder.scheduler;
+        this.maxAttempts = builder.maxAttempts;
+        this.backoff = builder.backoff;
+        this.retryOn = builder.retryOn;
+    }
+
+    /**
+     * @param scheduler Scheduler dùng để hẹn giờ các lần thử lại.
+     */
+    public static Builder builder(@NotNull Scheduler scheduler) {
+        return new Builder(scheduler);
+    }
+
+    /**
+     * Tạo nhanh một policy.
+     *
+     * @param maxAttempts Số lần chạy tối đa (kể cả lần đầu).
+     * @param backoff     Thời gian chờ giữa các lần thử.
+     * @param retryOn     Lỗi nào đáng thử lại.
+     */
+    public static RetryPolicy of(@NotNull Scheduler scheduler, int maxAttempts, @NotNull Backoff backoff,
+                                 @NotNull Predicate<Throwable> retryOn) {
+        return builder(scheduler).maxAttempts(maxAttempts).backoff(backoff).retryOn(retryOn).build();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public @NotNull Backoff getBackoff() {
+        return backoff;
+    }
+
+    /** @return Số liệu cộng dồn của mọi action dùng policy này. */
+    public @NotNull RetryStats getStats() {
+        return new RetryStats(calls.sum(), attempts.sum(), successes.sum(), retriedSuccesses.sum(),
+                exhausted.sum(), aborted.sum());
+    }
+
+    /**
+     * Chạy {@code attempt} cho đến khi thành công, gặp lỗi không đáng thử lại, hoặc hết số lần.
+     * Hủy promise trả về sẽ hủy lần chạy đang dở và lần hẹn giờ kế tiếp.
+     *
+     * @param attempt Mỗi lần gọi là một lần chạy mới.
+     */
+    <T> ResultPromise<T> execute(@NotNull Supplier<ResultPromise<T>> attempt) {
+        calls.increment();
+        Run<T> run = new Run<>(attempt);
+        run.attempt();
+        return run.result;
+    }
+
+    /**
+     * Một lần dùng policy. Chính nó là tác vụ hẹn trên Scheduler cho lần thử kế tiếp.
+     */
+    private final class Run<T> implements Runnable {
+        private final Supplier<ResultPromise<T>> source;
+        private final ExecutionContext context = ExecutionContext.capture();
+        private final ResultPromise<T> result = new ResultPromise<>();
+        private int count; // Chỉ một lần thử chạy tại một thời điểm
+        private volatile ResultPromise<T> current;
+        private volatile Task timer;
+
+        private Run(Supplier<ResultPromise<T>> source) {
+            this.source = source;
+            result.whenDone(r -> {
+                if (!r.isCancelled()) return;
+                aborted.increment();
+                ResultPromise<T> c = current;
+                if (c != null) c.cancel();
+                Task t = timer;
+                if (t != null) t.cancel();
+            });
+        }
+
+        @Override
+        public void run() {
+            attempt();
+        }
+
+        private void attempt() {
+            if (result.isDone()) return; // Đã bị hủy trong lúc chờ
+            count++;
+            attempts.increment();
+            ResultPromise<T> promise;
+            ExecutionContext.Scope scope = context != null ? context.attach() : null;
+            try {
+                promise = source.get();
+            } catch (Throwable e) {
+                promise = ResultPromise.completed(ActionResult.failure(e));
+            } finally {
+                if (scope != null) scope.close();
+            }
+            current = promise;
+            if (result.isDone()) promise.cancel(); // Bị hủy xen giữa
+            promise.whenDone(this::onResult);
+        }
+
+        private void onResult(ActionResult<T> r) {
+            if (r.isSuccess()) {
+                successes.increment();
+                if (count > 1) retriedSuccesses.increment();
+                result.complete(r);
+                return;
+            }
+            if (r.isCancelled() || result.isDone()) {
+                result.complete(r); // Việc hủy đã được đếm ở callback trong constructor
+                return;
+            }
+            if (!shouldRetry(r.getException())) {
+                aborted.increment();
+                result.complete(r);
+                return;
+            }
+            if (count >= maxAttempts) {
+                exhausted.increment();
+                result.complete(r);
+                return;
+            }
+            long delay = backoff.delayNanos(count);
+            ExecutionContext.Scope scope = context != null ? context.attach() : null;
+            try {
+                // Scheduler chụp ngữ cảnh lúc hẹn, nên phải gắn lại ngữ cảnh của lần kích hoạt đầu
+                timer = scheduler.runTaskLaterAsync(this, delay, TimeUnit.NANOSECONDS);
+            } catch (RuntimeException e) {
+                // Scheduler đã shutdown: trả về lỗi gần nhất
+                aborted.increment();
+                result.complete(r);
+                return;
+            } finally {
+                if (scope != null) scope.close();
+            }
+            if (result.isDone()) timer.cancel(); // Bị hủy xen giữa
+        }
+
+        private boolean shouldRetry(Throwable error) {
+            try {
+                return retryOn.test(error);
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+    }
+
+    public static final class Builder {
+        private final Scheduler scheduler;
+        private int maxAttempts = 3;
+        private Backoff backoff = Backoff.exponential(Duration.ofMillis(100), Duration.ofSeconds(10));
+        private Predicate<Throwable> retryOn = e -> true;
+
+        private Builder(Scheduler scheduler) {
+            this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        }
+
+        /**
+         * Số lần chạy tối đa, kể cả lần đầu (mặc định 3).
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts phải lớn hơn 0");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Thời gian chờ giữa các lần thử (mặc định lũy thừa full-jitter, 100ms đến tối đa 10s).
+         */
+        public Builder backoff(@NotNull Backoff backoff) {
+            this.backoff = Objects.requireNonNull(backoff, "backoff");
+            return this;
+        }
+
+        /**
+         * Chỉ thử lại khi lỗi thỏa {@code retryOn} (mặc định thử lại với mọi lỗi).
+         * Predicate ném lỗi thì coi như không thử lại.
+         */
+        public Builder retryOn(@NotNull Predicate<Throwable> retryOn) {
+            this.retryOn = Objects.requireNonNull(retryOn, "retryOn");
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
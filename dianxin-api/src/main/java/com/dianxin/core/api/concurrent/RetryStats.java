@@ -0,0 +1,17 @@
+package com.dianxin.core.api.concurrent;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * Số liệu của một {@link RetryPolicy}, xem {@link RetryPolicy#getStats()}.
+ *
+ * @param calls            Số lần action dùng policy được kích hoạt.
+ * @param attempts         Tổng số lần chạy (kể cả lần đầu), nên {@code attempts - calls} là số lần thử lại.
+ * @param successes        Số lần kết thúc THÀNH CÔNG.
+ * @param retriedSuccesses Số lần THÀNH CÔNG nhưng phải thử lại ít nhất một lần.
+ * @param exhausted        Số lần bỏ cuộc vì đã hết {@code maxAttempts}.
+ * @param aborted          Số lần dừng sớm: lỗi không đáng thử lại, bị hủy, hoặc Scheduler từ chối hẹn giờ.
+ */
+@ReleasedSince("2.2")
+public record RetryStats(long calls, long attempts, long successes, long retriedSuccesses, long exhausted, long aborted) {
+}
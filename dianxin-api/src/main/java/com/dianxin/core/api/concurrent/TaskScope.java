@@ -0,0 +1,380 @@
+package com.dianxin.core.api.concurrent;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import com.dianxin.core.api.lifecycle.ExecutorManager;
+import com.dianxin.core.api.lifecycle.RejectableTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Phạm vi đồng thời có cấu trúc (Structured Concurrency) chạy trên các executor của {@link ExecutorManager}.
+ * <p>
+ * Một scope "fork" nhiều tác vụ con, rồi {@link #join()} để chờ. Khi một chính sách được thỏa mãn
+ * (một tác vụ lỗi với {@link #shutdownOnFailure()}, hoặc một tác vụ thành công với {@link #shutdownOnSuccess()}),
+ * scope tự động hủy các tác vụ anh em còn lại để chúng không chiếm thread vô ích.
+ * Đóng scope ({@link #close()}) cũng hủy mọi tác vụ chưa xong.
+ * </p>
+ *
+ * <pre>{@code
+ * try (TaskScope<Object> scope = TaskScope.shutdownOnFailure()) {
+ *     TaskScope.Subtask<User> user = scope.fork(() -> userRepo.find(id));
+ *     TaskScope.Subtask<Stats> stats = scope.fork(() -> statsApi.fetch(id));
+ *     TaskScope.Subtask<Guild> guild = scope.fork(guildService.load(guildId)); // LazyAction
+ *
+ *     scope.join().throwIfFailed(); // 1 tác vụ lỗi -> 2 tác vụ kia bị hủy ngay
+ *     reply(user.get(), stats.get(), guild.get());
+ * }
+ * }</pre>
+ *
+ * <p>
+ * <b>Lưu ý về hủy:</b> tác vụ fork bằng {@link Callable} sẽ bị interrupt thật sự. Với {@link ResultedAction}
+ * và {@link LazyAction}, scope chỉ có thể gọi {@code cancel(true)} trên action; phần tác vụ gốc đang chạy
+ * dở có thể vẫn chạy tới khi xong.
+ * </p>
+ *
+ * @param <T> Kiểu kết quả chung của các tác vụ con (dùng {@code Object} nếu các tác vụ khác kiểu).
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class TaskScope<T> implements AutoCloseable {
+
+    private enum Policy { ON_FAILURE, ON_SUCCESS }
+
+    private final Policy policy;
+    private final Executor executor;
+    private final List<Subtask<? extends T>> subtasks = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean shutdown = new AtomicBoolean(false);
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    private final AtomicReference<ActionResult<T>> firstSuccess = new AtomicReference<>();
+
+    private TaskScope(Policy policy, Executor executor) {
+        this.policy = policy;
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Scope hủy mọi tác vụ còn lại ngay khi có một tác vụ thất bại. Tác vụ chạy trên {@link ExecutorManager#io()}.
+     */
+    public static <T> TaskScope<T> shutdownOnFailure() {
+        return shutdownOnFailure(ExecutorManager.io());
+    }
+
+    /**
+     * Scope hủy mọi tác vụ còn lại ngay khi có một tác vụ thất bại.
+     *
+     * @param executor Executor chạy các tác vụ fork bằng {@link Callable}.
+     */
+    public static <T> TaskScope<T> shutdownOnFailure(@NotNull Executor executor) {
+        return new TaskScope<>(Policy.ON_FAILURE, executor);
+    }
+
+    /**
+     * Scope lấy kết quả của tác vụ thành công đầu tiên rồi hủy các tác vụ còn lại
+     * (ví dụ: hỏi nhiều mirror, lấy cái trả lời nhanh nhất). Tác vụ chạy trên {@link ExecutorManager#io()}.
+     */
+    public static <T> TaskScope<T> shutdownOnSuccess() {
+        return shutdownOnSuccess(ExecutorManager.io());
+    }
+
+    /**
+     * Scope lấy kết quả của tác vụ thành công đầu tiên rồi hủy các tác vụ còn lại.
+     *
+     * @param executor Executor chạy các tác vụ fork bằng {@link Callable}.
+     */
+    public static <T> TaskScope<T> shutdownOnSuccess(@NotNull Executor executor) {
+        return new TaskScope<>(Policy.ON_SUCCESS, executor);
+    }
+
+    // =========================================================================
+    // Fork
+    // =========================================================================
+
+    /**
+     * Chạy một tác vụ con trên executor của scope.
+     * Nếu scope đã shutdown, tác vụ sẽ không chạy và mang trạng thái CANCELLED.
+     */
+    public <U extends T> Subtask<U> fork(@NotNull Callable<U> task) {
+        Subtask<U> subtask = new Subtask<>();
+        if (!register(subtask)) return subtask;
+
+        ForkedTask<U> futureTask = new ForkedTask<>(subtask, () -> {
+            if (shutdown.get()) return;
+            ActionResult<U> result;
+            try {
+                result = ActionResult.success(task.call());
+            } catch (Throwable t) {
+                result = ActionResult.failure(t);
+            }
+            onComplete(subtask, result);
+        });
+        subtask.canceller = () -> futureTask.cancel(true);
+
+        try {
+            executor.execute(futureTask);
+        } catch (RejectedExecutionException e) {
+            onComplete(subtask, ActionResult.failure(e));
+        }
+        return subtask;
+    }
+
+    /**
+     * Tác vụ con fork bằng {@link Callable}. Pool bỏ nó mà không chạy (DROP_OLDEST, shutdown) thì tác vụ con
+     * kết thúc với lỗi {@link RejectedExecutionException}, để {@link #join()} không phải chờ mãi.
+     */
+    private final class ForkedTask<U extends T> extends FutureTask<Void> implements RejectableTask {
+        private final Subtask<U> subtask;
+
+        private ForkedTask(Subtask<U> subtask, Runnable body) {
+            super(body, null);
+            this.subtask = subtask;
+        }
+
+        @Override
+        public void reject(@NotNull RejectedExecutionException cause) {
+            if (cancel(false)) {
+                onComplete(subtask, ActionResult.failure(cause));
+            }
+        }
+    }
+
+    /**
+     * Gắn một {@link ResultedAction} (đang chạy) vào scope.
+     */
+    public <U extends T> Subtask<U> fork(@NotNull ResultedAction<U> action) {
+        Subtask<U> subtask = new Subtask<>();
+        if (!register(subtask)) {
+            action.cancel(true);
+            return subtask;
+        }
+        subtask.canceller = () -> action.cancel(true);
+        action.queue(result -> onComplete(subtask, result));
+        return subtask;
+    }
+
+    /**
+     * Kích hoạt một {@link LazyAction} bên trong scope. Nếu scope đã shutdown, action sẽ không được kích hoạt.
+     */
+    public <U extends T> Subtask<U> fork(@NotNull LazyAction<U> action) {
+        Subtask<U> subtask = new Subtask<>();
+        if (!register(subtask)) return subtask;
+
+        CompletableFuture<ActionResult<U>> running = action.submit();
+        subtask.canceller = () -> running.cancel(true);
+        running.whenComplete((result, error) ->
+                onComplete(subtask, error != null ? ActionResult.failure(error) : result));
+        return subtask;
+    }
+
+    private boolean register(Subtask<? extends T> subtask) {
+        if (shutdown.get()) {
+            subtask.complete(ActionResult.cancelled());
+            return false;
+        }
+        subtasks.add(subtask);
+        // shutdown() có thể chạy xen giữa, khi đó tự hủy luôn tác vụ vừa đăng ký
+        if (shutdown.get()) {
+            subtask.complete(ActionResult.cancelled());
+            return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <U extends T> void onComplete(Subtask<U> subtask, ActionResult<U> result) {
+        if (!subtask.complete(result)) return; // đã bị hủy trước đó
+
+        if (result.isFailure() && policy == Policy.ON_FAILURE) {
+            if (firstFailure.compareAndSet(null, result.getException())) shutdown();
+        } else if (result.isFailure()) {
+            firstFailure.compareAndSet(null, result.getException());
+        } else if (result.isSuccess() && policy == Policy.ON_SUCCESS) {
+            if (firstSuccess.compareAndSet(null, (ActionResult<T>) result)) shutdown();
+        }
+    }
+
+    // =========================================================================
+    // Join & Shutdown
+    // =========================================================================
+
+    /**
+     * Chờ cho đến khi mọi tác vụ con kết thúc (hoặc bị hủy do chính sách của scope).
+     *
+     * @return Chính scope này để gọi tiếp {@link #throwIfFailed()} hoặc {@link #result()}.
+     * @throws InterruptedException Nếu luồng đang chờ bị ngắt.
+     */
+    public TaskScope<T> join() throws InterruptedException {
+        try {
+            allDone().get();
+        } catch (ExecutionException e) {
+            // không xảy ra: completion của Subtask không bao giờ hoàn thành bằng exception
+        }
+        return this;
+    }
+
+    /**
+     * Chờ tối đa một khoảng thời gian. Hết giờ thì scope bị shutdown (các tác vụ còn lại bị hủy).
+     *
+     * @throws TimeoutException Nếu quá thời gian mà các tác vụ chưa xong.
+     */
+    public TaskScope<T> join(long timeout, @NotNull TimeUnit unit) throws InterruptedException, TimeoutException {
+        try {
+            allDone().get(timeout, unit);
+        } catch (ExecutionException ignored) {
+            // không xảy ra
+        } catch (TimeoutException e) {
+            shutdown();
+            throw e;
+        }
+        return this;
+    }
+
+    private CompletableFuture<Void> allDone() {
+        CompletableFuture<?>[] futures = subtasks.stream().map(s -> s.completion).toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Hủy mọi tác vụ con chưa xong và không nhận thêm tác vụ mới.
+     */
+    public void shutdown() {
+        if (!shutdown.compareAndSet(false, true)) return;
+        for (Subtask<? extends T> subtask : subtasks) {
+            if (subtask.complete(ActionResult.cancelled())) {
+                subtask.cancel();
+            }
+        }
+    }
+
+    /** @return {@code true} nếu scope đã shutdown. */
+    public boolean isShutdown() {
+        return shutdown.get();
+    }
+
+    /**
+     * Đóng scope: hủy mọi tác vụ con chưa xong.
+     */
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+    // =========================================================================
+    // Results
+    // =========================================================================
+
+    /**
+     * Ném lỗi của tác vụ thất bại đầu tiên (nếu có).
+     *
+     * @throws ExecutionException Bọc lỗi gốc của tác vụ thất bại đầu tiên.
+     */
+    public void throwIfFailed() throws ExecutionException {
+        Throwable failure = firstFailure.get();
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+    }
+
+    /** @return Lỗi của tác vụ thất bại đầu tiên, hoặc {@code null}. */
+    public @Nullable Throwable failure() {
+        return firstFailure.get();
+    }
+
+    /**
+     * Kết quả tổng hợp của scope (gọi sau {@link #join()}):
+     * <ul>
+     * <li>{@link #shutdownOnSuccess()}: kết quả thành công đầu tiên; nếu tất cả đều lỗi thì FAILURE với lỗi đầu tiên.</li>
+     * <li>{@link #shutdownOnFailure()}: FAILURE nếu có tác vụ lỗi, ngược lại SUCCESS với giá trị {@code null}.</li>
+     * </ul>
+     * Nếu không có kết quả nào (mọi tác vụ bị hủy) thì trả về CANCELLED.
+     *
+     * @throws IllegalStateException Nếu còn tác vụ chưa kết thúc.
+     */
+    public @NotNull ActionResult<T> result() {
+        if (policy == Policy.ON_SUCCESS) {
+            ActionResult<T> success = firstSuccess.get();
+            if (success != null) return success;
+        }
+        Throwable failure = firstFailure.get();
+        if (failure != null) return ActionResult.failure(failure);
+
+        boolean anyCancelled = false;
+        for (Subtask<? extends T> subtask : subtasks) {
+            if (!subtask.isDone()) {
+                throw new IllegalStateException("TaskScope chưa hoàn tất, hãy gọi join() trước");
+            }
+            anyCancelled |= subtask.result().isCancelled();
+        }
+        if (policy == Policy.ON_FAILURE && !anyCancelled) {
+            return ActionResult.success(null);
+        }
+        return ActionResult.cancelled();
+    }
+
+    /**
+     * Chuyển scope thành một {@link ResultedAction} hoàn tất khi mọi tác vụ đã fork (tính đến lúc gọi) kết thúc,
+     * mang giá trị {@link #result()}. Giúp chờ scope mà không cần chặn luồng.
+     * Scope sẽ tự động đóng khi action hoàn tất.
+     */
+    public @NotNull ResultedAction<T> toResultedAction() {
+        return new ResultedActionImpl<>(allDone().thenApply(v -> {
+            close();
+            return result();
+        }));
+    }
+
+    /**
+     * Một tác vụ con trong {@link TaskScope}.
+     *
+     * @param <U> Kiểu kết quả.
+     */
+    public static final class Subtask<U> {
+        private final CompletableFuture<ActionResult<U>> completion = new CompletableFuture<>();
+        private volatile Runnable canceller;
+
+        private Subtask() { }
+
+        private boolean complete(ActionResult<U> result) {
+            return completion.complete(result);
+        }
+
+        private void cancel() {
+            Runnable c = canceller;
+            if (c != null) c.run();
+        }
+
+        /** @return {@code true} nếu tác vụ đã kết thúc (thành công, thất bại hoặc bị hủy). */
+        public boolean isDone() {
+            return completion.isDone();
+        }
+
+        /**
+         * @return Kết quả của tác vụ.
+         * @throws IllegalStateException Nếu tác vụ chưa kết thúc.
+         */
+        public @NotNull ActionResult<U> result() {
+            ActionResult<U> result = completion.getNow(null);
+            if (result == null) {
+                throw new IllegalStateException("Subtask chưa hoàn tất, hãy gọi TaskScope.join() trước");
+            }
+            return result;
+        }
+
+        /**
+         * @return Giá trị thành công của tác vụ.
+         * @throws IllegalStateException Nếu tác vụ chưa xong, thất bại hoặc bị hủy.
+         */
+        public U get() {
+            ActionResult<U> result = result();
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Subtask không thành công: " + result.getStatus(), result.getException());
+            }
+            return result.getValue();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.dianxin.core.api.console.commands;
+
+import com.dianxin.core.api.lifecycle.ExecutorManager;
+import com.dianxin.core.api.lifecycle.ExecutorMetrics;
+import com.dianxin.core.api.lifecycle.WatchdogStats;
+
+import java.util.List;
+
+/**
+ * Lệnh console {@code executors}: in số liệu của các pool trong {@link ExecutorManager}.
+ * <p>
+ * Dùng {@code executors <tên pool>} để chỉ xem một pool.
+ * </p>
+ */
+@SuppressWarnings("unused")
+public class ExecutorStatsConsoleCommand extends AbstractConsoleCommand {
+
+    public ExecutorStatsConsoleCommand() {
+        super("executors");
+    }
+
+    @Override
+    public void execute(String[] args) {
+        List<ExecutorMetrics> all = ExecutorManager.metrics();
+        if (all.isEmpty()) {
+            getLogger().warn("ExecutorManager chưa được khởi tạo.");
+            return;
+        }
+
+        for (ExecutorMetrics m : all) {
+            if (args.length > 0 && !m.pool().equalsIgnoreCase(args[0])) continue;
+
+            getLogger().info("[{}] submitted={} completed={} failed={} rejected={} queue={} active={}/{}",
+                    m.pool(), m.submitted(), m.completed(), m.failed(), m.rejected(),
+                    m.queueDepth(), m.activeThreads(), m.poolSize());
+            getLogger().info("[{}]   queue-wait: {}", m.pool(), m.queueWait().format());
+            getLogger().info("[{}]   run-time:   {}", m.pool(), m.runTime().format());
+        }
+
+        WatchdogStats watchdog = ExecutorManager.watchdogStats();
+        if (watchdog.enabled()) {
+            getLogger().info("[watchdog] stalled={} (đang treo: {}) blocking-on-cpu={}",
+                    watchdog.stalledTotal(), watchdog.currentlyStalled(), watchdog.blockingOnCpu());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.dianxin.core.api.lifecycle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tự động điều chỉnh số thread của một {@link ThreadPoolExecutor} theo tỉ lệ blocking quan sát được.
+ * <p>
+ * Mỗi tác vụ được đo thời gian thực (wall-clock) và thời gian CPU (qua {@link ThreadMXBean}).
+ * Sau mỗi chu kỳ, kích thước mục tiêu được tính theo công thức:
+ * <pre>
+ * threads = cores * (1 + W / C)     (W = thời gian chờ, C = thời gian CPU)
+ * </pre>
+ * rồi giới hạn trong khoảng {@code [min, max]}. Mỗi lần thay đổi chỉ đi tối đa một nửa quãng đường
+ * đến mục tiêu để tránh dao động, và đều được ghi log.
+ * </p>
+ */
+final class AdaptivePoolSizer {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    /** Số mẫu tối thiểu trong một chu kỳ để tin vào tỉ lệ W/C; ít hơn thì coi như pool đang rảnh. */
+    private static final long MIN_SAMPLES = 20;
+
+    private final String poolName;
+    private final ThreadPoolExecutor pool;
+    private final int minThreads;
+    private final int maxThreads;
+    private final int cores = Runtime.getRuntime().availableProcessors();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final ThreadLocal<long[]> startTimes = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder wallNanos = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+
+    private final ScheduledExecutorService ticker;
+
+    AdaptivePoolSizer(String poolName, ThreadPoolExecutor pool, int minThreads, int maxThreads, Duration interval) {
+        this.poolName = poolName;
+        this.pool = pool;
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dianxin-" + poolName + "-tuner");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = interval.toMillis();
+        ticker.scheduleWithFixedDelay(this::resize, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return {@code true} nếu JVM hỗ trợ đo thời gian CPU của từng thread.
+     */
+    static boolean isSupported() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled();
+    }
+
+    void beforeTask() {
+        long[] start = startTimes.get();
+        start[0] = System.nanoTime();
+        start[1] = threadBean.getCurrentThreadCpuTime();
+    }
+
+    void afterTask() {
+        long[] start = startTimes.get();
+        long wall = System.nanoTime() - start[0];
+        long cpu = threadBean.getCurrentThreadCpuTime() - start[1];
+        samples.increment();
+        wallNanos.add(wall);
+        cpuNanos.add(Math.min(cpu, wall));
+    }
+
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void resize() {
+        try {
+            long n = samples.sumThenReset();
+            long wall = wallNanos.sumThenReset();
+            long cpu = Math.max(1, cpuNanos.sumThenReset());
+            int current = pool.getCorePoolSize();
+
+            int target;
+            String reason;
+            if (n < MIN_SAMPLES && pool.getQueue().isEmpty()) {
+                target = minThreads;
+                reason = "idle (" + n + " tasks)";
+            } else {
+                double blockingCoefficient = (double) (wall - cpu) / cpu;
+                target = (int) Math.ceil(cores * (1 + blockingCoefficient));
+                reason = String.format("W/C=%.2f, %d tasks", blockingCoefficient, n);
+            }
+            target = Math.max(minThreads, Math.min(maxThreads, target));
+
+            // Chỉ đi một nửa quãng đường để tránh dao động quá mạnh giữa các chu kỳ
+            int next = current + (target - current) / 2;
+            if (next == current && target != current) next = target;
+            if (next == current) return;
+
+            if (next > current) {
+                pool.setMaximumPoolSize(next);
+                pool.setCorePoolSize(next);
+            } else {
+                pool.setCorePoolSize(next);
+                pool.setMaximumPoolSize(next);
+            }
+            logger.info("Pool '{}' đổi kích thước {} -> {} (mục tiêu {}, {})", poolName, current, next, target, reason);
+        } catch (Exception e) {
+            logger.error("Không thể điều chỉnh kích thước pool '{}'", poolName, e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * Chế độ vận hành của CPU Executor trong {@link ExecutorManager}.
+ */
+@ReleasedSince("2.2")
+public enum CpuMode {
+    /**
+     * Thread pool cố định (số thread = số nhân CPU) dùng chung một hàng đợi.
+     * Đây là chế độ mặc định.
+     */
+    FIXED,
+
+    /**
+     * {@link java.util.concurrent.ForkJoinPool} với work-stealing: mỗi worker có hàng đợi riêng,
+     * worker rảnh sẽ "trộm" việc của worker bận.
+     * <p>
+     * Phù hợp với các tác vụ tự chia nhỏ ({@link java.util.concurrent.RecursiveTask},
+     * {@code fork()/join()}) như tính lại bảng xếp hạng hoặc render ảnh. Các sub-task được fork
+     * bên trong {@code ExecutorManager.runCpuAsync(...)} sẽ tự động chạy trên cùng pool.
+     * Hàng đợi của chế độ này không giới hạn, nên {@code cpuQueueCapacity} không có tác dụng.
+     * </p>
+     */
+    FORK_JOIN
+}
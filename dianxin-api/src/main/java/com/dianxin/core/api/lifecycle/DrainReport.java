@@ -0,0 +1,43 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Kết quả của {@link ExecutorManager#shutdownGracefully(Duration)}.
+ *
+ * @param elapsed Thời gian đã dùng để drain.
+ * @param pools   Kết quả của từng pool.
+ */
+@ReleasedSince("2.2")
+public record DrainReport(@NotNull Duration elapsed, @NotNull List<Pool> pools) {
+
+    /** @return {@code true} nếu mọi tác vụ đều chạy xong trước hạn chót, không có gì bị bỏ. */
+    public boolean isClean() {
+        return pools.stream().allMatch(Pool::isClean);
+    }
+
+    /** @return Tổng số tác vụ bị bỏ (chưa chạy + bị ngắt giữa chừng). */
+    public int abandonedCount() {
+        return pools.stream().mapToInt(p -> p.abandonedQueued() + p.interruptedRunning()).sum();
+    }
+
+    /**
+     * Kết quả drain của một pool.
+     *
+     * @param pool                 Tên pool.
+     * @param abandonedQueued      Số tác vụ còn trong hàng đợi, chưa từng được chạy.
+     * @param interruptedRunning   Số tác vụ đang chạy dở thì bị ngắt (interrupt).
+     * @param abandonedDescriptions Mô tả ({@code toString()}) của các tác vụ bị bỏ.
+     */
+    public record Pool(@NotNull String pool, int abandonedQueued, int interruptedRunning,
+                       @NotNull List<String> abandonedDescriptions) {
+
+        public boolean isClean() {
+            return abandonedQueued == 0 && interruptedRunning == 0;
+        }
+    }
+}
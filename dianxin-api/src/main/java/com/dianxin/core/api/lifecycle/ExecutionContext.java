@@ -0,0 +1,312 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Ngữ cảnh thực thi (trace id, guild id, user id và các thuộc tính phụ) được truyền theo tác vụ
+ * khi công việc "nhảy" qua các thread khác nhau.
+ * <p>
+ * Ngữ cảnh là một đối tượng bất biến (immutable) được giữ trong một {@link ThreadLocal}. Việc "chụp" ngữ cảnh
+ * (capture) chỉ là một lần đọc ThreadLocal, còn "khôi phục" (restore) là một lần ghi ThreadLocal cộng với việc
+ * đưa các giá trị vào {@link MDC} để log tự động có {@code traceId}/{@code guildId}; đóng {@link Scope} trả lại
+ * đúng các giá trị MDC có từ trước. Khi không có ngữ cảnh,
+ * các hàm {@code wrap...(...)} trả về nguyên tác vụ gốc, không tốn thêm gì. Hoạt động bình thường trên virtual thread.
+ * </p>
+ * <p>
+ * {@link ExecutorManager}, {@code Scheduler} và các stage {@code map/flatMap/onExecutor} của
+ * {@code IAction}, {@code ResultedAction}, {@code LazyAction} đều tự động chụp và khôi phục ngữ cảnh.
+ * </p>
+ *
+ * <pre>{@code
+ * ExecutionContext ctx = ExecutionContext.builder()
+ *         .traceId(event.getId())
+ *         .guildId(event.getGuild().getId())
+ *         .build();
+ *
+ * try (ExecutionContext.Scope ignored = ctx.attach()) {
+ *     ResultedAction.supplyAsync(() -> repo.load(...), ExecutorManager.io())
+ *             .map(this::render) // log ở mọi stage đều mang traceId & guildId
+ *             .queue(...);
+ * }
+ * }</pre>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class ExecutionContext {
+    public static final String MDC_TRACE_ID = "traceId";
+    public static final String MDC_GUILD_ID = "guildId";
+    public static final String MDC_USER_ID = "userId";
+
+    /** Ngữ cảnh rỗng. */
+    public static final ExecutionContext EMPTY = new ExecutionContext(null, null, null, Map.of());
+
+    private static final ThreadLocal<ExecutionContext> CURRENT = new ThreadLocal<>();
+
+    private final String traceId;
+    private final String guildId;
+    private final String userId;
+    private final Map<String, String> attributes;
+
+    private ExecutionContext(String traceId, String guildId, String userId, Map<String, String> attributes) {
+        this.traceId = traceId;
+        this.guildId = guildId;
+        this.userId = userId;
+        this.attributes = attributes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** @return Builder chứa sẵn các giá trị của ngữ cảnh này (để thêm/ghi đè). */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.traceId = traceId;
+        builder.guildId = guildId;
+        builder.userId = userId;
+        builder.attributes.putAll(attributes);
+        return builder;
+    }
+
+    /** @return Ngữ cảnh của thread hiện tại, hoặc {@link #EMPTY}. */
+    public static @NotNull ExecutionContext current() {
+        ExecutionContext ctx = CURRENT.get();
+        return ctx != null ? ctx : EMPTY;
+    }
+
+    /**
+     * Chụp ngữ cảnh hiện tại để khôi phục ở thread khác.
+     *
+     * @return Ngữ cảnh hiện tại, hoặc {@code null} nếu thread không có ngữ cảnh.
+     */
+    public static @Nullable ExecutionContext capture() {
+        return CURRENT.get();
+    }
+
+    public @Nullable String getTraceId() {
+        return traceId;
+    }
+
+    public @Nullable String getGuildId() {
+        return guildId;
+    }
+
+    public @Nullable String getUserId() {
+        return userId;
+    }
+
+    public @Nullable String get(@NotNull String key) {
+        return attributes.get(key);
+    }
+
+    /** @return Các thuộc tính phụ (không thể chỉnh sửa). */
+    public @NotNull Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Gắn ngữ cảnh này vào thread hiện tại. Phải đóng {@link Scope} trả về (try-with-resources)
+     * để khôi phục ngữ cảnh trước đó.
+     */
+    public @NotNull Scope attach() {
+        ExecutionContext previous = CURRENT.get();
+        CURRENT.set(this == EMPTY ? null : this);
+        return new Scope(previous, switchMdc(previous, this));
+    }
+
+    // =========================================================================
+    // Wrappers (chụp ngữ cảnh ngay lúc gọi, khôi phục lúc chạy)
+    // =========================================================================
+
+    public static @NotNull Runnable wrap(@NotNull Runnable task) {
+        ExecutionContext ctx = CURRENT.get();
+        if (ctx == null) return task;
+        return () -> {
+            try (Scope ignored = ctx.attach()) {
+                task.run();
+            }
+        };
+    }
+
+    public static <T> @NotNull Callable<T> wrap(@NotNull Callable<T> task) {
+        ExecutionContext ctx = CURRENT.get();
+        if (ctx == null) return task;
+        return () -> {
+            try (Scope ignored = ctx.attach()) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * Function/Consumer/BiConsumer mang tên riêng: nếu cùng tên {@code wrap} thì lambda một tham số như
+     * {@code v -> log(v)} khớp cả Function lẫn Consumer và không biên dịch được.
+     */
+    public static <T, R> @NotNull Function<T, R> wrapFunction(@NotNull Function<T, R> function) {
+        ExecutionContext ctx = CURRENT.get();
+        if (ctx == null) return function;
+        return value -> {
+            try (Scope ignored = ctx.attach()) {
+                return function.apply(value);
+            }
+        };
+    }
+
+    public static <T> @NotNull Consumer<T> wrapConsumer(@NotNull Consumer<T> consumer) {
+        ExecutionContext ctx = CURRENT.get();
+        if (ctx == null) return consumer;
+        return value -> {
+            try (Scope ignored = ctx.attach()) {
+                consumer.accept(value);
+            }
+        };
+    }
+
+    public static <T, U> @NotNull BiConsumer<T, U> wrapBiConsumer(@NotNull BiConsumer<T, U> consumer) {
+        ExecutionContext ctx = CURRENT.get();
+        if (ctx == null) return consumer;
+        return (first, second) -> {
+            try (Scope ignored = ctx.attach()) {
+                consumer.accept(first, second);
+            }
+        };
+    }
+
+    /**
+     * Bọc một Executor bất kỳ để mọi tác vụ gửi vào đều chạy dưới ngữ cảnh đang có <b>tại thời điểm gọi hàm này</b>.
+     * Dùng cho các stage {@code onExecutor(...)}, nơi thread gửi tác vụ thường không còn giữ ngữ cảnh.
+     *
+     * @return Executor đã bọc, hoặc chính {@code executor} nếu hiện không có ngữ cảnh.
+     */
+    public static @NotNull Executor propagating(@NotNull Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+        ExecutionContext ctx = CURRENT.get();
+        if (ctx == null) return executor;
+        return task -> executor.execute(() -> {
+            try (Scope ignored = ctx.attach()) {
+                task.run();
+            }
+        });
+    }
+
+    /**
+     * Bỏ các khóa MDC của {@code from} và đặt các khóa của {@code to}.
+     *
+     * @return Các cặp khóa/giá trị MDC trước khi đổi (giá trị {@code null}: khóa chưa có), để {@link Scope} trả lại;
+     * {@code null} nếu không đổi gì.
+     */
+    private static String @Nullable [] switchMdc(@Nullable ExecutionContext from, @Nullable ExecutionContext to) {
+        if (from == to) return null;
+        List<String> keys = new ArrayList<>();
+        if (from != null) from.collectMdcKeys(keys);
+        if (to != null) to.collectMdcKeys(keys);
+        if (keys.isEmpty()) return null;
+
+        String[] saved = new String[keys.size() * 2];
+        for (int i = 0; i < keys.size(); i++) {
+            saved[2 * i] = keys.get(i);
+            saved[2 * i + 1] = MDC.get(keys.get(i));
+        }
+        if (from != null) {
+            if (from.traceId != null) MDC.remove(MDC_TRACE_ID);
+            if (from.guildId != null) MDC.remove(MDC_GUILD_ID);
+            if (from.userId != null) MDC.remove(MDC_USER_ID);
+            for (String key : from.attributes.keySet()) MDC.remove(key);
+        }
+        if (to != null) {
+            if (to.traceId != null) MDC.put(MDC_TRACE_ID, to.traceId);
+            if (to.guildId != null) MDC.put(MDC_GUILD_ID, to.guildId);
+            if (to.userId != null) MDC.put(MDC_USER_ID, to.userId);
+            to.attributes.forEach(MDC::put);
+        }
+        return saved;
+    }
+
+    private void collectMdcKeys(List<String> keys) {
+        if (traceId != null) keys.add(MDC_TRACE_ID);
+        if (guildId != null) keys.add(MDC_GUILD_ID);
+        if (userId != null) keys.add(MDC_USER_ID);
+        keys.addAll(attributes.keySet());
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionContext{traceId=" + traceId + ", guildId=" + guildId + ", userId=" + userId
+                + ", attributes=" + attributes + "}";
+    }
+
+    /**
+     * Phạm vi gắn ngữ cảnh; {@link #close()} khôi phục ngữ cảnh trước đó của thread.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final ExecutionContext previous;
+        private final String[] savedMdc; // Cặp khóa/giá trị MDC trước khi gắn, xem switchMdc
+
+        private Scope(ExecutionContext previous, String[] savedMdc) {
+            this.previous = previous;
+            this.savedMdc = savedMdc;
+        }
+
+        @Override
+        public void close() {
+            CURRENT.set(previous);
+            if (savedMdc == null) return;
+            // Trả lại đúng giá trị cũ, kể cả khóa MDC do code khác đặt (không chỉ do ngữ cảnh trước đó)
+            for (int i = 0; i < savedMdc.length; i += 2) {
+                if (savedMdc[i + 1] == null) {
+                    MDC.remove(savedMdc[i]);
+                } else {
+                    MDC.put(savedMdc[i], savedMdc[i + 1]);
+                }
+            }
+        }
+    }
+
+    public static final class Builder {
+        private String traceId;
+        private String guildId;
+        private String userId;
+        private final Map<String, String> attributes = new HashMap<>();
+
+        private Builder() { }
+
+        public Builder traceId(@Nullable String traceId) {
+            this.traceId = traceId;
+            return this;
+        }
+
+        public Builder guildId(@Nullable String guildId) {
+            this.guildId = guildId;
+            return this;
+        }
+
+        public Builder userId(@Nullable String userId) {
+            this.userId = userId;
+            return this;
+        }
+
+        /** Thêm một thuộc tính phụ (cũng được đưa vào MDC với cùng tên khóa). */
+        public Builder put(@NotNull String key, @NotNull String value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        public ExecutionContext build() {
+            return new ExecutionContext(traceId, guildId, userId, Map.copyOf(attributes));
+        }
+    }
+}
@@ -1,11 +1,28 @@
 package com.dianxin.core.api.lifecycle;
 
+import com.dianxin.core.api.exceptions.InvalidRegistrationNameException;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
@@ -18,14 +35,24 @@ import java.util.function.Supplier;
  * <li><b>IO Executor:</b> Dành cho các tác vụ blocking, chờ đợi mạng, ổ đĩa (Database, HTTP Requests, File I/O).</li>
  * <li><b>CPU Executor:</b> Dành cho các tác vụ tính toán nặng, xử lý logic phức tạp không blocking.</li>
  * </ul>
+ * Ngoài ra có thể tạo các pool riêng biệt theo tên (Bulkhead) qua {@link #named(String)}.
  * <p>
- * Class này Thread-safe và chỉ nên được khởi tạo một lần duy nhất thông qua {@link #initialize()}.
+ * Class này Thread-safe và chỉ nên được khởi tạo một lần duy nhất thông qua {@link #initialize()}
+ * hoặc {@link #initialize(ExecutorOptions)}.
  */
 @SuppressWarnings({"ClassCanBeRecord", "unused"})
 public final class ExecutorManager {
     private static ExecutorService IO_EXECUTOR;
     private static ExecutorService CPU_EXECUTOR;
+    private static IoMode IO_MODE = IoMode.PLATFORM;
+    private static CpuMode CPU_MODE = CpuMode.FIXED;
+    private static Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+    private static double SATURATION_THRESHOLD = 0.8;
+    private static SaturationListener SATURATION_LISTENER;
+    private static TaskWatchdog WATCHDOG;
     private static final AtomicBoolean INITIALIZED = new AtomicBoolean(false);
+    private static final Map<String, InstrumentedExecutor> POOLS = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorManager.class);
 
     private ExecutorManager() { }
 
@@ -36,10 +63,35 @@ public final class ExecutorManager {
      * Nên được gọi trong giai đoạn bootstrap (khởi động) của ứng dụng.
      */
     public static void initialize() {
+        initialize(ExecutorOptions.defaults());
+    }
+
+    /**
+     * Khởi tạo toàn bộ executor cho framework theo cấu hình chỉ định.
+     * <p>
+     * Ví dụ chuyển IO Executor sang virtual thread (mỗi tác vụ một thread):
+     * <pre>{@code
+     * ExecutorManager.initialize(ExecutorOptions.builder().ioMode(IoMode.VIRTUAL).build());
+     * }</pre>
+     * Các API dùng {@link #io()} như {@link #runIoAsync(Supplier)}, {@code IAction.supplyAsync}
+     * hay {@code SchedulerImpl.runTaskAsync} sẽ tự động dùng chế độ đã chọn.
+     *
+     * @param options Cấu hình executor.
+     */
+    public static void initialize(@NotNull ExecutorOptions options) {
         if (INITIALIZED.compareAndSet(false, true)) {
-            ExecutorBuilder builder = new ExecutorBuilder();
-            IO_EXECUTOR = builder.io();
-            CPU_EXECUTOR = builder.cpu();
+            ExecutorBuilder builder = new ExecutorBuilder(options);
+            IO_EXECUTOR = register("io", builder.io());
+            CPU_EXECUTOR = register("cpu", builder.cpu());
+            IO_MODE = options.getIoMode();
+            CPU_MODE = options.getCpuMode();
+            DRAIN_TIMEOUT = options.getDrainTimeout();
+            SATURATION_THRESHOLD = options.getSaturationThreshold();
+            SATURATION_LISTENER = options.getSaturationListener();
+            if (options.isWatchdogEnabled()) {
+                WATCHDOG = new TaskWatchdog(options.getStallThreshold(), options.getWatchdogInterval(),
+                        POOLS::values, SATURATION_LISTENER);
+            }
         }
     }
 
@@ -47,11 +99,17 @@ public final class ExecutorManager {
     public static void initialize(ExecutorService io, ExecutorService cpu) {
         if (INITIALIZED.compareAndSet(false, true)) {
             ExecutorBuilder builder = new ExecutorBuilder(io, cpu);
-            IO_EXECUTOR = builder.io();
-            CPU_EXECUTOR = builder.cpu();
+            IO_EXECUTOR = register("io", builder.io());
+            CPU_EXECUTOR = register("cpu", builder.cpu());
         }
     }
 
+    private static InstrumentedExecutor register(String name, ExecutorService executor) {
+        InstrumentedExecutor instrumented = new InstrumentedExecutor(name, executor);
+        POOLS.put(name, instrumented);
+        return instrumented;
+    }
+
     /**
      * Lấy {@link ExecutorService} dành cho các tác vụ I/O (Input/Output).
      * <p>
@@ -65,10 +123,73 @@ public final class ExecutorManager {
         return IO_EXECUTOR;
     }
 
+    /**
+     * Lấy một "góc nhìn" của {@link #io()} gắn sẵn làn ưu tiên cho mọi tác vụ gửi qua nó.
+     * <p>
+     * Dùng được ở mọi chỗ nhận {@code Executor}: {@code IAction.supplyAsync}, {@code ResultedAction.supplyAsync},
+     * {@code LazyAction.defer}, {@code onExecutor(...)}. Không thể shutdown pool thông qua view này.
+     * </p>
+     *
+     * <pre>{@code
+     * ResultedAction.supplyAsync(() -> render(event), ExecutorManager.io(TaskPriority.INTERACTIVE));
+     * LazyAction.defer(() -> syncAllGuilds(), ExecutorManager.io(TaskPriority.BULK)).queue();
+     * }</pre>
+     *
+     * @param priority Làn ưu tiên.
+     * @return Executor gửi tác vụ vào IO pool với làn đã chọn.
+     */
+    public static Executor io(@NotNull TaskPriority priority) {
+        return withPriority(io(), priority);
+    }
+
+    /**
+     * Giống {@link #io(TaskPriority)} nhưng cho {@link #cpu()}.
+     */
+    public static Executor cpu(@NotNull TaskPriority priority) {
+        return withPriority(cpu(), priority);
+    }
+
+    /**
+     * Gắn làn ưu tiên cho một executor của {@link ExecutorManager} (kể cả pool {@link #named(String)}).
+     * Executor không do {@link ExecutorManager} quản lý được trả về nguyên vẹn.
+     */
+    public static Executor withPriority(@NotNull Executor executor, @NotNull TaskPriority priority) {
+        if (priority == TaskPriority.NORMAL || !(executor instanceof InstrumentedExecutor instrumented)) {
+            return executor;
+        }
+        return new Executor() {
+            @Override
+            public void execute(@NotNull Runnable command) {
+                instrumented.execute(command, priority);
+            }
+
+            @Override
+            public String toString() {
+                return instrumented.getName() + "[" + priority + "]";
+            }
+        };
+    }
+
+    /**
+     * @return Chế độ vận hành hiện tại của IO Executor.
+     */
+    public static IoMode getIoMode() {
+        return IO_MODE;
+    }
+
+    /**
+     * @return Chế độ vận hành hiện tại của CPU Executor.
+     */
+    public static CpuMode getCpuMode() {
+        return CPU_MODE;
+    }
+
     /**
      * Lấy {@link ExecutorService} dành cho các tác vụ tính toán (CPU-bound).
      * <p>
      * Pool này có số lượng thread giới hạn (thường bằng số nhân CPU) để tối ưu hóa context switching.
+     * Với {@link CpuMode#FORK_JOIN}, tác vụ chạy trên một {@link ForkJoinPool} nên các sub-task
+     * {@code fork()} bên trong sẽ được work-stealing.
      *
      * @return ExecutorService cho CPU tasks.
      * @throws IllegalStateException Nếu {@link #initialize()} chưa được gọi trước đó.
@@ -78,20 +199,221 @@ public final class ExecutorManager {
         return CPU_EXECUTOR;
     }
 
+    /**
+     * Lấy (hoặc tạo với {@link PoolOptions#defaults()}) một pool riêng biệt theo tên (Bulkhead).
+     * <p>
+     * Mỗi pool có thread, hàng đợi và số liệu riêng, nên một dependency chậm (API bên ngoài bị lag)
+     * chỉ làm đầy pool của chính nó chứ không làm nghẽn các tác vụ Database hay {@link #io()}.
+     * Có thể truyền trực tiếp làm {@code Executor} cho {@code IAction.supplyAsync},
+     * {@code ResultedAction.supplyAsync} và {@code LazyAction.defer}.
+     * </p>
+     *
+     * <pre>{@code
+     * ResultedAction.supplyAsync(() -> userRepo.find(id), ExecutorManager.named("db"));
+     * }</pre>
+     *
+     * @param name Tên pool (không được trùng {@code io} hoặc {@code cpu}).
+     * @return ExecutorService của pool.
+     * @throws InvalidRegistrationNameException Nếu tên rỗng hoặc trùng tên pool mặc định.
+     */
+    public static ExecutorService named(@NotNull String name) {
+        return named(name, PoolOptions.defaults());
+    }
+
+    /**
+     * Lấy hoặc tạo một pool riêng biệt theo tên với cấu hình chỉ định.
+     * <p>
+     * Nếu pool đã tồn tại, pool cũ được trả về và {@code options} bị bỏ qua.
+     * Mọi pool tạo bởi phương thức này đều được tắt cùng {@link #shutdown()} / {@link #shutdownGracefully()}.
+     * </p>
+     *
+     * @param name    Tên pool (thread sẽ có tên {@code dianxin-<name>-[id]}).
+     * @param options Cấu hình pool.
+     * @return ExecutorService của pool.
+     * @throws InvalidRegistrationNameException Nếu tên rỗng hoặc trùng tên pool mặc định.
+     */
+    public static ExecutorService named(@NotNull String name, @NotNull PoolOptions options) {
+        ensureInitialized();
+        if (name.isBlank() || name.equals("io") || name.equals("cpu")) {
+            throw new InvalidRegistrationNameException("Tên pool không hợp lệ: '" + name + "'");
+        }
+
+        InstrumentedExecutor existing = POOLS.get(name);
+        if (existing != null) return existing;
+
+        return POOLS.computeIfAbsent(name, n -> new InstrumentedExecutor(n, new ManagedThreadPool(n,
+                options.getThreads(), options.getQueueCapacity(), options.getRejectionPolicy(),
+                SATURATION_THRESHOLD, SATURATION_LISTENER, ExecutorBuilder.daemonFactory("dianxin-" + n + "-"))));
+    }
+
+    /**
+     * Kiểm tra một pool bất kỳ (kể cả pool tạo bởi {@link #named(String)}) có đang bão hòa hay không.
+     */
+    public static boolean isSaturated(@NotNull String pool) {
+        InstrumentedExecutor executor = POOLS.get(pool);
+        return executor != null && executor.isSaturated();
+    }
+
+    /**
+     * Kiểm tra IO pool có đang bão hòa (hàng đợi vượt ngưỡng cấu hình) hay không.
+     * <p>
+     * Dùng để giảm tải sớm, ví dụ trả lời "Bot đang bận" trước khi hết hạn 3 giây của interaction.
+     * Luôn trả về {@code false} nếu hàng đợi không giới hạn hoặc dùng {@link IoMode#VIRTUAL}.
+     * </p>
+     */
+    public static boolean isIoSaturated() {
+        return io() instanceof InstrumentedExecutor pool && pool.isSaturated();
+    }
+
+    /**
+     * Kiểm tra CPU pool có đang bão hòa hay không.
+     *
+     * @see #isIoSaturated()
+     */
+    public static boolean isCpuSaturated() {
+        return cpu() instanceof InstrumentedExecutor pool && pool.isSaturated();
+    }
+
+    /**
+     * Lấy số liệu hiện tại của tất cả các pool (sắp xếp theo tên).
+     * <p>
+     * Bao gồm số tác vụ đã gửi/hoàn thành/bị từ chối, độ sâu hàng đợi, số thread đang bận và
+     * histogram tách riêng thời gian chờ trong hàng đợi với thời gian thực thi.
+     * </p>
+     *
+     * @return Danh sách snapshot, rỗng nếu chưa {@link #initialize()}.
+     */
+    public static List<ExecutorMetrics> metrics() {
+        List<ExecutorMetrics> result = new ArrayList<>(POOLS.size());
+        for (InstrumentedExecutor pool : POOLS.values()) {
+            result.add(pool.metrics());
+        }
+        result.sort(Comparator.comparing(ExecutorMetrics::pool));
+        return result;
+    }
+
+    /**
+     * Lấy số liệu hiện tại của một pool.
+     *
+     * @param pool Tên pool ({@code io}, {@code cpu}).
+     * @return Snapshot số liệu, hoặc {@code null} nếu không có pool nào mang tên này.
+     */
+    public static @Nullable ExecutorMetrics metrics(@NotNull String pool) {
+        InstrumentedExecutor executor = POOLS.get(pool);
+        return executor != null ? executor.metrics() : null;
+    }
+
+    /**
+     * Bộ đếm của watchdog phát hiện tác vụ bị treo / blocking trên CPU pool, dùng để cảnh báo.
+     *
+     * @see ExecutorOptions.Builder#stallThreshold(Duration)
+     */
+    public static WatchdogStats watchdogStats() {
+        TaskWatchdog watchdog = WATCHDOG;
+        return watchdog != null ? watchdog.stats() : WatchdogStats.DISABLED;
+    }
+
     /**
      * Tắt (Shutdown) toàn bộ các executor đang chạy.
      * <p>
      * Nên gọi phương thức này khi bot hoặc ứng dụng dừng hoạt động để giải phóng tài nguyên thread.
+     * Phương thức này không chờ các tác vụ còn lại; dùng {@link #shutdownGracefully(Duration)}
+     * nếu cần đảm bảo các tác vụ đang xếp hàng được chạy xong.
      */
     public static void shutdown() {
         if (!INITIALIZED.get()) return;
 
-        if (IO_EXECUTOR != null && !IO_EXECUTOR.isShutdown()) {
-            IO_EXECUTOR.shutdown();
+        stopWatchdog();
+        // Bao gồm cả IO, CPU và các pool tạo bởi named(...)
+        for (InstrumentedExecutor pool : POOLS.values()) {
+            if (!pool.isShutdown()) {
+                pool.shutdown();
+            }
         }
-        if (CPU_EXECUTOR != null && !CPU_EXECUTOR.isShutdown()) {
-            CPU_EXECUTOR.shutdown();
+    }
+
+    /**
+     * Tắt toàn bộ executor một cách êm ái với hạn chót cấu hình sẵn
+     * ({@link ExecutorOptions.Builder#drainTimeout(Duration)}, mặc định 10 giây).
+     *
+     * @see #shutdownGracefully(Duration)
+     */
+    public static DrainReport shutdownGracefully() {
+        return shutdownGracefully(DRAIN_TIMEOUT);
+    }
+
+    /**
+     * Tắt toàn bộ executor một cách êm ái (Drain) trong giới hạn thời gian.
+     * <ol>
+     * <li>Ngừng nhận tác vụ mới ở mọi pool.</li>
+     * <li>Chờ các tác vụ đang chạy và đang xếp hàng hoàn tất, tổng thời gian không quá {@code deadline}.</li>
+     * <li>Hết hạn mà vẫn còn tác vụ: ghi log những gì bị bỏ, rồi mới {@code shutdownNow()}.</li>
+     * </ol>
+     * Nhờ vậy các lệnh ghi DB đang xếp hàng không bị mất khi restart bot lúc deploy.
+     *
+     * @param deadline Thời gian tối đa cho toàn bộ quá trình drain.
+     * @return Báo cáo những gì đã bị bỏ (rỗng nếu drain sạch sẽ).
+     */
+    public static DrainReport shutdownGracefully(@NotNull Duration deadline) {
+        long start = System.nanoTime();
+        if (!INITIALIZED.get()) {
+            return new DrainReport(Duration.ZERO, List.of());
         }
+
+        List<InstrumentedExecutor> pools = new ArrayList<>(POOLS.values());
+        for (InstrumentedExecutor pool : pools) {
+            pool.shutdown();
+        }
+
+        long deadlineNanos = start + deadline.toNanos();
+        List<DrainReport.Pool> results = new ArrayList<>(pools.size());
+        for (InstrumentedExecutor pool : pools) {
+            results.add(drain(pool, deadlineNanos));
+        }
+
+        stopWatchdog();
+        DrainReport report = new DrainReport(Duration.ofNanos(System.nanoTime() - start), results);
+        if (report.isClean()) {
+            logger.info("Đã drain toàn bộ executor trong {} ms", report.elapsed().toMillis());
+        } else {
+            for (DrainReport.Pool pool : report.pools()) {
+                if (pool.isClean()) continue;
+                logger.warn("Pool '{}' hết hạn drain: bỏ {} tác vụ chưa chạy, ngắt {} tác vụ đang chạy: {}",
+                        pool.pool(), pool.abandonedQueued(), pool.interruptedRunning(), pool.abandonedDescriptions());
+            }
+        }
+        return report;
+    }
+
+    private static DrainReport.Pool drain(InstrumentedExecutor pool, long deadlineNanos) {
+        try {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (pool.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                return new DrainReport.Pool(pool.getName(), 0, 0, List.of());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<String> descriptions = new ArrayList<>();
+        Collection<TrackedTask> running = pool.runningTasks();
+        for (TrackedTask task : running) {
+            Thread runner = task.getRunner();
+            descriptions.add("[running" + (runner != null ? " on " + runner.getName() : "") + "] " + task);
+        }
+        List<Runnable> neverStarted = pool.shutdownNow();
+        RejectedExecutionException cause = new RejectedExecutionException(
+                "Pool '" + pool.getName() + "' đã shutdown trước khi tác vụ kịp chạy");
+        for (Runnable task : neverStarted) {
+            descriptions.add("[queued] " + task);
+            TrackedTask.reject(task, cause);
+        }
+        return new DrainReport.Pool(pool.getName(), neverStarted.size(), running.size(), List.copyOf(descriptions));
+    }
+
+    private static void stopWatchdog() {
+        TaskWatchdog watchdog = WATCHDOG;
+        if (watchdog != null) watchdog.stop();
     }
 
     private static void ensureInitialized() {
@@ -107,10 +429,10 @@ public final class ExecutorManager {
      *
      * @param supplier Logic cần thực thi trả về kết quả kiểu T.
      * @param <T> Kiểu dữ liệu trả về.
-     * @return CompletableFuture chứa kết quả của tác vụ.
+     * @return CompletableFuture chứa kết quả của tác vụ (thất bại với {@link RejectedExecutionException} nếu pool đã đầy).
      */
     public static <T> CompletableFuture<T> runIoAsync(@NotNull Supplier<T> supplier) {
-        return CompletableFuture.supplyAsync(supplier, io());
+        return supplyAsync(supplier, io());
     }
 
     /**
@@ -118,10 +440,41 @@ public final class ExecutorManager {
      *
      * @param supplier Logic cần thực thi trả về kết quả kiểu T.
      * @param <T> Kiểu dữ liệu trả về.
-     * @return CompletableFuture chứa kết quả của tác vụ.
+     * @return CompletableFuture chứa kết quả của tác vụ (thất bại với {@link RejectedExecutionException} nếu pool đã đầy).
      */
     public static <T> CompletableFuture<T> runCpuAsync(@NotNull Supplier<T> supplier) {
-        return CompletableFuture.supplyAsync(supplier, cpu());
+        return supplyAsync(supplier, cpu());
+    }
+
+    private static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, ExecutorService executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            // Không dùng CompletableFuture.supplyAsync: tác vụ nội bộ của nó bị bỏ (DROP_OLDEST) thì future treo mãi
+            executor.execute(new RejectableTask() {
+                @Override
+                public void run() {
+                    if (future.isDone()) return;
+                    try {
+                        future.complete(supplier.get());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void reject(@NotNull RejectedExecutionException cause) {
+                    future.completeExceptionally(cause);
+                }
+
+                @Override
+                public String toString() {
+                    return "AsyncSupply[" + supplier + "]";
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
     }
 
     /**
@@ -138,8 +491,21 @@ public final class ExecutorManager {
          * Khởi tạo Builder với cấu hình mặc định dựa trên thông số phần cứng.
          */
         public ExecutorBuilder() {
-            this.io = createDefaultIoExecutor();
-            this.cpu = createDefaultCpuExecutor();
+            this(ExecutorOptions.defaults());
+        }
+
+        /**
+         * Khởi tạo Builder theo {@link ExecutorOptions}.
+         */
+        public ExecutorBuilder(ExecutorOptions options) {
+            this.io = switch (options.getIoMode()) {
+                case PLATFORM -> createDefaultIoExecutor(options);
+                case VIRTUAL -> createVirtualIoExecutor();
+            };
+            this.cpu = switch (options.getCpuMode()) {
+                case FIXED -> createDefaultCpuExecutor(options);
+                case FORK_JOIN -> createForkJoinCpuExecutor(options);
+            };
         }
 
         /**
@@ -164,42 +530,90 @@ public final class ExecutorManager {
         /**
          * Tạo ThreadPool mặc định cho I/O:
          * <ul>
-         * <li>Số thread: max(4, Core * 2)</li>
+         * <li>Số thread: max(4, Core * 2), hoặc tự điều chỉnh nếu bật {@link ExecutorOptions#isAdaptiveIo()}</li>
+         * <li>Hàng đợi: {@link ExecutorOptions#getIoQueueCapacity()}</li>
          * <li>Tên thread: dianxin-io-[id]</li>
          * <li>Daemon: true (tự động tắt khi main thread tắt)</li>
          * </ul>
          */
-        private ExecutorService createDefaultIoExecutor() {
+        private ExecutorService createDefaultIoExecutor(ExecutorOptions options) {
             int cores = Runtime.getRuntime().availableProcessors();
             int threads = Math.max(4, cores * 2);
-            AtomicInteger counter = new AtomicInteger(1);
+            if (options.isAdaptiveIo()) {
+                threads = Math.max(options.getAdaptiveIoMin(), Math.min(options.getAdaptiveIoMax(), threads));
+            }
 
-            return Executors.newFixedThreadPool(threads, r -> {
-                Thread t = new Thread(r);
-                t.setName("dianxin-io-" + counter.getAndIncrement());
-                t.setDaemon(true);
-                return t;
-            });
+            ManagedThreadPool pool = new ManagedThreadPool("io", threads, options.getIoQueueCapacity(),
+                    options.getIoRejectionPolicy(), options.getSaturationThreshold(), options.getSaturationListener(),
+                    daemonFactory("dianxin-io-"));
+
+            if (options.isAdaptiveIo()) {
+                if (AdaptivePoolSizer.isSupported()) {
+                    pool.enableAdaptiveSizing(options.getAdaptiveIoMin(), options.getAdaptiveIoMax(),
+                            options.getAdaptiveIoInterval());
+                } else {
+                    logger.warn("JVM không hỗ trợ đo thời gian CPU của thread, IO pool giữ cố định {} thread", threads);
+                }
+            }
+            return pool;
+        }
+
+        /**
+         * Tạo IO Executor dùng virtual thread:
+         * <ul>
+         * <li>Mỗi tác vụ một virtual thread, không có hàng đợi</li>
+         * <li>Tên thread: dianxin-io-[id]</li>
+         * </ul>
+         */
+        private ExecutorService createVirtualIoExecutor() {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dianxin-io-", 1).factory());
         }
 
         /**
          * Tạo ThreadPool mặc định cho CPU:
          * <ul>
-         * <li>Số thread: Bằng số nhân CPU thực tế</li>
+         * <li>Số thread: {@link ExecutorOptions#getCpuParallelism()} (mặc định bằng số nhân CPU)</li>
+         * <li>Hàng đợi: {@link ExecutorOptions#getCpuQueueCapacity()}</li>
          * <li>Tên thread: dianxin-cpu-[id]</li>
          * <li>Daemon: true</li>
          * </ul>
          */
-        private ExecutorService createDefaultCpuExecutor() {
-            int cores = Runtime.getRuntime().availableProcessors();
+        private ExecutorService createDefaultCpuExecutor(ExecutorOptions options) {
+            return new ManagedThreadPool("cpu", options.getCpuParallelism(), options.getCpuQueueCapacity(), options.getCpuRejectionPolicy(),
+                    options.getSaturationThreshold(), options.getSaturationListener(), daemonFactory("dianxin-cpu-"));
+        }
+
+        /**
+         * Tạo ForkJoinPool (work-stealing) cho CPU:
+         * <ul>
+         * <li>Parallelism: {@link ExecutorOptions#getCpuParallelism()}</li>
+         * <li>asyncMode: {@link ExecutorOptions#isCpuAsyncMode()}</li>
+         * <li>Tên thread: dianxin-cpu-[id]</li>
+         * <li>Daemon: true</li>
+         * </ul>
+         */
+        private ExecutorService createForkJoinCpuExecutor(ExecutorOptions options) {
             AtomicInteger counter = new AtomicInteger(1);
+            ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+                ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                t.setName("dianxin-cpu-" + counter.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            };
+            Thread.UncaughtExceptionHandler handler = (t, e) ->
+                    logger.error("Lỗi không được xử lý trên {}", t.getName(), e);
 
-            return Executors.newFixedThreadPool(cores, r -> {
+            return new ForkJoinPool(options.getCpuParallelism(), factory, handler, options.isCpuAsyncMode());
+        }
+
+        private static ThreadFactory daemonFactory(String prefix) {
+            AtomicInteger counter = new AtomicInteger(1);
+            return r -> {
                 Thread t = new Thread(r);
-                t.setName("dianxin-cpu-" + counter.getAndIncrement());
+                t.setName(prefix + counter.getAndIncrement());
                 t.setDaemon(true);
                 return t;
-            });
+            };
         }
     }
 }
@@ -0,0 +1,61 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ảnh chụp (snapshot) số liệu của một pool trong {@link ExecutorManager}.
+ * <p>
+ * Cách đọc nhanh:
+ * <ul>
+ * <li>{@code queueWait} cao nhưng {@code runTime} thấp: pool quá nhỏ hoặc quá tải.</li>
+ * <li>{@code runTime} cao: bản thân tác vụ chậm (DB chậm, API lag...).</li>
+ * </ul>
+ *
+ * @param pool          Tên pool ({@code io}, {@code cpu}, ...).
+ * @param submitted     Tổng số tác vụ đã gửi vào pool.
+ * @param completed     Tổng số tác vụ đã chạy xong (kể cả khi ném lỗi).
+ * @param failed        Số tác vụ ném lỗi ra ngoài, hoặc là {@link java.util.concurrent.Future} (qua {@code submit})
+ *                      kết thúc bằng lỗi. Tác vụ tự bắt lỗi và chuyển vào kết quả của mình
+ *                      ({@code IAction}/{@code ResultedAction}/{@code LazyAction}, {@code runIoAsync},
+ *                      {@code CompletableFuture.supplyAsync}...) được tính là thành công: xem lỗi ở kết quả đó.
+ * @param rejected      Số tác vụ bị từ chối hoặc bị bỏ khỏi hàng đợi.
+ * @param queueDepth    Số tác vụ đang chờ trong hàng đợi.
+ * @param activeThreads Số thread đang chạy tác vụ.
+ * @param poolSize      Số thread hiện có của pool.
+ * @param queueWait     Thời gian chờ trong hàng đợi.
+ * @param runTime       Thời gian thực thi.
+ */
+@ReleasedSince("2.2")
+public record ExecutorMetrics(
+        @NotNull String pool,
+        long submitted,
+        long completed,
+        long failed,
+        long rejected,
+        long queueDepth,
+        long activeThreads,
+        long poolSize,
+        @NotNull Latency queueWait,
+        @NotNull Latency runTime
+) {
+
+    /**
+     * Thống kê độ trễ (đơn vị nano giây). Percentile là giá trị xấp xỉ theo bucket lũy thừa 2.
+     */
+    public record Latency(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+
+        /** Định dạng ngắn gọn để in ra console/log. */
+        public String format() {
+            return "n=" + count + " mean=" + millis(meanNanos) + " p50=" + millis(p50Nanos)
+                    + " p90=" + millis(p90Nanos) + " p99=" + millis(p99Nanos) + " max=" + millis(maxNanos);
+        }
+
+        private static String millis(long nanos) {
+            if (nanos == Long.MAX_VALUE) return "∞";
+            return String.format("%.2fms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Cấu hình dùng để khởi tạo {@link ExecutorManager}.
+ *
+ * <pre>{@code
+ * ExecutorManager.initialize(ExecutorOptions.builder()
+ *         .ioMode(IoMode.VIRTUAL)
+ *         .cpuQueueCapacity(10_000)
+ *         .cpuRejectionPolicy(RejectionPolicy.CALLER_RUNS)
+ *         .saturationListener((pool, queued, capacity) -> busy.set(true))
+ *         .build());
+ * }</pre>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class ExecutorOptions {
+    /** Hàng đợi không giới hạn (hành vi mặc định của các phiên bản trước). */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final IoMode ioMode;
+    private final CpuMode cpuMode;
+    private final int cpuParallelism;
+    private final boolean cpuAsyncMode;
+    private final int ioQueueCapacity;
+    private final int cpuQueueCapacity;
+    private final RejectionPolicy ioRejectionPolicy;
+    private final RejectionPolicy cpuRejectionPolicy;
+    private final double saturationThreshold;
+    private final SaturationListener saturationListener;
+    private final Duration drainTimeout;
+    private final int adaptiveIoMin;
+    private final int adaptiveIoMax;
+    private final Duration adaptiveIoInterval;
+    private final Duration stallThreshold;
+    private final Duration watchdogInterval;
+
+    private ExecutorOptions(Builder builder) {
+        this.ioMode = builder.ioMode;
+        this.cpuMode = builder.cpuMode;
+        this.cpuParallelism = builder.cpuParallelism;
+        this.cpuAsyncMode = builder.cpuAsyncMode;
+        this.ioQueueCapacity = builder.ioQueueCapacity;
+        this.cpuQueueCapacity = builder.cpuQueueCapacity;
+        this.ioRejectionPolicy = builder.ioRejectionPolicy;
+        this.cpuRejectionPolicy = builder.cpuRejectionPolicy;
+        this.saturationThreshold = builder.saturationThreshold;
+        this.saturationListener = builder.saturationListener;
+        this.drainTimeout = builder.drainTimeout;
+        this.adaptiveIoMin = builder.adaptiveIoMin;
+        this.adaptiveIoMax = builder.adaptiveIoMax;
+        this.adaptiveIoInterval = builder.adaptiveIoInterval;
+        this.stallThreshold = builder.stallThreshold;
+        this.watchdogInterval = builder.watchdogInterval;
+    }
+
+    /**
+     * @return Cấu hình mặc định (giống hệt hành vi của {@link ExecutorManager#initialize()}).
+     */
+    public static ExecutorOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** @return Chế độ vận hành của IO Executor. */
+    @NotNull
+    public IoMode getIoMode() {
+        return ioMode;
+    }
+
+    /** @return Chế độ vận hành của CPU Executor. */
+    @NotNull
+    public CpuMode getCpuMode() {
+        return cpuMode;
+    }
+
+    /** @return Số thread của CPU Executor (mặc định bằng số nhân CPU). */
+    public int getCpuParallelism() {
+        return cpuParallelism;
+    }
+
+    /**
+     * @return {@code true} nếu ForkJoinPool chạy ở chế độ FIFO cho các tác vụ không bao giờ join
+     * (asyncMode), chỉ dùng với {@link CpuMode#FORK_JOIN}.
+     */
+    public boolean isCpuAsyncMode() {
+        return cpuAsyncMode;
+    }
+
+    /** @return Sức chứa hàng đợi của IO pool ({@link #UNBOUNDED} nếu không giới hạn). */
+    public int getIoQueueCapacity() {
+        return ioQueueCapacity;
+    }
+
+    /** @return Sức chứa hàng đợi của CPU pool ({@link #UNBOUNDED} nếu không giới hạn). */
+    public int getCpuQueueCapacity() {
+        return cpuQueueCapacity;
+    }
+
+    @NotNull
+    public RejectionPolicy getIoRejectionPolicy() {
+        return ioRejectionPolicy;
+    }
+
+    @NotNull
+    public RejectionPolicy getCpuRejectionPolicy() {
+        return cpuRejectionPolicy;
+    }
+
+    /** @return Tỉ lệ (0..1] của hàng đợi mà khi vượt qua, pool được coi là bão hòa. */
+    public double getSaturationThreshold() {
+        return saturationThreshold;
+    }
+
+    @Nullable
+    public SaturationListener getSaturationListener() {
+        return saturationListener;
+    }
+
+    /** @return Hạn chót mặc định của {@link ExecutorManager#shutdownGracefully()}. */
+    @NotNull
+    public Duration getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    /** @return {@code true} nếu IO pool tự điều chỉnh số thread. */
+    public boolean isAdaptiveIo() {
+        return adaptiveIoMax > 0;
+    }
+
+    public int getAdaptiveIoMin() {
+        return adaptiveIoMin;
+    }
+
+    public int getAdaptiveIoMax() {
+        return adaptiveIoMax;
+    }
+
+    @NotNull
+    public Duration getAdaptiveIoInterval() {
+        return adaptiveIoInterval;
+    }
+
+    /** @return {@code true} nếu watchdog theo dõi tác vụ bị treo được bật. */
+    public boolean isWatchdogEnabled() {
+        return !stallThreshold.isZero();
+    }
+
+    /** @return Ngưỡng thời gian chạy mà từ đó một tác vụ bị coi là treo. */
+    public Duration getStallThreshold() {
+        return stallThreshold;
+    }
+
+    /** @return Chu kỳ quét của watchdog. */
+    public Duration getWatchdogInterval() {
+        return watchdogInterval;
+    }
+
+    public static final class Builder {
+        private IoMode ioMode = IoMode.PLATFORM;
+        private CpuMode cpuMode = CpuMode.FIXED;
+        private int cpuParallelism = Runtime.getRuntime().availableProcessors();
+        private boolean cpuAsyncMode = true;
+        private int ioQueueCapacity = UNBOUNDED;
+        private int cpuQueueCapacity = UNBOUNDED;
+        private RejectionPolicy ioRejectionPolicy = RejectionPolicy.FAIL_FAST;
+        private RejectionPolicy cpuRejectionPolicy = RejectionPolicy.FAIL_FAST;
+        private double saturationThreshold = 0.8;
+        private SaturationListener saturationListener;
+        private Duration drainTimeout = Duration.ofSeconds(10);
+        private int adaptiveIoMin;
+        private int adaptiveIoMax;
+        private Duration adaptiveIoInterval = Duration.ofSeconds(5);
+        private Duration stallThreshold = Duration.ofSeconds(30);
+        private Duration watchdogInterval = Duration.ofSeconds(1);
+
+        private Builder() { }
+
+        /**
+         * Chọn chế độ cho IO Executor (mặc định: {@link IoMode#PLATFORM}).
+         */
+        public Builder ioMode(@NotNull IoMode ioMode) {
+            this.ioMode = Objects.requireNonNull(ioMode, "ioMode");
+            return this;
+        }
+
+        /**
+         * Chọn chế độ cho CPU Executor (mặc định: {@link CpuMode#FIXED}).
+         */
+        public Builder cpuMode(@NotNull CpuMode cpuMode) {
+            this.cpuMode = Objects.requireNonNull(cpuMode, "cpuMode");
+            return this;
+        }
+
+        /**
+         * Số thread của CPU Executor (mặc định: số nhân CPU).
+         */
+        public Builder cpuParallelism(int parallelism) {
+            this.cpuParallelism = requirePositive(parallelism, "cpuParallelism");
+            return this;
+        }
+
+        /**
+         * Bật/tắt asyncMode của ForkJoinPool (mặc định: {@code true}).
+         * <p>
+         * {@code true}: các tác vụ submit từ bên ngoài và fork chạy theo thứ tự FIFO, phù hợp với
+         * tác vụ dạng event. {@code false}: LIFO, phù hợp với thuật toán chia để trị thuần túy.
+         * </p>
+         */
+        public Builder cpuAsyncMode(boolean asyncMode) {
+            this.cpuAsyncMode = asyncMode;
+            return this;
+        }
+
+        /**
+         * Giới hạn số tác vụ chờ trong hàng đợi của IO pool (mặc định: {@link #UNBOUNDED}).
+         * <p>
+         * Không có tác dụng với {@link IoMode#VIRTUAL} vì chế độ này không có hàng đợi.
+         * </p>
+         */
+        public Builder ioQueueCapacity(int capacity) {
+            this.ioQueueCapacity = requirePositive(capacity, "ioQueueCapacity");
+            return this;
+        }
+
+        /**
+         * Giới hạn số tác vụ chờ trong hàng đợi của CPU pool (mặc định: {@link #UNBOUNDED}).
+         * <p>
+         * Không có tác dụng với {@link CpuMode#FORK_JOIN}.
+         * </p>
+         */
+        public Builder cpuQueueCapacity(int capacity) {
+            this.cpuQueueCapacity = requirePositive(capacity, "cpuQueueCapacity");
+            return this;
+        }
+
+        /** Chính sách khi hàng đợi IO đầy (mặc định: {@link RejectionPolicy#FAIL_FAST}). */
+        public Builder ioRejectionPolicy(@NotNull RejectionPolicy policy) {
+            this.ioRejectionPolicy = Objects.requireNonNull(policy, "policy");
+            return this;
+        }
+
+        /** Chính sách khi hàng đợi CPU đầy (mặc định: {@link RejectionPolicy#FAIL_FAST}). */
+        public Builder cpuRejectionPolicy(@NotNull RejectionPolicy policy) {
+            this.cpuRejectionPolicy = Objects.requireNonNull(policy, "policy");
+            return this;
+        }
+
+        /**
+         * Ngưỡng bão hòa tính theo tỉ lệ sức chứa hàng đợi (mặc định: {@code 0.8}).
+         */
+        public Builder saturationThreshold(double threshold) {
+            if (threshold <= 0 || threshold > 1) {
+                throw new IllegalArgumentException("saturationThreshold phải nằm trong khoảng (0, 1]");
+            }
+            this.saturationThreshold = threshold;
+            return this;
+        }
+
+        /** Đăng ký callback nhận tín hiệu bão hòa / từ chối của các pool. */
+        public Builder saturationListener(@Nullable SaturationListener listener) {
+            this.saturationListener = listener;
+            return this;
+        }
+
+        /**
+         * Thời gian tối đa chờ các tác vụ còn lại chạy xong khi tắt bot (mặc định: 10 giây).
+         */
+        public Builder drainTimeout(@NotNull Duration timeout) {
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("drainTimeout không được âm");
+            }
+            this.drainTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Bật chế độ tự điều chỉnh số thread của IO pool trong khoảng {@code [minThreads, maxThreads]}
+         * theo tỉ lệ thời gian chờ / thời gian CPU đo được của các tác vụ.
+         * <p>
+         * Chỉ áp dụng cho {@link IoMode#PLATFORM}. Nếu JVM không hỗ trợ đo thời gian CPU của thread,
+         * IO pool sẽ giữ kích thước cố định.
+         * </p>
+         */
+        public Builder adaptiveIo(int minThreads, int maxThreads) {
+            requirePositive(minThreads, "minThreads");
+            if (maxThreads < minThreads) {
+                throw new IllegalArgumentException("maxThreads phải lớn hơn hoặc bằng minThreads");
+            }
+            this.adaptiveIoMin = minThreads;
+            this.adaptiveIoMax = maxThreads;
+            return this;
+        }
+
+        /**
+         * Chu kỳ đánh giá lại kích thước IO pool (mặc định: 5 giây).
+         */
+        public Builder adaptiveIoInterval(@NotNull Duration interval) {
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("adaptiveIoInterval phải lớn hơn 0");
+            }
+            this.adaptiveIoInterval = interval;
+            return this;
+        }
+
+        /**
+         * Tác vụ chạy lâu hơn ngưỡng này sẽ bị watchdog log stack một lần (mặc định: 30 giây).
+         * Truyền {@link Duration#ZERO} để tắt watchdog.
+         * <p>
+         * Khi bật, watchdog cũng cảnh báo các tác vụ trên CPU pool đang đứng ở lời gọi blocking
+         * (socket, file, JDBC, {@code Thread.sleep}, lock...) lâu hơn một chu kỳ quét.
+         * </p>
+         */
+        public Builder stallThreshold(@NotNull Duration threshold) {
+            if (threshold.isNegative()) {
+                throw new IllegalArgumentException("stallThreshold không được âm");
+            }
+            this.stallThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Chu kỳ quét của watchdog (mặc định: 1 giây).
+         */
+        public Builder watchdogInterval(@NotNull Duration interval) {
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("watchdogInterval phải lớn hơn 0");
+            }
+            this.watchdogInterval = interval;
+            return this;
+        }
+
+        private static int requirePositive(int value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " phải lớn hơn 0");
+            }
+            return value;
+        }
+
+        public ExecutorOptions build() {
+            return new ExecutorOptions(this);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.dianxin.core.api.lifecycle;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Decorator bao quanh mọi pool của {@link ExecutorManager} để ghi nhận {@link ExecutorMetrics}.
+ * <p>
+ * Hoạt động giống nhau với {@link ThreadPoolExecutor}, {@link ForkJoinPool} và executor virtual thread.
+ * </p>
+ */
+final class InstrumentedExecutor extends AbstractExecutorService {
+    private final String name;
+    private final ExecutorService delegate;
+    private final PoolMetrics metrics;
+    private final Set<TrackedTask> running = ConcurrentHashMap.newKeySet();
+
+    InstrumentedExecutor(String name, ExecutorService delegate) {
+        this.name = name;
+        this.delegate = delegate;
+        this.metrics = new PoolMetrics(name, () -> poolSizeOf(delegate));
+    }
+
+    private static long poolSizeOf(ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor tpe) return tpe.getPoolSize();
+        if (executor instanceof ForkJoinPool fjp) return fjp.getPoolSize();
+        return 0; // virtual thread: số thread = số tác vụ đang chạy
+    }
+
+    String getName() {
+        return name;
+    }
+
+    ExecutorService getDelegate() {
+        return delegate;
+    }
+
+    boolean isSaturated() {
+        return delegate instanceof ManagedThreadPool pool && pool.isSaturated();
+    }
+
+    ExecutorMetrics metrics() {
+        return metrics.snapshot();
+    }
+
+    /** @return Các tác vụ đang chạy tại thời điểm gọi. */
+    Collection<TrackedTask> runningTasks() {
+        return List.copyOf(running);
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        execute(command, TaskPriority.NORMAL);
+    }
+
+    void execute(Runnable command, TaskPriority priority) {
+        TrackedTask task = new TrackedTask(command, metrics, running, priority);
+        metrics.onSubmit();
+        try {
+            delegate.execute(task);
+        } catch (RejectedExecutionException e) {
+            metrics.onReject();
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public @NotNull List<Runnable> shutdownNow() {
+        List<Runnable> pending = delegate.shutdownNow();
+        List<Runnable> unwrapped = new ArrayList<>(pending.size());
+        for (Runnable r : pending) {
+            if (r instanceof TrackedTask task) {
+                metrics.onReject();
+                unwrapped.add(task.getDelegate());
+            } else {
+                unwrapped.add(r);
+            }
+        }
+        return unwrapped;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedExecutor[" + name + "]";
+    }
+}
@@ -0,0 +1,25 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * Chế độ vận hành của IO Executor trong {@link ExecutorManager}.
+ */
+@ReleasedSince("2.2")
+public enum IoMode {
+    /**
+     * Thread pool cố định gồm các platform thread ({@code max(4, Core * 2)} thread).
+     * Đây là chế độ mặc định, giữ nguyên hành vi của các phiên bản trước.
+     */
+    PLATFORM,
+
+    /**
+     * Mỗi tác vụ chạy trên một virtual thread riêng (Java 21+).
+     * <p>
+     * Phù hợp với các tác vụ blocking nhiều (Database, HTTP) vì thread bị chặn không chiếm
+     * platform thread, nên pool không bao giờ bị "cạn" như pool cố định.
+     * <b>Lưu ý:</b> code blocking bên trong khối {@code synchronized} vẫn sẽ giữ chặt (pin) carrier thread.
+     * </p>
+     */
+    VIRTUAL
+}
@@ -0,0 +1,232 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+/**
+ * Executor tuần tự theo khóa (Keyed Serial Executor), hoạt động như một "hộp thư" (mailbox) cho mỗi khóa.
+ * <p>
+ * Các tác vụ cùng khóa (ví dụ: cùng guild id) chạy <b>đúng thứ tự gửi</b> và không bao giờ chạy song song,
+ * còn các khóa khác nhau vẫn chạy song song trên pool bên dưới. Không cần lock toàn cục.
+ * </p>
+ * <p>
+ * Mailbox chỉ tồn tại khi khóa còn tác vụ đang chờ; hết việc là bị xóa ngay,
+ * nên bộ nhớ không tăng theo số guild (kể cả hàng chục nghìn guild).
+ * </p>
+ * <p>
+ * Mỗi tác vụ chạy dưới {@link ExecutionContext} của chính nơi gửi nó, không phải của tác vụ đã mở mailbox.
+ * </p>
+ *
+ * <pre>{@code
+ * KeyedSerialExecutor<Long> perGuild = KeyedSerialExecutor.io();
+ *
+ * perGuild.execute(guild.getIdLong(), () -> saveConfig(guild));
+ *
+ * // Hoặc dùng như một Executor bình thường cho ResultedAction
+ * ResultedAction.supplyAsync(() -> loadStats(guild), perGuild.forKey(guild.getIdLong()));
+ * }</pre>
+ *
+ * @param <K> Kiểu của khóa (phải cài đặt đúng {@code equals/hashCode}).
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class KeyedSerialExecutor<K> {
+    private static final Logger logger = LoggerFactory.getLogger(KeyedSerialExecutor.class);
+
+    /** Số tác vụ tối đa một mailbox chạy liên tục trước khi nhường thread cho khóa khác. */
+    private static final int BATCH_SIZE = 32;
+
+    private final Executor executor;
+    private final ConcurrentHashMap<K, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor Pool thực sự chạy các tác vụ.
+     */
+    public KeyedSerialExecutor(@NotNull Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /** Tạo một KeyedSerialExecutor chạy trên {@link ExecutorManager#io()}. */
+    public static <K> KeyedSerialExecutor<K> io() {
+        return new KeyedSerialExecutor<>(ExecutorManager.io());
+    }
+
+    /** Tạo một KeyedSerialExecutor chạy trên {@link ExecutorManager#cpu()}. */
+    public static <K> KeyedSerialExecutor<K> cpu() {
+        return new KeyedSerialExecutor<>(ExecutorManager.cpu());
+    }
+
+    /**
+     * Gửi tác vụ vào mailbox của khóa.
+     *
+     * @param key  Khóa tuần tự (guild id, user id...).
+     * @param task Tác vụ cần chạy.
+     * @throws RejectedExecutionException Nếu pool bên dưới từ chối. Các tác vụ đang chờ của khóa vẫn được giữ lại
+     *                                    và sẽ chạy ở lần gửi thành công tiếp theo; riêng khi pool đã tắt,
+     *                                    chúng bị từ chối cùng lúc (xem {@link RejectableTask}).
+     */
+    public void execute(@NotNull K key, @NotNull Runnable task) {
+        Objects.requireNonNull(task, "task");
+        QueuedTask bound = new QueuedTask(task, ExecutionContext.capture());
+        boolean[] claimed = new boolean[1];
+        Mailbox mailbox = mailboxes.compute(key, (k, mb) -> {
+            if (mb == null) mb = new Mailbox(k);
+            mb.queue.add(bound);
+            if (!mb.scheduled) {
+                mb.scheduled = true;
+                claimed[0] = true;
+            }
+            return mb;
+        });
+        if (claimed[0]) {
+            mailbox.start();
+        }
+    }
+
+    /**
+     * Gửi tác vụ có kết quả vào mailbox của khóa.
+     * <p>
+     * Nếu pool bên dưới bị tắt khi tác vụ còn chờ, future kết thúc với lỗi {@link RejectedExecutionException}.
+     * </p>
+     */
+    public <T> CompletableFuture<T> submit(@NotNull K key, @NotNull Callable<T> task) {
+        Objects.requireNonNull(task, "task");
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(key, new SubmittedTask<>(task, future));
+        return future;
+    }
+
+    /**
+     * Tạo một {@link Executor} gắn cố định với một khóa, dùng được cho
+     * {@code IAction.supplyAsync}, {@code ResultedAction.supplyAsync} và {@code LazyAction.defer}.
+     */
+    public Executor forKey(@NotNull K key) {
+        Objects.requireNonNull(key, "key");
+        return task -> execute(key, task);
+    }
+
+    /** @return Số khóa đang có tác vụ chờ hoặc đang chạy. */
+    public int activeKeys() {
+        return mailboxes.size();
+    }
+
+    /**
+     * Tác vụ trong mailbox cùng ngữ cảnh chụp lúc gửi. Mailbox chạy nhiều tác vụ của nhiều nơi gửi trong một lượt,
+     * nên ngữ cảnh phải gắn theo từng tác vụ; tác vụ gửi khi không có ngữ cảnh chạy với {@link ExecutionContext#EMPTY}.
+     */
+    private record QueuedTask(Runnable task, ExecutionContext context) implements RejectableTask {
+        @Override
+        public void run() {
+            try (ExecutionContext.Scope ignored = (context != null ? context : ExecutionContext.EMPTY).attach()) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void reject(@NotNull RejectedExecutionException cause) {
+            TrackedTask.reject(task, cause);
+        }
+    }
+
+    private record SubmittedTask<T>(Callable<T> task, CompletableFuture<T> future) implements RejectableTask {
+        @Override
+        public void run() {
+            if (future.isDone()) return; // đã bị hủy trước khi tới lượt
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        @Override
+        public void reject(@NotNull RejectedExecutionException cause) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    private final class Mailbox implements RejectableTask {
+        private final K key;
+        private final Queue<QueuedTask> queue = new ConcurrentLinkedQueue<>();
+        private boolean scheduled; // chỉ đọc/ghi bên trong mailboxes.compute(...)
+
+        private Mailbox(K key) {
+            this.key = key;
+        }
+
+        private void start() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                abandon(e);
+                throw e;
+            }
+        }
+
+        /**
+         * Pool không nhận mailbox. Pool còn chạy (hàng đợi đầy, DROP_OLDEST) thì giữ lại các tác vụ cho lần gửi
+         * thành công sau; pool đã tắt thì không còn lần sau, nên bỏ mailbox và báo lỗi cho mọi tác vụ đang chờ.
+         */
+        private void abandon(RejectedExecutionException cause) {
+            if (!(executor instanceof ExecutorService service) || !service.isShutdown()) {
+                unschedule();
+                return;
+            }
+            mailboxes.remove(key, this);
+            QueuedTask task;
+            while ((task = queue.poll()) != null) {
+                task.reject(cause);
+            }
+        }
+
+        private void unschedule() {
+            mailboxes.computeIfPresent(key, (k, mb) -> {
+                if (mb == this) scheduled = false;
+                return mb;
+            });
+        }
+
+        /**
+         * Pool bỏ mailbox khỏi hàng đợi (DROP_OLDEST, hoặc bị tắt khi mailbox còn chờ).
+         */
+        @Override
+        public void reject(@NotNull RejectedExecutionException cause) {
+            logger.warn("Mailbox của khóa '{}' bị bỏ khỏi pool: {}", key, cause.getMessage());
+            abandon(cause);
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                Runnable task = queue.poll();
+                if (task == null) break;
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    logger.error("Tác vụ của khóa '{}' gặp lỗi", key, t);
+                }
+            }
+
+            // Hết việc thì xóa mailbox (evict), còn việc thì nhường thread rồi chạy tiếp
+            Mailbox next = mailboxes.compute(key, (k, mb) -> {
+                if (mb != this) return mb;
+                if (queue.isEmpty()) return null;
+                return mb;
+            });
+            if (next == this) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    logger.warn("Không thể tiếp tục mailbox của khóa '{}': {}", key, e.getMessage());
+                    abandon(e);
+                }
+            }
+        }
+    }
+}
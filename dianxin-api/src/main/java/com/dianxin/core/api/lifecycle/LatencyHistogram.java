@@ -0,0 +1,61 @@
+package com.dianxin.core.api.lifecycle;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram độ trễ (nano giây) chia bucket theo lũy thừa 2.
+ * <p>
+ * Ghi nhận chỉ tốn một phép cộng nguyên tử, không cấp phát bộ nhớ. Percentile trả về là cận trên
+ * của bucket nên sai số tối đa là 2 lần - đủ để phân biệt "micro giây" với "vài trăm mili giây".
+ * </p>
+ */
+final class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile long maxNanos;
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        // bucket i chứa các giá trị trong khoảng [2^i, 2^(i+1))
+        buckets.incrementAndGet(nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos) {
+            maxNanos = nanos; // chấp nhận sai lệch nhỏ khi tranh chấp, chỉ dùng để quan sát
+        }
+    }
+
+    ExecutorMetrics.Latency snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = buckets.get(i);
+            total += copy[i];
+        }
+        long n = count.sum();
+        long mean = n == 0 ? 0 : totalNanos.sum() / n;
+        long max = maxNanos;
+        // Cận trên của bucket có thể vượt giá trị lớn nhất thực tế, nên cắt lại theo max
+        return new ExecutorMetrics.Latency(n, mean,
+                Math.min(max, percentile(copy, total, 0.50)),
+                Math.min(max, percentile(copy, total, 0.90)),
+                Math.min(max, percentile(copy, total, 0.99)), max);
+    }
+
+    private static long percentile(long[] buckets, long total, double p) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,134 @@
+package com.dianxin.core.api.lifecycle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ThreadPoolExecutor có hàng đợi giới hạn (sắp xếp theo {@link TaskPriority}), chính sách từ chối và tín hiệu bão hòa.
+ */
+class ManagedThreadPool extends ThreadPoolExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(ManagedThreadPool.class);
+
+    private final String poolName;
+    private final int queueCapacity;
+    private final int saturationMark;
+    private final SaturationListener listener;
+    private final AtomicBoolean saturated = new AtomicBoolean(false);
+    private volatile AdaptivePoolSizer sizer;
+
+    ManagedThreadPool(String poolName, int threads, int queueCapacity, RejectionPolicy policy,
+                      double saturationThreshold, SaturationListener listener, ThreadFactory threadFactory) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, createQueue(queueCapacity), threadFactory);
+        this.poolName = poolName;
+        this.queueCapacity = queueCapacity;
+        this.saturationMark = Math.max(1, (int) (queueCapacity * saturationThreshold));
+        this.listener = listener;
+        setRejectedExecutionHandler(new PolicyHandler(policy));
+    }
+
+    private static BlockingQueue<Runnable> createQueue(int capacity) {
+        return new PriorityTaskQueue(capacity);
+    }
+
+    String getPoolName() {
+        return poolName;
+    }
+
+    boolean isSaturated() {
+        return saturated.get();
+    }
+
+    /**
+     * Bật chế độ tự điều chỉnh số thread theo tỉ lệ blocking.
+     */
+    void enableAdaptiveSizing(int minThreads, int maxThreads, Duration interval) {
+        this.sizer = new AdaptivePoolSizer(poolName, this, minThreads, maxThreads, interval);
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        AdaptivePoolSizer s = sizer;
+        if (s != null) s.beforeTask();
+    }
+
+    @Override
+    protected void terminated() {
+        super.terminated();
+        AdaptivePoolSizer s = sizer;
+        if (s != null) s.stop();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(command);
+        if (queueCapacity == Integer.MAX_VALUE) return;
+
+        int queued = getQueue().size();
+        if (queued >= saturationMark && saturated.compareAndSet(false, true)) {
+            logger.warn("Pool '{}' đang bão hòa: {}/{} tác vụ trong hàng đợi", poolName, queued, queueCapacity);
+            notifySafely(() -> listener.onSaturated(poolName, queued, queueCapacity));
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        AdaptivePoolSizer s = sizer;
+        if (s != null) s.afterTask();
+        if (saturated.get() && getQueue().size() <= saturationMark / 2 && saturated.compareAndSet(true, false)) {
+            logger.info("Pool '{}' đã hết bão hòa", poolName);
+            notifySafely(() -> listener.onRecovered(poolName));
+        }
+    }
+
+    private void notifySafely(Runnable callback) {
+        if (listener == null) return;
+        try {
+            callback.run();
+        } catch (Exception e) {
+            logger.error("SaturationListener của pool '{}' gặp lỗi", poolName, e);
+        }
+    }
+
+    private final class PolicyHandler implements RejectedExecutionHandler {
+        private final RejectionPolicy policy;
+
+        private PolicyHandler(RejectionPolicy policy) {
+            this.policy = policy;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Pool '" + poolName + "' đã shutdown");
+            }
+            notifySafely(() -> listener.onRejected(poolName, policy));
+
+            switch (policy) {
+                case FAIL_FAST -> throw new RejectedExecutionException(
+                        "Pool '" + poolName + "' đã đầy (" + queueCapacity + " tác vụ trong hàng đợi)");
+                case CALLER_RUNS -> r.run();
+                case DROP_OLDEST -> {
+                    // Bỏ tác vụ cũ nhất của làn thấp nhất đang có tác vụ (BULK trước, INTERACTIVE sau cùng)
+                    Runnable dropped = executor.getQueue() instanceof PriorityTaskQueue queue
+                            ? queue.pollLeastUrgent()
+                            : executor.getQueue().poll();
+                    RejectedExecutionException cause = new RejectedExecutionException(
+                            "Pool '" + poolName + "' đầy, tác vụ bị bỏ (DROP_OLDEST)");
+                    if (dropped instanceof TrackedTask task) {
+                        task.discard(cause);
+                    } else if (dropped != null) {
+                        TrackedTask.reject(dropped, cause);
+                    }
+                    logger.debug("Pool '{}' đầy, đã bỏ tác vụ cũ nhất: {}", poolName, dropped);
+                    executor.execute(r);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.dianxin.core.api.lifecycle;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bộ ghi số liệu (mutable) của một pool. Dùng {@link #snapshot()} để lấy {@link ExecutorMetrics}.
+ */
+final class PoolMetrics {
+    private final String pool;
+    private final LongSupplier poolSize;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder active = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    PoolMetrics(String pool, LongSupplier poolSize) {
+        this.pool = pool;
+        this.poolSize = poolSize;
+    }
+
+    void onSubmit() {
+        submitted.increment();
+        queued.increment();
+    }
+
+    /** Tác vụ bị từ chối ngay khi gửi, hoặc bị bỏ khỏi hàng đợi. */
+    void onReject() {
+        rejected.increment();
+        queued.decrement();
+    }
+
+    void onStart(long waitNanos) {
+        queued.decrement();
+        active.increment();
+        queueWait.record(waitNanos);
+    }
+
+    void onFinish(long runNanos, boolean success) {
+        active.decrement();
+        completed.increment();
+        if (!success) failed.increment();
+        runTime.record(runNanos);
+    }
+
+    ExecutorMetrics snapshot() {
+        long activeNow = Math.max(0, active.sum());
+        return new ExecutorMetrics(pool, submitted.sum(), completed.sum(), failed.sum(), rejected.sum(),
+                Math.max(0, queued.sum()), activeNow, Math.max(activeNow, poolSize.getAsLong()),
+                queueWait.snapshot(), runTime.snapshot());
+    }
+}
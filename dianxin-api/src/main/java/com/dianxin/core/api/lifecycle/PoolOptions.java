@@ -0,0 +1,85 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Cấu hình của một pool riêng biệt (bulkhead) tạo bởi {@link ExecutorManager#named(String, PoolOptions)}.
+ *
+ * <pre>{@code
+ * ExecutorService db = ExecutorManager.named("db", PoolOptions.builder()
+ *         .threads(8)
+ *         .queueCapacity(500)
+ *         .rejectionPolicy(RejectionPolicy.FAIL_FAST)
+ *         .build());
+ * }</pre>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class PoolOptions {
+    private final int threads;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+
+    private PoolOptions(Builder builder) {
+        this.threads = builder.threads;
+        this.queueCapacity = builder.queueCapacity;
+        this.rejectionPolicy = builder.rejectionPolicy;
+    }
+
+    /** @return Cấu hình mặc định: số thread bằng số nhân CPU, hàng đợi 1000, {@link RejectionPolicy#FAIL_FAST}. */
+    public static PoolOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @NotNull
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public static final class Builder {
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1000;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.FAIL_FAST;
+
+        private Builder() { }
+
+        /** Số thread cố định của pool. */
+        public Builder threads(int threads) {
+            if (threads <= 0) throw new IllegalArgumentException("threads phải lớn hơn 0");
+            this.threads = threads;
+            return this;
+        }
+
+        /** Sức chứa hàng đợi ({@link ExecutorOptions#UNBOUNDED} nếu không giới hạn). */
+        public Builder queueCapacity(int capacity) {
+            if (capacity <= 0) throw new IllegalArgumentException("queueCapacity phải lớn hơn 0");
+            this.queueCapacity = capacity;
+            return this;
+        }
+
+        /** Chính sách khi hàng đợi đầy. */
+        public Builder rejectionPolicy(@NotNull RejectionPolicy policy) {
+            this.rejectionPolicy = Objects.requireNonNull(policy, "policy");
+            return this;
+        }
+
+        public PoolOptions build() {
+            return new PoolOptions(this);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.dianxin.core.api.lifecycle;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hàng đợi có giới hạn, sắp xếp tác vụ theo {@link TaskPriority} có aging.
+ * <p>
+ * Khóa sắp xếp là "hạn ảo" ({@code enqueuedAt + agingOffset}) rồi tới số thứ tự vào hàng,
+ * nên trong cùng một làn vẫn giữ FIFO và một tác vụ BULK chờ đủ lâu sẽ vượt lên làn INTERACTIVE.
+ * Một lock duy nhất giống {@link java.util.concurrent.ArrayBlockingQueue}, chi phí mỗi thao tác O(log n).
+ * </p>
+ */
+final class PriorityTaskQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+    private final int capacity;
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private long sequence;
+
+    PriorityTaskQueue(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity phải > 0");
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param lane Thứ tự của {@link TaskPriority} (số lớn hơn là làn ít khẩn cấp hơn), chỉ dùng khi bỏ tác vụ.
+     */
+    private record Entry(Runnable task, long deadline, long seq, int lane) implements Comparable<Entry> {
+        @Override
+        public int compareTo(@NotNull Entry other) {
+            // So sánh hiệu để an toàn khi System.nanoTime() tràn số
+            long diff = deadline - other.deadline;
+            if (diff != 0) return diff < 0 ? -1 : 1;
+            return Long.compare(seq, other.seq);
+        }
+    }
+
+    private Entry entryOf(Runnable task) {
+        if (task instanceof TrackedTask tracked) {
+            return new Entry(task, tracked.getDeadline(), sequence++, tracked.getPriority().ordinal());
+        }
+        return new Entry(task, System.nanoTime() + TaskPriority.NORMAL.agingOffsetNanos(), sequence++,
+                TaskPriority.NORMAL.ordinal());
+    }
+
+    private Runnable dequeue() {
+        Entry entry = heap.poll();
+        if (entry == null) return null;
+        notFull.signal();
+        return entry.task;
+    }
+
+    @Override
+    public boolean offer(@NotNull Runnable task) {
+        lock.lock();
+        try {
+            if (heap.size() >= capacity) return false;
+            heap.add(entryOf(task));
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(@NotNull Runnable task, long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (heap.size() >= capacity) {
+                if (nanos <= 0) return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            heap.add(entryOf(task));
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(@NotNull Runnable task) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (heap.size() >= capacity) notFull.await();
+            heap.add(entryOf(task));
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try {
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (heap.isEmpty()) {
+                if (nanos <= 0) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public @NotNull Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (heap.isEmpty()) notEmpty.await();
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lấy ra tác vụ để bỏ theo {@link RejectionPolicy#DROP_OLDEST}: chọn làn thấp nhất đang có tác vụ
+     * (BULK trước, INTERACTIVE sau cùng), rồi tác vụ vào hàng sớm nhất trong làn đó.
+     * Không dùng hạn ảo ở đây: hạn ảo muộn nhất chính là tác vụ mới nhất, trái với "bỏ cái cũ nhất".
+     */
+    Runnable pollLeastUrgent() {
+        lock.lock();
+        try {
+            Entry worst = null;
+            for (Entry entry : heap) {
+                if (worst == null || entry.lane > worst.lane || (entry.lane == worst.lane && entry.seq < worst.seq)) {
+                    worst = entry;
+                }
+            }
+            if (worst == null) return null;
+            heap.remove(worst);
+            notFull.signal();
+            return worst.task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            Entry entry = heap.peek();
+            return entry != null ? entry.task : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return heap.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - heap.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) return false;
+        lock.lock();
+        try {
+            for (Iterator<Entry> it = heap.iterator(); it.hasNext(); ) {
+                if (it.next().task == o) {
+                    it.remove();
+                    notFull.signal();
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) return false;
+        lock.lock();
+        try {
+            for (Entry entry : heap) {
+                if (entry.task == o) return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            heap.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(@NotNull Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(@NotNull Collection<? super Runnable> c, int maxElements) {
+        if (c == this) throw new IllegalArgumentException();
+        lock.lock();
+        try {
+            int n = 0;
+            while (n < maxElements && !heap.isEmpty()) {
+                c.add(heap.poll().task);
+                n++;
+            }
+            if (n > 0) notFull.signalAll();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Iterator trên một bản chụp (theo đúng thứ tự sẽ chạy), không ném ConcurrentModificationException.
+     */
+    @Override
+    public @NotNull Iterator<Runnable> iterator() {
+        List<Entry> snapshot;
+        lock.lock();
+        try {
+            snapshot = new ArrayList<>(heap);
+        } finally {
+            lock.unlock();
+        }
+        snapshot.sort(null);
+
+        return new Iterator<>() {
+            private int cursor;
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.size();
+            }
+
+            @Override
+            public Runnable next() {
+                if (cursor >= snapshot.size()) throw new NoSuchElementException();
+                last = snapshot.get(cursor++).task;
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) throw new IllegalStateException();
+                PriorityTaskQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Tác vụ giữ một kết quả (promise, future...) mà người gọi đang chờ.
+ * <p>
+ * Khi pool bỏ tác vụ mà không chạy (ví dụ {@link RejectionPolicy#DROP_OLDEST}, hoặc còn trong hàng đợi lúc
+ * {@link ExecutorManager#shutdownGracefully(java.time.Duration)} hết hạn), pool gọi {@link #reject} để kết quả hoàn tất thay vì treo mãi.
+ * </p>
+ */
+@ReleasedSince("2.2")
+public interface RejectableTask extends Runnable {
+
+    /**
+     * Tác vụ sẽ không bao giờ được chạy. Được gọi tối đa một lần, thay cho {@link #run()}.
+     *
+     * @param cause Lý do bị bỏ.
+     */
+    void reject(@NotNull RejectedExecutionException cause);
+}
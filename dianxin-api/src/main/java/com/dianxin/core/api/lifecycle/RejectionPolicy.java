@@ -0,0 +1,41 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * Cách xử lý khi hàng đợi của một pool trong {@link ExecutorManager} đã đầy.
+ * <p>
+ * Chỉ có tác dụng khi pool được cấu hình với hàng đợi giới hạn
+ * (xem {@link ExecutorOptions.Builder#ioQueueCapacity(int)}).
+ * </p>
+ */
+@ReleasedSince("2.2")
+public enum RejectionPolicy {
+    /**
+     * Từ chối ngay lập tức bằng {@link java.util.concurrent.RejectedExecutionException}.
+     * <p>
+     * {@code ResultedAction.supplyAsync} và {@code LazyAction.defer} sẽ chuyển lỗi này thành
+     * {@code ActionResult.failure(...)}, nên bot có thể trả lời "đang bận" thay vì treo.
+     * </p>
+     */
+    FAIL_FAST,
+
+    /**
+     * Chạy tác vụ ngay trên luồng đã gửi nó (tự động giảm tốc độ nhận việc - backpressure).
+     */
+    CALLER_RUNS,
+
+    /**
+     * Bỏ tác vụ cũ nhất trong hàng đợi để nhường chỗ cho tác vụ mới.
+     * <p>
+     * Với các pool có làn ưu tiên, tác vụ bị bỏ là tác vụ cũ nhất của làn thấp nhất đang có tác vụ
+     * (xem {@link TaskPriority}).
+     * </p>
+     * <p>
+     * Tác vụ bị bỏ được báo qua {@link RejectableTask#reject}, hoặc bị hủy nếu nó là một
+     * {@link java.util.concurrent.Future}. Chỉ nên dùng cho
+     * các tác vụ ưu tiên thấp dạng fire-and-forget (cập nhật thống kê, cache...).
+     * </p>
+     */
+    DROP_OLDEST
+}
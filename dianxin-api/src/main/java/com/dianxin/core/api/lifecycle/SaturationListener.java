@@ -0,0 +1,46 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+import java.time.Duration;
+
+/**
+ * Nhận tín hiệu khi một pool của {@link ExecutorManager} bắt đầu quá tải.
+ * <p>
+ * Các callback được gọi trên luồng đang gửi tác vụ hoặc luồng worker, vì vậy phải xử lý thật nhanh
+ * (ví dụ: bật một cờ "busy" để các slash command trả lời ngay thay vì xếp hàng).
+ * </p>
+ */
+@ReleasedSince("2.2")
+@FunctionalInterface
+public interface SaturationListener {
+
+    /**
+     * Hàng đợi của pool vượt ngưỡng bão hòa (chỉ gọi một lần cho mỗi lần chuyển trạng thái).
+     *
+     * @param pool     Tên pool (ví dụ: {@code io}, {@code cpu}).
+     * @param queued   Số tác vụ đang chờ trong hàng đợi.
+     * @param capacity Sức chứa tối đa của hàng đợi.
+     */
+    void onSaturated(String pool, int queued, int capacity);
+
+    /**
+     * Hàng đợi đã giảm xuống dưới một nửa ngưỡng bão hòa.
+     */
+    default void onRecovered(String pool) { }
+
+    /**
+     * Một tác vụ vừa bị từ chối (hoặc bị bỏ với {@link RejectionPolicy#DROP_OLDEST}).
+     */
+    default void onRejected(String pool, RejectionPolicy policy) { }
+
+    /**
+     * Một tác vụ đã chạy lâu hơn {@link ExecutorOptions.Builder#stallThreshold(Duration)}
+     * (gọi trên luồng watchdog, một lần cho mỗi tác vụ).
+     *
+     * @param pool       Tên pool.
+     * @param runningFor Thời gian tác vụ đã chạy.
+     * @param stack      Stack của thread đang chạy tác vụ tại thời điểm phát hiện.
+     */
+    default void onStalled(String pool, Duration runningFor, StackTraceElement[] stack) { }
+}
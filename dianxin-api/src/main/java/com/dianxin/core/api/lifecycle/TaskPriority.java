@@ -0,0 +1,48 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Làn ưu tiên (priority lane) của một tác vụ trong hàng đợi của {@link ExecutorManager}.
+ * <p>
+ * Hàng đợi sắp xếp theo "hạn ảo" = thời điểm vào hàng + độ trễ của làn. Nhờ vậy tác vụ
+ * {@link #INTERACTIVE} vừa gửi sẽ chen lên trước tác vụ {@link #BULK} vừa gửi, nhưng một tác vụ BULK
+ * đã chờ quá {@link #getAgingOffsetMillis()} sẽ được ưu tiên trở lại (aging) nên không bao giờ bị bỏ đói.
+ * Trong cùng một làn, thứ tự vẫn là FIFO.
+ * </p>
+ * Chỉ có tác dụng với pool có hàng đợi ({@link IoMode#PLATFORM}, {@link CpuMode#FIXED}, pool {@code named});
+ * với virtual thread hay ForkJoinPool, tác vụ được chạy ngay nên làn ưu tiên bị bỏ qua.
+ *
+ * @see ExecutorManager#io(TaskPriority)
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public enum TaskPriority {
+    /** Phản hồi người dùng (slash command, button...) - phải trả lời trong hạn 3 giây của Discord. */
+    INTERACTIVE(0),
+    /** Mặc định cho mọi tác vụ không chỉ định làn. */
+    NORMAL(250),
+    /** Tác vụ nền, batch theo giờ, đồng bộ dữ liệu... */
+    BULK(2_000);
+
+    private final long agingOffsetMillis;
+    private final long agingOffsetNanos;
+
+    TaskPriority(long agingOffsetMillis) {
+        this.agingOffsetMillis = agingOffsetMillis;
+        this.agingOffsetNanos = TimeUnit.MILLISECONDS.toNanos(agingOffsetMillis);
+    }
+
+    /**
+     * @return Số mili giây tác vụ của làn này "nhường" cho làn {@link #INTERACTIVE}.
+     */
+    public long getAgingOffsetMillis() {
+        return agingOffsetMillis;
+    }
+
+    long agingOffsetNanos() {
+        return agingOffsetNanos;
+    }
+}
@@ -0,0 +1,146 @@
+package com.dianxin.core.api.lifecycle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Định kỳ quét các tác vụ đang chạy của mọi pool để phát hiện:
+ * <ul>
+ * <li>Tác vụ chạy lâu hơn ngưỡng: chụp stack của thread đang chạy nó và log đúng một lần.</li>
+ * <li>Tác vụ trên CPU pool đang đứng ở một lời gọi blocking (socket, file, JDBC, sleep, lock...).</li>
+ * </ul>
+ * Chỉ chụp stack của những tác vụ đã chạy lâu hơn một chu kỳ quét, nên gần như không tốn gì khi hệ thống bình thường.
+ */
+final class TaskWatchdog {
+    private static final Logger logger = LoggerFactory.getLogger(TaskWatchdog.class);
+
+    /** Số frame trên cùng được xem xét khi tìm lời gọi blocking. */
+    private static final int BLOCKING_PROBE_DEPTH = 4;
+    private static final String[] BLOCKING_PREFIXES = {
+            "java.net.", "sun.nio.ch.", "sun.nio.fs.", "java.io.", "java.nio.channels.", "java.sql.",
+            "javax.net.ssl.", "sun.security.ssl.", "java.net.http.",
+            "java.lang.Thread.sleep", "java.lang.Object.wait", "java.lang.Process",
+            "jdk.internal.misc.Unsafe.park", "java.util.concurrent.locks.LockSupport.park"
+    };
+
+    private final long thresholdNanos;
+    private final long intervalNanos;
+    private final Supplier<Collection<InstrumentedExecutor>> pools;
+    private final SaturationListener listener;
+    private final ScheduledExecutorService ticker;
+
+    private final LongAdder stalledTotal = new LongAdder();
+    private final LongAdder blockingOnCpu = new LongAdder();
+    private volatile int currentlyStalled;
+
+    TaskWatchdog(Duration threshold, Duration interval, Supplier<Collection<InstrumentedExecutor>> pools,
+                 SaturationListener listener) {
+        this.thresholdNanos = threshold.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.pools = pools;
+        this.listener = listener;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dianxin-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = interval.toMillis();
+        ticker.scheduleWithFixedDelay(this::scan, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    WatchdogStats stats() {
+        return new WatchdogStats(true, stalledTotal.sum(), blockingOnCpu.sum(), currentlyStalled);
+    }
+
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void scan() {
+        try {
+            long now = System.nanoTime();
+            int stalled = 0;
+            for (InstrumentedExecutor pool : pools.get()) {
+                boolean cpuPool = pool.getName().equals("cpu");
+                for (TrackedTask task : pool.runningTasks()) {
+                    Thread runner = task.getRunner();
+                    if (runner == null) continue;
+                    long runningFor = now - task.getStartedAt();
+
+                    if (cpuPool && !task.blockingReported && runningFor >= intervalNanos) {
+                        probeBlocking(pool, task, runner, runningFor);
+                    }
+                    if (runningFor >= thresholdNanos) {
+                        stalled++;
+                        if (!task.stallReported) {
+                            task.stallReported = true;
+                            reportStall(pool, task, runner, runningFor);
+                        }
+                    }
+                }
+            }
+            currentlyStalled = stalled;
+        } catch (Exception e) {
+            logger.error("Watchdog gặp lỗi khi quét executor", e);
+        }
+    }
+
+    private void reportStall(InstrumentedExecutor pool, TrackedTask task, Thread runner, long runningFor) {
+        StackTraceElement[] stack = runner.getStackTrace();
+        if (task.getRunner() != runner) return; // Tác vụ vừa xong trong lúc chụp stack
+        stalledTotal.increment();
+
+        Duration elapsed = Duration.ofNanos(runningFor);
+        logger.warn("Tác vụ trên pool '{}' đã chạy {} ms (ngưỡng {} ms) trên thread '{}': {}{}",
+                pool.getName(), elapsed.toMillis(), TimeUnit.NANOSECONDS.toMillis(thresholdNanos),
+                runner.getName(), task, format(stack));
+        if (listener != null) {
+            try {
+                listener.onStalled(pool.getName(), elapsed, stack);
+            } catch (Exception e) {
+                logger.error("SaturationListener của pool '{}' gặp lỗi", pool.getName(), e);
+            }
+        }
+    }
+
+    private void probeBlocking(InstrumentedExecutor pool, TrackedTask task, Thread runner, long runningFor) {
+        StackTraceElement[] stack = runner.getStackTrace();
+        if (task.getRunner() != runner) return;
+
+        int depth = Math.min(BLOCKING_PROBE_DEPTH, stack.length);
+        for (int i = 0; i < depth; i++) {
+            String frame = stack[i].getClassName() + "." + stack[i].getMethodName();
+            if (isBlocking(frame)) {
+                task.blockingReported = true;
+                blockingOnCpu.increment();
+                logger.warn("Phát hiện lời gọi blocking ({}) trên CPU pool, thread '{}' đã chạy {} ms. "
+                                + "Hãy chuyển tác vụ này sang ExecutorManager.io(): {}{}",
+                        frame, runner.getName(), TimeUnit.NANOSECONDS.toMillis(runningFor), task, format(stack));
+                return;
+            }
+        }
+    }
+
+    private static boolean isBlocking(String frame) {
+        for (String prefix : BLOCKING_PREFIXES) {
+            if (frame.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static String format(StackTraceElement[] stack) {
+        StringBuilder sb = new StringBuilder();
+        for (StackTraceElement element : stack) {
+            sb.append(System.lineSeparator()).append("\tat ").append(element);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.dianxin.core.api.lifecycle;
+
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bọc một tác vụ gửi vào {@link InstrumentedExecutor} để đo thời gian chờ và thời gian chạy.
+ */
+final class TrackedTask implements Runnable {
+    private final Runnable delegate;
+    private final PoolMetrics metrics;
+    private final Set<TrackedTask> running;
+    private final long enqueuedAt;
+    private final TaskPriority priority;
+    private final ExecutionContext context;
+    private volatile Thread runner;
+    private volatile long startedAt;
+
+    // Chỉ được đọc/ghi bởi luồng của TaskWatchdog
+    boolean stallReported;
+    boolean blockingReported;
+
+    TrackedTask(Runnable delegate, PoolMetrics metrics, Set<TrackedTask> running, TaskPriority priority) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.running = running;
+        this.enqueuedAt = System.nanoTime();
+        this.priority = priority;
+        this.context = ExecutionContext.capture();
+    }
+
+    Runnable getDelegate() {
+        return delegate;
+    }
+
+    TaskPriority getPriority() {
+        return priority;
+    }
+
+    /** @return Hạn ảo dùng để sắp xếp trong {@link PriorityTaskQueue}. */
+    long getDeadline() {
+        return enqueuedAt + priority.agingOffsetNanos();
+    }
+
+    /** @return Thời điểm ({@link System#nanoTime()}) tác vụ bắt đầu chạy. */
+    long getStartedAt() {
+        return startedAt;
+    }
+
+    /** @return Thread đang chạy tác vụ, hoặc {@code null} nếu tác vụ chưa chạy / đã xong. */
+    Thread getRunner() {
+        return runner;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        metrics.onStart(start - enqueuedAt);
+        startedAt = start;
+        runner = Thread.currentThread();
+        running.add(this);
+        ExecutionContext.Scope scope = context != null ? context.attach() : null;
+        boolean success = false;
+        try {
+            delegate.run();
+            // submit()/invokeAll() bọc tác vụ trong FutureTask: lỗi nằm trong Future chứ không ném ra ngoài
+            success = !(delegate instanceof Future<?> future) || future.state() != Future.State.FAILED;
+        } finally {
+            if (scope != null) scope.close();
+            running.remove(this);
+            runner = null;
+            metrics.onFinish(System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Tác vụ bị bỏ khỏi hàng đợi mà không được chạy (DROP_OLDEST).
+     */
+    void discard(RejectedExecutionException cause) {
+        metrics.onReject();
+        reject(delegate, cause);
+    }
+
+    /**
+     * Hoàn tất kết quả mà người gọi đang chờ của một tác vụ sẽ không được chạy.
+     */
+    static void reject(Runnable task, RejectedExecutionException cause) {
+        if (task instanceof TrackedTask tracked) {
+            task = tracked.delegate;
+        }
+        if (task instanceof RejectableTask rejectable) {
+            rejectable.reject(cause);
+        } else if (task instanceof Future<?> future) {
+            future.cancel(false);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package com.dianxin.core.api.lifecycle;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * Bộ đếm của watchdog theo dõi tác vụ bị treo trong các pool của {@link ExecutorManager}.
+ *
+ * @param enabled          {@code false} nếu watchdog bị tắt ({@link ExecutorOptions.Builder#stallThreshold}).
+ * @param stalledTotal     Tổng số lần một tác vụ chạy quá ngưỡng (mỗi tác vụ chỉ tính một lần).
+ * @param blockingOnCpu    Tổng số tác vụ bị phát hiện gọi I/O / chờ blocking trên CPU pool.
+ * @param currentlyStalled Số tác vụ đang chạy quá ngưỡng ở lần quét gần nhất (dùng để cảnh báo).
+ */
+@ReleasedSince("2.2")
+public record WatchdogStats(boolean enabled, long stalledTotal, long blockingOnCpu, int currentlyStalled) {
+
+    static final WatchdogStats DISABLED = new WatchdogStats(false, 0, 0, 0);
+}
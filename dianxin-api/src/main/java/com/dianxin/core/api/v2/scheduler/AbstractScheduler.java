@@ -0,0 +1,1028 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import com.dianxin.core.api.lifecycle.ExecutionContext;
+import com.dianxin.core.api.lifecycle.ExecutorManager;
+import com.dianxin.core.api.lifecycle.RejectableTask;
+import com.dianxin.core.api.lifecycle.TaskPriority;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Phần chung của mọi {@link Scheduler}: quản lý task theo ID, chuyển tác vụ đến hạn sang CPU/IO pool
+ * và lặp lại tác vụ định kỳ.
+ * <p>
+ * Lớp con chỉ cần cung cấp "đồng hồ" qua {@link #scheduleOnClock(Runnable, long)}: gọi một callback
+ * (rất nhẹ) đúng một lần sau một khoảng thời gian. Tác vụ lặp lại được hẹn lại sau mỗi lần chạy theo
+ * mốc thời gian tuyệt đối (fixed-rate), nên không bị trôi dần như khi hẹn theo độ trễ.
+ * </p>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public abstract class AbstractScheduler implements Scheduler {
+    private static final Logger logger = LoggerFactory.getLogger(AbstractScheduler.class);
+
+    protected final Map<Integer, Task> taskMap; // Lưu trữ các task để có thể gọi hàm cancelTask(id)
+    private final Map<Object, TaskGroup> groups; // Chỉ mục phụ: chủ sở hữu -> nhóm task
+    private final Map<KeyedSlot, Debounce> debounces; // Mỗi khóa tối đa một Debounce đang chờ
+    private final Map<KeyedSlot, Throttle> throttles; // Mỗi khóa tối đa một cửa sổ throttle đang mở
+    private final Map<Long, CoalescedWakeup> wakeups; // Mốc đánh thức dùng chung của CoalescingMode.BATCH
+    private final AbstractScheduler root; // Scheduler gốc (chính nó, hoặc scheduler sinh ra view này)
+    private final Object owner; // null với scheduler gốc
+    private volatile TickLoop tickLoop; // null = tác vụ sync chạy trên CPU Pool như trước
+
+    protected AbstractScheduler() {
+        this.taskMap = new ConcurrentHashMap<>();
+        this.groups = new ConcurrentHashMap<>();
+        this.debounces = new ConcurrentHashMap<>();
+        this.throttles = new ConcurrentHashMap<>();
+        this.wakeups = new ConcurrentHashMap<>();
+        this.root = this;
+        this.owner = null;
+    }
+
+    /**
+     * View của {@code root} gắn với một chủ sở hữu: dùng chung đồng hồ và bảng task.
+     */
+    private AbstractScheduler(AbstractScheduler root, Object owner) {
+        this.taskMap = root.taskMap;
+        this.groups = root.groups;
+        this.debounces = root.debounces;
+        this.throttles = root.throttles;
+        this.wakeups = root.wakeups;
+        this.root = root;
+        this.owner = owner;
+    }
+
+    /**
+     * Hẹn gọi {@code callback} trên luồng đồng hồ sau {@code delayNanos}.
+     * <p>
+     * {@code callback} chỉ làm việc rất nhẹ (đẩy tác vụ sang pool), không bao giờ ném exception.
+     * </p>
+     *
+     * @param callback   Việc cần làm khi đến hạn.
+     * @param delayNanos Độ trễ (nano giây, {@code <= 0} nghĩa là càng sớm càng tốt).
+     * @return Handle để hủy lần hẹn.
+     * @throws RejectedExecutionException Nếu đồng hồ đã dừng (scheduler đã shutdown).
+     */
+    protected abstract TimerHandle scheduleOnClock(Runnable callback, long delayNanos);
+
+    /**
+     * Dừng luồng đồng hồ (gọi một lần từ {@link #shutdown()}).
+     */
+    protected abstract void shutdownClock();
+
+    /**
+     * Cho các tác vụ sync ({@code runTask}, {@code runTaskLater}, {@code runTaskTimer}, {@code runTaskCron})
+     * chạy tuần tự trên {@link TickLoop} thay vì CPU Pool nhiều luồng.
+     * <p>
+     * Chỉ áp dụng cho tác vụ được lên lịch sau lời gọi này. Vòng lặp do người gọi sở hữu:
+     * {@link #shutdown()} không dừng nó.
+     * </p>
+     *
+     * @param loop Vòng lặp tick đã {@link TickLoop#start() khởi động}, hoặc {@code null} để quay lại CPU Pool.
+     */
+    public void useTickLoop(@Nullable TickLoop loop) {
+        root.tickLoop = loop;
+    }
+
+    /** @return Vòng lặp tick đang dùng cho tác vụ sync, hoặc {@code null} nếu đang dùng CPU Pool. */
+    @Nullable
+    public TickLoop getTickLoop() {
+        return root.tickLoop;
+    }
+
+    /**
+     * @return Executor chạy tác vụ sync: {@link TickLoop} nếu đã cấu hình, ngược lại là CPU Pool.
+     */
+    protected Executor syncExecutor() {
+        TickLoop loop = root.tickLoop;
+        return loop != null ? loop : ExecutorManager.cpu();
+    }
+
+    /**
+     * @return Executor chạy tác vụ {@code Async} với làn ưu tiên chỉ định (mặc định là IO Pool).
+     */
+    protected Executor asyncExecutor(TaskPriority priority) {
+        return ExecutorManager.io(priority);
+    }
+
+    /**
+     * Nguồn thời gian đơn điệu của scheduler (mặc định {@link System#nanoTime()}).
+     * Mọi hạn chạy, chu kỳ và độ trễ đều được tính theo nguồn này.
+     */
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Giờ hệ thống của scheduler (mặc định {@link System#currentTimeMillis()}), dùng cho lịch cron
+     * và các mốc thời gian trả về cho người dùng.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private ZonedDateTime now(ZoneId zone) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(currentTimeMillis()), zone);
+    }
+
+    /**
+     * Bọc Runnable lại để tự động xóa khỏi Map khi chạy xong (Tránh rò rỉ bộ nhớ).
+     * Executor bỏ tác vụ mà không chạy (DROP_OLDEST, TickLoop dừng) thì xử lý như bị từ chối lúc gửi.
+     */
+    private RejectableTask wrap(Task task, Runnable run, boolean isTimer) {
+        // Chụp ngữ cảnh (trace id, guild...) của thread lên lịch để tác vụ chạy sau vẫn giữ được nó
+        Runnable bound = ExecutionContext.wrap(run);
+        return new RejectableTask() {
+            @Override
+            public void run() {
+                try {
+                    if (!task.isCancelled()) { // Nhóm có thể vừa bị hủy trong lúc tác vụ nằm trong hàng đợi
+                        bound.run();
+                    }
+                } finally {
+                    // Nếu không phải là tác vụ lặp lại (Timer), xóa nó khỏi bộ nhớ sau khi chạy xong
+                    if (!isTimer) {
+                        release(task);
+                    }
+                }
+            }
+
+            @Override
+            public void reject(@NotNull RejectedExecutionException cause) {
+                rejected(task, cause);
+            }
+        };
+    }
+
+    /**
+     * Đẩy tác vụ đến hạn vào pool. Nếu pool từ chối (hàng đợi đầy), chỉ bỏ qua lần chạy này
+     * thay vì để exception làm chết luồng đồng hồ hoặc hủy luôn Timer.
+     */
+    private void dispatch(Executor executor, Task task, Runnable wrapped) {
+        try {
+            executor.execute(wrapped);
+        } catch (RejectedExecutionException e) {
+            rejected(task, e);
+        }
+    }
+
+    private void rejected(Task task, RejectedExecutionException e) {
+        logger.warn("Task #{} bị từ chối bởi executor: {}", task.getTaskId(), e.getMessage());
+        release(task);
+        task.onRejected(e);
+    }
+
+    private <T extends Task> T register(T task) {
+        task.setClock(root);
+        task.setOnCancel(() -> release(task));
+        taskMap.put(task.getTaskId(), task);
+        if (owner != null) {
+            // compute giữ khóa của entry: không lẫn với việc gỡ nhóm rỗng hay cancelGroup đang chạy song song
+            TaskGroup group = groups.compute(owner, (key, existing) -> {
+                TaskGroup g = existing != null ? existing : new TaskGroup(key);
+                g.add(task);
+                return g;
+            });
+            task.setGroup(group);
+            if (group.isCancelled()) {
+                task.cancel(); // cancelGroup chạy đúng lúc đăng ký
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Gỡ task khỏi bảng task và khỏi nhóm; nhóm rỗng được xóa khỏi chỉ mục để không rò rỉ theo số guild.
+     */
+    private void release(Task task) {
+        taskMap.remove(task.getTaskId());
+        TaskGroup group = task.getGroup();
+        if (group != null) {
+            group.remove(task);
+            if (group.isEmpty()) {
+                groups.computeIfPresent(group.getOwner(), (key, g) -> g == group && g.isEmpty() ? null : g);
+            }
+        }
+    }
+
+    private <T extends Task> T runNow(T task, Executor executor, Runnable runnable) {
+        register(task);
+        RejectableTask wrapped = wrap(task, runnable, false);
+        FutureTask<Void> future = new DispatchedFuture(wrapped);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            return rejectOnSubmit(task, e);
+        }
+        task.setFuture(future);
+        return task;
+    }
+
+    /**
+     * Không gửi/hẹn được tác vụ vừa {@link #register đăng ký}: gỡ nó khỏi bảng task rồi báo lỗi.
+     * {@link ScheduledTask} nhận lỗi qua {@code completion()}, các Task khác nhận exception.
+     */
+    private <T extends Task> T rejectOnSubmit(T task, RejectedExecutionException e) {
+        release(task);
+        task.onRejected(e);
+        if (task instanceof ScheduledTask<?>) {
+            return task; // Lỗi đã nằm trong completion()
+        }
+        throw e;
+    }
+
+    /**
+     * FutureTask của {@code runTask}: bị executor bỏ mà không chạy thì hủy Future và báo tác vụ bị từ chối.
+     */
+    private static final class DispatchedFuture extends FutureTask<Void> implements RejectableTask {
+        private final RejectableTask body;
+
+        private DispatchedFuture(RejectableTask body) {
+            super(body, null);
+            this.body = body;
+        }
+
+        @Override
+        public void reject(@NotNull RejectedExecutionException cause) {
+            if (cancel(false)) {
+                body.reject(cause);
+            }
+        }
+    }
+
+    private <T extends Task> T runLater(T task, Executor executor, Runnable runnable, long delay, TimeUnit unit) {
+        register(task);
+        Runnable wrapped = wrap(task, runnable, false);
+        long delayNanos = unit.toNanos(delay);
+        task.setNextFireAt(nanoTime() + delayNanos);
+        try {
+            task.setTimer(scheduleOnClock(() -> {
+                task.clearNextFire();
+                dispatch(executor, task, wrapped);
+            }, delayNanos));
+        } catch (RejectedExecutionException e) {
+            return rejectOnSubmit(task, e);
+        }
+        return task;
+    }
+
+    private <T extends Task> T runTimer(T task, Executor executor, Runnable runnable, long delay, long period,
+                                        TimeUnit unit, TimerOptions options) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period phải lớn hơn 0");
+        }
+        register(task);
+        PeriodicRun run = new PeriodicRun(task, executor, wrap(task, runnable, true), options);
+        try {
+            new Repeater(run, nanoTime() + unit.toNanos(delay), unit.toNanos(period)).arm();
+        } catch (RejectedExecutionException e) {
+            return rejectOnSubmit(task, e);
+        }
+        return task;
+    }
+
+    /**
+     * Một lần chạy của tác vụ lặp lại, có áp dụng {@link OverlapPolicy} và ghi nhận {@link TaskStats}.
+     * <p>
+     * Trạng thái: {@code 0} = rảnh, {@code 1} = đang chạy, {@code 2} = đang chạy và có một lần chờ (QUEUE_ONE).
+     * </p>
+     */
+    private final class PeriodicRun {
+        private static final int IDLE = 0;
+        private static final int RUNNING = 1;
+        private static final int RUNNING_QUEUED = 2;
+
+        private final Task task;
+        private final Executor executor;
+        private final Runnable wrapped;
+        private final OverlapPolicy policy;
+        private final Task.Counters counters;
+        private final long toleranceNanos;
+        private final CoalescingMode coalescing;
+        private final long spreadOffset;
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private volatile long queuedAt;
+
+        private PeriodicRun(Task task, Executor executor, Runnable wrapped, TimerOptions options) {
+            this.task = task;
+            this.executor = executor;
+            this.wrapped = wrapped;
+            this.policy = options.getOverlapPolicy();
+            this.counters = task.enableCounters();
+            this.toleranceNanos = options.getTolerance().toNanos();
+            this.coalescing = options.getCoalescingMode();
+            this.spreadOffset = toleranceNanos > 0 ? Math.floorMod(mix(task.getTaskId()), toleranceNanos) : 0;
+        }
+
+        /**
+         * Áp dụng dung sai lên hạn chạy danh nghĩa (không bao giờ sớm hơn).
+         */
+        long adjust(long deadline) {
+            if (toleranceNanos <= 0) return deadline;
+            if (coalescing == CoalescingMode.SPREAD) return deadline + spreadOffset;
+            long rem = Math.floorMod(deadline, toleranceNanos);
+            return rem == 0 ? deadline : deadline - rem + toleranceNanos;
+        }
+
+        /**
+         * Hẹn {@code callback} vào hạn đã {@link #adjust điều chỉnh}.
+         */
+        TimerHandle schedule(Runnable callback, long deadline) {
+            if (toleranceNanos > 0 && coalescing == CoalescingMode.BATCH) {
+                return scheduleCoalesced(callback, deadline);
+            }
+            return scheduleOnClock(callback, deadline - nanoTime());
+        }
+
+        /**
+         * Gọi trên luồng đồng hồ khi đến hạn.
+         *
+         * @param dueAt Thời điểm đến hạn theo lịch ({@link #nanoTime()}).
+         */
+        void fire(long dueAt) {
+            if (task.isCancelled()) return;
+            if (policy == OverlapPolicy.CONCURRENT) {
+                if (state.getAndIncrement() > IDLE) counters.onOverrun();
+                submit(dueAt);
+                return;
+            }
+
+            while (true) {
+                int current = state.get();
+                if (current == IDLE) {
+                    if (state.compareAndSet(IDLE, RUNNING)) {
+                        submit(dueAt);
+                        return;
+                    }
+                } else if (current == RUNNING && policy == OverlapPolicy.QUEUE_ONE) {
+                    queuedAt = dueAt;
+                    if (state.compareAndSet(RUNNING, RUNNING_QUEUED)) {
+                        counters.onOverrun();
+                        return;
+                    }
+                } else {
+                    counters.onOverrun();
+                    counters.onSkipped();
+                    return;
+                }
+            }
+        }
+
+        private void submit(long dueAt) {
+            try {
+                executor.execute(new RejectableTask() {
+                    @Override
+                    public void run() {
+                        execute(dueAt);
+                    }
+
+                    @Override
+                    public void reject(@NotNull RejectedExecutionException cause) {
+                        skip(cause); // Bị bỏ khỏi hàng đợi: giải phóng trạng thái RUNNING cho lần sau
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                skip(e);
+            }
+        }
+
+        private void skip(RejectedExecutionException e) {
+            logger.warn("Task #{} bị từ chối bởi executor: {}", task.getTaskId(), e.getMessage());
+            counters.onSkipped();
+            finish();
+        }
+
+        private void execute(long dueAt) {
+            long start = nanoTime();
+            counters.onStart(start - dueAt);
+            try {
+                wrapped.run();
+            } finally {
+                counters.onFinish(nanoTime() - start);
+                finish();
+            }
+        }
+
+        private void finish() {
+            if (policy == OverlapPolicy.CONCURRENT) {
+                state.decrementAndGet();
+                return;
+            }
+            while (true) {
+                int current = state.get();
+                if (current == RUNNING_QUEUED) {
+                    if (state.compareAndSet(RUNNING_QUEUED, RUNNING)) {
+                        if (task.isCancelled()) {
+                            state.set(IDLE);
+                        } else {
+                            submit(queuedAt);
+                        }
+                        return;
+                    }
+                } else if (state.compareAndSet(current, IDLE)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tác vụ lặp lại theo chu kỳ cố định: mỗi lần đến hạn thì đẩy sang pool rồi tự hẹn lần kế tiếp.
+     */
+    private final class Repeater implements Runnable {
+        private final PeriodicRun run;
+        private final long periodNanos;
+        private long nextFireAt; // Hạn danh nghĩa, tăng đều theo chu kỳ
+        private long firingAt; // Hạn thực tế sau khi áp dụng dung sai
+
+        private Repeater(PeriodicRun run, long firstFireAt, long periodNanos) {
+            this.run = run;
+            this.nextFireAt = firstFireAt;
+            this.periodNanos = periodNanos;
+        }
+
+        private void arm() {
+            if (run.task.isCancelled()) return;
+            firingAt = run.adjust(nextFireAt);
+            run.task.setNextFireAt(firingAt);
+            run.task.setTimer(run.schedule(this, firingAt));
+        }
+
+        @Override
+        public void run() {
+            if (run.task.isCancelled()) return;
+            run.fire(firingAt);
+            nextFireAt += periodNanos;
+            arm();
+        }
+    }
+
+    private <T extends Task> T runCron(T task, Executor executor, String expression, ZoneId zone, Runnable runnable,
+                                       TimerOptions options) {
+        CronExpression cron = CronExpression.parse(expression);
+        register(task);
+        PeriodicRun run = new PeriodicRun(task, executor, wrap(task, runnable, true), options);
+        try {
+            new CronRepeater(run, cron, now(zone)).arm();
+        } catch (RejectedExecutionException e) {
+            return rejectOnSubmit(task, e);
+        }
+        return task;
+    }
+
+    /**
+     * Tác vụ theo lịch cron: thời điểm kế tiếp được tính từ lần chạy trước (theo đồng hồ thật),
+     * nên đồng hồ hẹn giờ có chạy sớm/trễ vài ms cũng không làm lệch lịch.
+     */
+    private final class CronRepeater implements Runnable {
+        private final PeriodicRun run;
+        private final CronExpression cron;
+        private ZonedDateTime lastFire;
+        private ZonedDateTime nextFire;
+        private long nextFireAt;
+
+        private CronRepeater(PeriodicRun run, CronExpression cron, ZonedDateTime start) {
+            this.run = run;
+            this.cron = cron;
+            this.lastFire = start;
+        }
+
+        private void arm() {
+            Task task = run.task;
+            if (task.isCancelled()) return;
+            ZonedDateTime now = now(lastFire.getZone());
+            nextFire = cron.next(now.isAfter(lastFire) ? now : lastFire);
+            if (nextFire == null) {
+                logger.warn("Biểu thức {} của task #{} không còn thời điểm nào hợp lệ, dừng lặp", cron, task.getTaskId());
+                release(task);
+                task.onFinished();
+                return;
+            }
+            long delayNanos = Duration.between(now, nextFire).toNanos();
+            nextFireAt = run.adjust(nanoTime() + delayNanos);
+            task.setNextFireAt(nextFireAt);
+            task.setTimer(run.schedule(this, nextFireAt));
+        }
+
+        @Override
+        public void run() {
+            if (run.task.isCancelled()) return;
+            if (now(nextFire.getZone()).isBefore(nextFire)) {
+                arm(); // Đồng hồ báo sớm hơn đồng hồ thật (lệch giữa nanoTime và giờ hệ thống): hẹn lại
+                return;
+            }
+            run.fire(nextFireAt);
+            lastFire = nextFire;
+            arm();
+        }
+    }
+
+    /**
+     * Hẹn {@code callback} vào mốc {@code deadline} (đã làm tròn theo lưới dung sai), dùng chung một lần
+     * đánh thức với mọi callback khác có cùng mốc.
+     */
+    private TimerHandle scheduleCoalesced(Runnable callback, long deadline) {
+        CoalescedEntry entry = new CoalescedEntry(callback);
+        while (true) {
+            CoalescedWakeup wakeup = wakeups.computeIfAbsent(deadline, CoalescedWakeup::new);
+            if (wakeup.add(entry)) {
+                return entry;
+            }
+            wakeups.remove(deadline, wakeup); // Mốc vừa chạy xong: tạo mốc mới
+        }
+    }
+
+    /**
+     * Một lần đánh thức dùng chung: khi đến hạn, gọi lần lượt các callback chưa bị hủy (mỗi callback chỉ
+     * đẩy tác vụ sang pool nên rất nhẹ).
+     */
+    private final class CoalescedWakeup implements Runnable {
+        private final long deadline;
+        private final List<CoalescedEntry> entries = new ArrayList<>();
+        private boolean armed;
+        private boolean closed;
+
+        private CoalescedWakeup(long deadline) {
+            this.deadline = deadline;
+        }
+
+        private boolean add(CoalescedEntry entry) {
+            synchronized (this) {
+                if (closed) return false;
+                entries.add(entry);
+                if (armed) return true;
+                armed = true;
+            }
+            scheduleOnClock(this, deadline - nanoTime());
+            return true;
+        }
+
+        @Override
+        public void run() {
+            wakeups.remove(deadline, this);
+            List<CoalescedEntry> batch;
+            synchronized (this) {
+                closed = true;
+                batch = new ArrayList<>(entries);
+                entries.clear();
+            }
+            for (CoalescedEntry entry : batch) {
+                if (!entry.cancelled) {
+                    entry.callback.run();
+                }
+            }
+        }
+    }
+
+    private static final class CoalescedEntry implements TimerHandle {
+        private final Runnable callback;
+        private volatile boolean cancelled;
+
+        private CoalescedEntry(Runnable callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public boolean cancel() {
+            boolean was = cancelled;
+            cancelled = true;
+            return !was;
+        }
+    }
+
+    /** Trộn bit (SplitMix64) để độ lệch SPREAD phân bố đều dù ID task liên tiếp. */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * Khóa của debounce/throttle, tách theo chủ sở hữu để hai guild dùng cùng một khóa không đè lên nhau.
+     */
+    private record KeyedSlot(Object owner, Object key) { }
+
+    private boolean debounce(boolean sync, Executor executor, Object key, long delay, TimeUnit unit, Runnable runnable) {
+        KeyedSlot slot = new KeyedSlot(owner, Objects.requireNonNull(key, "key"));
+        Runnable bound = ExecutionContext.wrap(runnable);
+        long deadline = nanoTime() + unit.toNanos(delay);
+        boolean[] created = {false};
+        Debounce pending = debounces.compute(slot, (k, existing) -> {
+            Debounce d = existing;
+            if (d == null || d.task.isCancelled()) {
+                d = new Debounce(slot, register(new Task(sync)), executor);
+                created[0] = true;
+            }
+            d.action = bound;
+            d.deadline = deadline;
+            return d;
+        });
+        if (created[0]) {
+            pending.arm();
+        }
+        return created[0];
+    }
+
+    /**
+     * Một đợt debounce của một khóa. Mỗi lần gọi lại chỉ dời {@link #deadline}; timer không bị tạo lại
+     * mà khi đến hạn cũ sẽ tự hẹn tiếp đến hạn mới, nên một loạt N lần gọi chỉ tốn vài lần hẹn giờ.
+     */
+    private final class Debounce implements Runnable {
+        private final KeyedSlot slot;
+        private final Task task;
+        private final Executor executor;
+        private volatile Runnable action;
+        private volatile long deadline;
+
+        private Debounce(KeyedSlot slot, Task task, Executor executor) {
+            this.slot = slot;
+            this.task = task;
+            this.executor = executor;
+            task.setOnCancel(() -> {
+                release(task);
+                debounces.remove(slot, this);
+            });
+        }
+
+        private void arm() {
+            long at = deadline;
+            task.setNextFireAt(at);
+            task.setTimer(scheduleOnClock(this, at - nanoTime()));
+        }
+
+        @Override
+        public void run() {
+            if (task.isCancelled()) return;
+            boolean[] fire = {false};
+            // Quyết định trong compute để không lẫn với lời gọi debounce() đang dời hạn
+            debounces.computeIfPresent(slot, (k, d) -> {
+                if (d != this) return d;
+                if (deadline - nanoTime() > 0) return d;
+                fire[0] = true;
+                return null;
+            });
+            if (fire[0]) {
+                task.clearNextFire();
+                dispatch(executor, task, wrap(task, action, false));
+            } else if (!task.isCancelled()) {
+                arm();
+            }
+        }
+    }
+
+    private boolean throttle(boolean sync, Executor executor, Object key, long interval, TimeUnit unit, Runnable runnable) {
+        long intervalNanos = unit.toNanos(interval);
+        if (intervalNanos <= 0) {
+            throw new IllegalArgumentException("interval phải lớn hơn 0");
+        }
+        KeyedSlot slot = new KeyedSlot(owner, Objects.requireNonNull(key, "key"));
+        Runnable bound = ExecutionContext.wrap(runnable);
+        boolean[] leading = {false};
+        Throttle opened = throttles.compute(slot, (k, existing) -> {
+            if (existing == null || existing.task.isCancelled()) {
+                leading[0] = true;
+                return new Throttle(slot, register(new Task(sync)), executor, intervalNanos);
+            }
+            existing.pending = bound; // Chỉ giữ lần gọi mới nhất cho cuối cửa sổ
+            return existing;
+        });
+        if (leading[0]) {
+            opened.start(bound);
+        }
+        return leading[0];
+    }
+
+    /**
+     * Một cửa sổ throttle của một khóa: lần gọi đầu chạy ngay, các lần gọi trong cửa sổ gộp lại
+     * thành một lần chạy (với tác vụ mới nhất) khi cửa sổ đóng. Cửa sổ tự đóng khi không còn gì để chạy.
+     */
+    private final class Throttle implements Runnable {
+        private final KeyedSlot slot;
+        private final Task task;
+        private final Executor executor;
+        private final long intervalNanos;
+        private volatile Runnable pending;
+        private long windowEnd; // Chỉ luồng mở cửa sổ và luồng đồng hồ ghi, tuần tự theo timer
+
+        private Throttle(KeyedSlot slot, Task task, Executor executor, long intervalNanos) {
+            this.slot = slot;
+            this.task = task;
+            this.executor = executor;
+            this.intervalNanos = intervalNanos;
+            task.setOnCancel(() -> {
+                release(task);
+                throttles.remove(slot, this);
+            });
+        }
+
+        private void start(Runnable first) {
+            dispatch(executor, task, wrap(task, first, true));
+            windowEnd = nanoTime() + intervalNanos;
+            arm();
+        }
+
+        private void arm() {
+            task.setNextFireAt(windowEnd);
+            task.setTimer(scheduleOnClock(this, windowEnd - nanoTime()));
+        }
+
+        @Override
+        public void run() {
+            if (task.isCancelled()) return;
+            Runnable[] toRun = {null};
+            throttles.computeIfPresent(slot, (k, t) -> {
+                if (t != this) return t;
+                toRun[0] = pending;
+                pending = null;
+                return toRun[0] != null ? t : null; // Không còn lần gọi nào: đóng cửa sổ
+            });
+            if (toRun[0] == null) {
+                release(task);
+                return;
+            }
+            dispatch(executor, task, wrap(task, toRun[0], true));
+            windowEnd = nanoTime() + intervalNanos;
+            arm();
+        }
+    }
+
+    @Override
+    public Task runTask(Runnable runnable) {
+        // Đẩy vào main tick (nếu có) hoặc CPU Pool chạy ngay lập tức
+        return runNow(new Task(true), syncExecutor(), runnable);
+    }
+
+    @Override
+    public Task runTaskAsync(Runnable runnable) {
+        return runTaskAsync(runnable, TaskPriority.NORMAL);
+    }
+
+    @Override
+    public Task runTaskAsync(Runnable runnable, TaskPriority priority) {
+        // Đẩy thẳng vào IO Pool chạy ngay lập tức
+        return runNow(new Task(false), asyncExecutor(priority), runnable);
+    }
+
+    @Override
+    public Task runTaskLater(Runnable runnable, long delay, TimeUnit unit) {
+        // Hẹn giờ, khi hết giờ thì nhét vào main tick / CPU Pool
+        return runLater(new Task(true), syncExecutor(), runnable, delay, unit);
+    }
+
+    @Override
+    public Task runTaskLaterAsync(Runnable runnable, long delay, TimeUnit unit) {
+        return runTaskLaterAsync(runnable, delay, unit, TaskPriority.NORMAL);
+    }
+
+    @Override
+    public Task runTaskLaterAsync(Runnable runnable, long delay, TimeUnit unit, TaskPriority priority) {
+        // Hẹn giờ, khi hết giờ thì nhét vào IO Pool
+        return runLater(new Task(false), asyncExecutor(priority), runnable, delay, unit);
+    }
+
+    @Override
+    public Task runTaskTimer(Runnable runnable, long delay, long period, TimeUnit unit) {
+        return runTaskTimer(runnable, delay, period, unit, TimerOptions.defaults());
+    }
+
+    @Override
+    public Task runTaskTimer(Runnable runnable, long delay, long period, TimeUnit unit, TimerOptions options) {
+        return runTimer(new Task(true), syncExecutor(), runnable, delay, period, unit, options);
+    }
+
+    @Override
+    public Task runTaskTimerAsync(Runnable runnable, long delay, long period, TimeUnit unit) {
+        return runTaskTimerAsync(runnable, delay, period, unit, TimerOptions.defaults());
+    }
+
+    @Override
+    public Task runTaskTimerAsync(Runnable runnable, long delay, long period, TimeUnit unit, TaskPriority priority) {
+        return runTaskTimerAsync(runnable, delay, period, unit, TimerOptions.builder().priority(priority).build());
+    }
+
+    @Override
+    public Task runTaskTimerAsync(Runnable runnable, long delay, long period, TimeUnit unit, TimerOptions options) {
+        return runTimer(new Task(false), asyncExecutor(options.getPriority()), runnable, delay, period, unit, options);
+    }
+
+    @Override
+    public Task runTaskCron(String expression, ZoneId zone, Runnable runnable) {
+        return runTaskCron(expression, zone, runnable, TimerOptions.defaults());
+    }
+
+    @Override
+    public Task runTaskCron(String expression, ZoneId zone, Runnable runnable, TimerOptions options) {
+        return runCron(new Task(true), syncExecutor(), expression, zone, runnable, options);
+    }
+
+    @Override
+    public Task runTaskCronAsync(String expression, ZoneId zone, Runnable runnable) {
+        return runTaskCronAsync(expression, zone, runnable, TimerOptions.defaults());
+    }
+
+    @Override
+    public Task runTaskCronAsync(String expression, ZoneId zone, Runnable runnable, TaskPriority priority) {
+        return runTaskCronAsync(expression, zone, runnable, TimerOptions.builder().priority(priority).build());
+    }
+
+    @Override
+    public Task runTaskCronAsync(String expression, ZoneId zone, Runnable runnable, TimerOptions options) {
+        return runCron(new Task(false), asyncExecutor(options.getPriority()), expression, zone, runnable, options);
+    }
+
+    @Override
+    public <T> ScheduledTask<T> callTask(Callable<T> callable) {
+        ScheduledTask<T> task = new ScheduledTask<>(true, false);
+        return runNow(task, syncExecutor(), task.bind(callable));
+    }
+
+    @Override
+    public <T> ScheduledTask<T> callTaskAsync(Callable<T> callable, TaskPriority priority) {
+        ScheduledTask<T> task = new ScheduledTask<>(false, false);
+        return runNow(task, asyncExecutor(priority), task.bind(callable));
+    }
+
+    @Override
+    public <T> ScheduledTask<T> callTaskLater(Callable<T> callable, long delay, TimeUnit unit) {
+        ScheduledTask<T> task = new ScheduledTask<>(true, false);
+        return runLater(task, syncExecutor(), task.bind(callable), delay, unit);
+    }
+
+    @Override
+    public <T> ScheduledTask<T> callTaskLaterAsync(Callable<T> callable, long delay, TimeUnit unit, TaskPriority priority) {
+        ScheduledTask<T> task = new ScheduledTask<>(false, false);
+        return runLater(task, asyncExecutor(priority), task.bind(callable), delay, unit);
+    }
+
+    @Override
+    public <T> ScheduledTask<T> callTaskTimer(Callable<T> callable, long delay, long period, TimeUnit unit,
+                                              TimerOptions options) {
+        ScheduledTask<T> task = new ScheduledTask<>(true, true);
+        return runTimer(task, syncExecutor(), task.bind(callable), delay, period, unit, options);
+    }
+
+    @Override
+    public <T> ScheduledTask<T> callTaskTimerAsync(Callable<T> callable, long delay, long period, TimeUnit unit,
+                                                   TimerOptions options) {
+        ScheduledTask<T> task = new ScheduledTask<>(false, true);
+        return runTimer(task, asyncExecutor(options.getPriority()), task.bind(callable), delay, period, unit, options);
+    }
+
+    @Override
+    public <T> ScheduledTask<T> callTaskCron(String expression, ZoneId zone, Callable<T> callable, TimerOptions options) {
+        ScheduledTask<T> task = new ScheduledTask<>(true, true);
+        return runCron(task, syncExecutor(), expression, zone, task.bind(callable), options);
+    }
+
+    @Override
+    public <T> ScheduledTask<T> callTaskCronAsync(String expression, ZoneId zone, Callable<T> callable, TimerOptions options) {
+        ScheduledTask<T> task = new ScheduledTask<>(false, true);
+        return runCron(task, asyncExecutor(options.getPriority()), expression, zone, task.bind(callable), options);
+    }
+
+    @Override
+    public boolean debounce(@NotNull Object key, long delay, TimeUnit unit, Runnable runnable) {
+        return debounce(true, syncExecutor(), key, delay, unit, runnable);
+    }
+
+    @Override
+    public boolean debounceAsync(@NotNull Object key, long delay, TimeUnit unit, Runnable runnable) {
+        return debounce(false, asyncExecutor(TaskPriority.NORMAL), key, delay, unit, runnable);
+    }
+
+    @Override
+    public boolean throttle(@NotNull Object key, long interval, TimeUnit unit, Runnable runnable) {
+        return throttle(true, syncExecutor(), key, interval, unit, runnable);
+    }
+
+    @Override
+    public boolean throttleAsync(@NotNull Object key, long interval, TimeUnit unit, Runnable runnable) {
+        return throttle(false, asyncExecutor(TaskPriority.NORMAL), key, interval, unit, runnable);
+    }
+
+    @Override
+    public Scheduler forOwner(@NotNull Object owner) {
+        Objects.requireNonNull(owner, "owner");
+        if (owner.equals(this.owner)) return this;
+        return new OwnerView(root, owner);
+    }
+
+    @Override
+    public int cancelGroup(@NotNull Object owner) {
+        TaskGroup group = groups.remove(owner);
+        if (group == null) return 0;
+        int count = group.cancel();
+        logger.debug("Đã hủy {} task của {}", count, owner);
+        return count;
+    }
+
+    @Override
+    public int getGroupSize(@NotNull Object owner) {
+        TaskGroup group = groups.get(owner);
+        return group != null ? group.size() : 0;
+    }
+
+    /**
+     * @return Số task đang chờ theo từng chủ sở hữu (ảnh chụp tại thời điểm gọi).
+     */
+    public Map<Object, Integer> getGroupSizes() {
+        Map<Object, Integer> sizes = new HashMap<>();
+        groups.forEach((key, group) -> sizes.put(key, group.size()));
+        return sizes;
+    }
+
+    @Override
+    public void cancelTask(int taskId) {
+        Task task = taskMap.remove(taskId);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * @return Số task đang được quản lý (chưa chạy xong hoặc đang lặp lại).
+     *         Với view của một chủ sở hữu: số task của chủ sở hữu đó.
+     */
+    public int getPendingCount() {
+        return owner != null ? getGroupSize(owner) : taskMap.size();
+    }
+
+    @Override
+    public void shutdown() {
+        shutdownClock();
+        for (TaskGroup group : groups.values()) {
+            group.cancel();
+        }
+        groups.clear();
+        for (Task task : taskMap.values()) {
+            task.cancel();
+        }
+        taskMap.clear();
+    }
+
+    /**
+     * View của scheduler gốc cho một chủ sở hữu (xem {@link #forOwner(Object)}).
+     * {@link #shutdown()} trên view chỉ hủy nhóm task của chủ sở hữu đó, không dừng đồng hồ.
+     */
+    private static final class OwnerView extends AbstractScheduler {
+        private OwnerView(AbstractScheduler root, Object owner) {
+            super(root, owner);
+        }
+
+        @Override
+        protected TimerHandle scheduleOnClock(Runnable callback, long delayNanos) {
+            return super.root.scheduleOnClock(callback, delayNanos);
+        }
+
+        @Override
+        protected void shutdownClock() {
+            // Đồng hồ thuộc về scheduler gốc
+        }
+
+        @Override
+        protected Executor syncExecutor() {
+            return super.root.syncExecutor();
+        }
+
+        @Override
+        protected Executor asyncExecutor(TaskPriority priority) {
+            return super.root.asyncExecutor(priority);
+        }
+
+        @Override
+        protected long nanoTime() {
+            return super.root.nanoTime();
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return super.root.currentTimeMillis();
+        }
+
+        @Override
+        public void shutdown() {
+            cancelGroup(super.owner);
+        }
+    }
+}
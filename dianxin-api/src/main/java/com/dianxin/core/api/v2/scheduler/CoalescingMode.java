@@ -0,0 +1,23 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * Cách dùng khoảng dung sai ({@link TimerOptions.Builder#tolerance}) của tác vụ lặp lại.
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public enum CoalescingMode {
+    /**
+     * Làm tròn hạn chạy lên bội số gần nhất của dung sai. Các tác vụ có hạn rơi vào cùng một mốc
+     * dùng chung một lần đánh thức của đồng hồ và được đẩy sang pool cùng lúc.
+     * Giảm số lần đánh thức, phù hợp khi có rất nhiều timer nhỏ.
+     */
+    BATCH,
+
+    /**
+     * Dời mỗi tác vụ một độ lệch cố định trong khoảng {@code [0, dung sai)}, tính tất định từ ID của task.
+     * Hàng nghìn tác vụ cùng chu kỳ sẽ được rải đều thay vì cùng chạy một mili giây; chu kỳ của từng tác vụ không đổi.
+     */
+    SPREAD
+}
@@ -0,0 +1,259 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Biểu thức cron đã được "biên dịch" thành bitmask cho từng trường.
+ * <p>
+ * Hỗ trợ 5 trường ({@code phút giờ ngày tháng thứ}) hoặc 6 trường (thêm {@code giây} ở đầu),
+ * cùng các cú pháp {@code *}, {@code ?}, {@code a-b}, {@code a,b,c}, {@code *}{@code /n}, {@code a-b/n},
+ * tên tháng/thứ tiếng Anh ({@code JAN}, {@code MON}...) và các macro {@code @yearly}, {@code @monthly},
+ * {@code @weekly}, {@code @daily}, {@code @hourly}. Thứ: {@code 0} hoặc {@code 7} là Chủ nhật.
+ * Khi cả ngày-trong-tháng và thứ đều bị giới hạn, chỉ cần khớp một trong hai (giống cron của Unix).
+ * </p>
+ * Tìm thời điểm kế tiếp chỉ dùng các phép dịch bit (O(1) cho mỗi trường), không duyệt từng giây.
+ *
+ * <pre>{@code
+ * CronExpression daily = CronExpression.parse("0 0 * * *");        // 00:00 mỗi ngày
+ * CronExpression weekly = CronExpression.parse("0 30 20 * * SUN"); // 20:30:00 mỗi Chủ nhật
+ * }</pre>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class CronExpression {
+    private static final Map<String, String> MACROS = Map.of(
+            "@yearly", "0 0 0 1 1 *",
+            "@annually", "0 0 0 1 1 *",
+            "@monthly", "0 0 0 1 * *",
+            "@weekly", "0 0 0 * * 0",
+            "@daily", "0 0 0 * * *",
+            "@midnight", "0 0 0 * * *",
+            "@hourly", "0 0 * * * *");
+    private static final String[] MONTH_NAMES =
+            {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    /** Giới hạn số vòng tìm kiếm (biểu thức như "30 2 *" không bao giờ khớp). */
+    private static final int MAX_ITERATIONS = 8 * 366;
+
+    private final String expression;
+    private final long seconds;  // bit 0..59
+    private final long minutes;  // bit 0..59
+    private final long hours;    // bit 0..23
+    private final long days;     // bit 1..31
+    private final long months;   // bit 1..12
+    private final long weekdays; // bit 0..6 (0 = Chủ nhật)
+    private final boolean dayRestricted;
+    private final boolean weekdayRestricted;
+
+    private CronExpression(String expression, String[] fields) {
+        this.expression = expression;
+        this.seconds = parseField(fields[0], 0, 59, null);
+        this.minutes = parseField(fields[1], 0, 59, null);
+        this.hours = parseField(fields[2], 0, 23, null);
+        this.days = parseField(fields[3], 1, 31, null);
+        this.months = parseField(fields[4], 1, 12, MONTH_NAMES);
+        long dow = parseField(fields[5], 0, 7, DAY_NAMES);
+        if ((dow & (1L << 7)) != 0) dow = (dow | 1L) & ~(1L << 7); // 7 = Chủ nhật
+        this.weekdays = dow;
+        this.dayRestricted = !isWildcard(fields[3]);
+        this.weekdayRestricted = !isWildcard(fields[5]);
+    }
+
+    /**
+     * Biên dịch một biểu thức cron.
+     *
+     * @throws IllegalArgumentException Nếu biểu thức sai cú pháp hoặc dùng cú pháp không hỗ trợ ({@code L}, {@code W}, {@code #}).
+     */
+    public static CronExpression parse(@NotNull String expression) {
+        String trimmed = expression.trim();
+        String source = MACROS.getOrDefault(trimmed.toLowerCase(Locale.ROOT), trimmed);
+        String[] fields = source.split("\\s+");
+        if (fields.length == 5) {
+            String[] withSeconds = new String[6];
+            withSeconds[0] = "0";
+            System.arraycopy(fields, 0, withSeconds, 1, 5);
+            fields = withSeconds;
+        } else if (fields.length != 6) {
+            throw new IllegalArgumentException("Biểu thức cron phải có 5 hoặc 6 trường: '" + expression + "'");
+        }
+        return new CronExpression(trimmed, fields);
+    }
+
+    /**
+     * Tính thời điểm khớp kế tiếp, sau (không bao gồm) {@code after}.
+     * <p>
+     * Khi đồng hồ nhảy tới (DST), thời điểm rơi vào khoảng bị nhảy qua chạy đúng lúc nhảy giờ. Khi đồng hồ lùi lại,
+     * khoảng giờ lặp lại không chạy lần thứ hai.
+     * </p>
+     *
+     * @return Thời điểm kế tiếp, hoặc {@code null} nếu biểu thức không bao giờ khớp (ví dụ ngày 30/2).
+     */
+    public @Nullable ZonedDateTime next(@NotNull ZonedDateTime after) {
+        LocalDateTime t = after.toLocalDateTime().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            int month = nextBit(months, t.getMonthValue());
+            if (month < 0 || month > 12) {
+                t = LocalDateTime.of(t.getYear() + 1, 1, 1, 0, 0);
+                continue;
+            }
+            if (month != t.getMonthValue()) {
+                t = LocalDateTime.of(t.getYear(), month, 1, 0, 0);
+            }
+
+            int day = nextBit(dayMask(t), t.getDayOfMonth());
+            if (day < 0) {
+                t = t.toLocalDate().withDayOfMonth(1).plusMonths(1).atStartOfDay();
+                continue;
+            }
+            if (day != t.getDayOfMonth()) {
+                t = t.toLocalDate().withDayOfMonth(day).atStartOfDay();
+            }
+
+            int hour = nextBit(hours, t.getHour());
+            if (hour < 0) {
+                t = t.toLocalDate().plusDays(1).atStartOfDay();
+                continue;
+            }
+            if (hour != t.getHour()) {
+                t = t.withHour(hour).withMinute(0).withSecond(0);
+            }
+
+            int minute = nextBit(minutes, t.getMinute());
+            if (minute < 0) {
+                t = t.withMinute(0).withSecond(0).plusHours(1);
+                continue;
+            }
+            if (minute != t.getMinute()) {
+                t = t.withMinute(minute).withSecond(0);
+            }
+
+            int second = nextBit(seconds, t.getSecond());
+            if (second < 0) {
+                t = t.withSecond(0).plusMinutes(1);
+                continue;
+            }
+            t = t.withSecond(second);
+
+            ZoneOffsetTransition transition = after.getZone().getRules().getTransition(t);
+            if (transition != null && transition.isGap()) {
+                // Giờ bị nhảy qua do DST (ví dụ 02:30 không tồn tại khi 02:00 nhảy lên 03:00): chạy đúng lúc nhảy
+                // giờ (03:00), giống cron của Unix. Mọi thời điểm trong khoảng bị nhảy chỉ chạy một lần
+                return transition.getDateTimeAfter().atZone(after.getZone());
+            }
+            ZonedDateTime candidate = t.atZone(after.getZone());
+            if (candidate.isAfter(after)) return candidate;
+            ZonedDateTime later = candidate.withLaterOffsetAtOverlap();
+            if (later.isAfter(after)) return later;
+            t = t.plusSeconds(1); // Giờ lặp lại khi lùi đồng hồ: không chạy lần thứ hai
+        }
+        return null;
+    }
+
+    /**
+     * Bitmask các ngày (bit 1..31) của tháng chứa {@code t} khớp với cả trường ngày lẫn trường thứ.
+     */
+    private long dayMask(LocalDateTime t) {
+        int length = t.toLocalDate().lengthOfMonth();
+        long inMonth = ((1L << length) - 1) << 1;
+
+        // Xoay mẫu 7 bit của thứ theo thứ của ngày mùng 1, rồi lặp lại cho đủ 5 tuần
+        int firstDow = t.toLocalDate().withDayOfMonth(1).getDayOfWeek().getValue() % 7;
+        long rotated = ((weekdays >>> firstDow) | (weekdays << (7 - firstDow))) & 0x7F;
+        long byWeekday = (rotated | rotated << 7 | rotated << 14 | rotated << 21 | rotated << 28) << 1;
+
+        long mask;
+        if (dayRestricted && weekdayRestricted) {
+            mask = days | byWeekday;
+        } else if (weekdayRestricted) {
+            mask = byWeekday;
+        } else {
+            mask = days;
+        }
+        return mask & inMonth;
+    }
+
+    /** @return Bit bật đầu tiên có vị trí {@code >= from}, hoặc -1. */
+    private static int nextBit(long mask, int from) {
+        long remaining = mask & (-1L << from);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static boolean isWildcard(String field) {
+        return field.equals("*") || field.equals("?");
+    }
+
+    private static long parseField(String field, int min, int max, String[] names) {
+        long mask = 0;
+        for (String part : field.split(",")) {
+            if (part.isEmpty()) throw invalid(field);
+            int step = 1;
+            String range = part;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = parseNumber(part.substring(slash + 1), 1, max, null, field);
+                range = part.substring(0, slash);
+            }
+
+            int from;
+            int to;
+            if (range.equals("*") || range.equals("?")) {
+                from = min;
+                to = max;
+            } else {
+                int dash = range.indexOf('-');
+                if (dash >= 0) {
+                    from = parseNumber(range.substring(0, dash), min, max, names, field);
+                    to = parseNumber(range.substring(dash + 1), min, max, names, field);
+                    if (to < from) throw invalid(field);
+                } else {
+                    from = parseNumber(range, min, max, names, field);
+                    to = slash >= 0 ? max : from;
+                }
+            }
+            for (int v = from; v <= to; v += step) {
+                mask |= 1L << v;
+            }
+        }
+        return mask;
+    }
+
+    private static int parseNumber(String token, int min, int max, String[] names, String field) {
+        if (names != null) {
+            String upper = token.toUpperCase(Locale.ROOT);
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(upper)) return names == MONTH_NAMES ? i + 1 : i;
+            }
+        }
+        try {
+            int value = Integer.parseInt(token);
+            if (value < min || value > max) throw invalid(field);
+            return value;
+        } catch (NumberFormatException e) {
+            throw invalid(field);
+        }
+    }
+
+    private static IllegalArgumentException invalid(String field) {
+        return new IllegalArgumentException("Trường cron không hợp lệ: '" + field + "'");
+    }
+
+    /** @return Chuỗi biểu thức gốc. */
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return "CronExpression[" + expression + "]";
+    }
+}
@@ -0,0 +1,388 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import com.dianxin.core.api.concurrent.Backoff;
+import com.dianxin.core.api.exceptions.InvalidRegistrationNameException;
+import com.dianxin.core.api.exceptions.ServiceIsAlreadyInitException;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hẹn giờ bền vững: tác vụ được ghi vào một journal append-only trên đĩa nên không bị mất khi bot restart
+ * (temp-ban, nhắc nhở, thông báo hẹn giờ...).
+ * <p>
+ * Tác vụ không phải là một lambda mà là một cặp <b>handler id + payload (chuỗi)</b>; handler được đăng ký lại
+ * mỗi lần khởi động. Khi {@link #start()}, journal được đọc lại (chỉ tốn O(số tác vụ còn sống), không quét DB),
+ * tác vụ chưa tới hạn được hẹn lại, còn tác vụ đã quá hạn trong lúc bot tắt được chạy bù theo từng đợt nhỏ
+ * để không dội cả nghìn request vào Discord cùng lúc.
+ * </p>
+ * Ngữ nghĩa là <i>at-least-once</i>: tác vụ chỉ được đánh dấu xong sau khi handler chạy <b>thành công</b>, nên handler
+ * cần idempotent. Handler ném lỗi thì tác vụ được giữ lại và thử lại theo {@link Builder#retryBackoff(Backoff)}.
+ *
+ * <pre>{@code
+ * DurableScheduler durable = DurableScheduler.builder(ToriServices.getScheduler(), Path.of("data/tasks.journal"))
+ *         .catchUp(20, Duration.ofMillis(500))
+ *         .build();
+ * durable.registerHandler("unban", payload -> unbanService.unban(payload));
+ * durable.start();
+ *
+ * durable.schedule("unban", guildId + ":" + userId, 7, TimeUnit.DAYS);
+ * }</pre>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class DurableScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(DurableScheduler.class);
+
+    private final Scheduler scheduler;
+    private final TaskJournal journal;
+    private final int catchUpBatch;
+    private final Duration catchUpInterval;
+    private final long compactMinRecords;
+    private final Duration compactInterval;
+    private final Backoff retryBackoff;
+
+    private final Map<String, DurableTaskHandler> handlers = new ConcurrentHashMap<>();
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean closed;
+    private Task compactTask;
+
+    private record Pending(TaskJournal.Entry entry, Task task, int failures) {
+        private Pending(TaskJournal.Entry entry, Task task) {
+            this(entry, task, 0);
+        }
+    }
+
+    private DurableScheduler(Builder builder) {
+        this.scheduler = builder.scheduler;
+        this.journal = new TaskJournal(builder.journalFile, builder.syncWrites);
+        this.catchUpBatch = builder.catchUpBatch;
+        this.catchUpInterval = builder.catchUpInterval;
+        this.compactMinRecords = builder.compactMinRecords;
+        this.compactInterval = builder.compactInterval;
+        this.retryBackoff = builder.retryBackoff;
+    }
+
+    public static Builder builder(@NotNull Scheduler scheduler, @NotNull Path journalFile) {
+        return new Builder(scheduler, journalFile);
+    }
+
+    /**
+     * Đăng ký handler cho một loại tác vụ. Phải gọi trước {@link #start()} cho mọi loại tác vụ có thể còn trong journal.
+     *
+     * @param handlerId Tên loại tác vụ (không chứa khoảng trắng, không trùng).
+     * @throws InvalidRegistrationNameException Nếu tên không hợp lệ hoặc đã được đăng ký.
+     */
+    public DurableScheduler registerHandler(@NotNull String handlerId, @NotNull DurableTaskHandler handler) {
+        if (handlerId.isBlank() || handlerId.chars().anyMatch(Character::isWhitespace)) {
+            throw new InvalidRegistrationNameException("Handler id không hợp lệ: '" + handlerId + "'");
+        }
+        if (handlers.putIfAbsent(handlerId, handler) != null) {
+            throw new InvalidRegistrationNameException("Handler '" + handlerId + "' đã được đăng ký");
+        }
+        return this;
+    }
+
+    /**
+     * Đọc lại journal, hẹn lại các tác vụ còn chờ và chạy bù các tác vụ đã quá hạn.
+     *
+     * @throws ServiceIsAlreadyInitException Nếu đã gọi {@code start()} trước đó.
+     * @throws UncheckedIOException          Nếu không đọc/ghi được journal.
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            throw new ServiceIsAlreadyInitException("DurableScheduler đã được khởi động");
+        }
+
+        Map<String, TaskJournal.Entry> loaded;
+        try {
+            loaded = journal.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không thể đọc journal của DurableScheduler", e);
+        }
+
+        long now = System.currentTimeMillis();
+        List<TaskJournal.Entry> overdue = new ArrayList<>();
+        for (TaskJournal.Entry entry : loaded.values()) {
+            if (entry.dueAt() <= now) {
+                overdue.add(entry);
+            } else {
+                pending.put(entry.id(), new Pending(entry, null));
+                arm(entry, entry.dueAt() - now);
+            }
+        }
+        overdue.sort(Comparator.comparingLong(TaskJournal.Entry::dueAt));
+        for (TaskJournal.Entry entry : overdue) {
+            pending.put(entry.id(), new Pending(entry, null));
+        }
+        if (!overdue.isEmpty()) {
+            startCatchUp(overdue);
+        }
+
+        compactTask = scheduler.runTaskTimerAsync(this::compactIfNeeded,
+                compactInterval.toMillis(), compactInterval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("DurableScheduler đã nạp {} tác vụ ({} quá hạn sẽ được chạy bù)", loaded.size(), overdue.size());
+    }
+
+    /**
+     * Hẹn một tác vụ bền vững sau một khoảng thời gian.
+     *
+     * @return ID của tác vụ (dùng cho {@link #cancel(String)}).
+     */
+    public String schedule(@NotNull String handlerId, @NotNull String payload, long delay, @NotNull TimeUnit unit) {
+        return scheduleAt(handlerId, payload, Instant.now().plusMillis(unit.toMillis(delay)));
+    }
+
+    /**
+     * Hẹn một tác vụ bền vững vào một thời điểm cụ thể.
+     *
+     * @return ID của tác vụ (dùng cho {@link #cancel(String)}).
+     * @throws IllegalStateException            Nếu chưa {@link #start()} hoặc đã đóng.
+     * @throws InvalidRegistrationNameException Nếu handler chưa được đăng ký.
+     */
+    public String scheduleAt(@NotNull String handlerId, @NotNull String payload, @NotNull Instant at) {
+        ensureRunning();
+        if (!handlers.containsKey(handlerId)) {
+            throw new InvalidRegistrationNameException("Handler '" + handlerId + "' chưa được đăng ký");
+        }
+        TaskJournal.Entry entry = new TaskJournal.Entry(UUID.randomUUID().toString(), at.toEpochMilli(),
+                handlerId, Objects.requireNonNull(payload, "payload"));
+        pending.put(entry.id(), new Pending(entry, null));
+        try {
+            journal.append(entry); // Ghi đĩa trước, hẹn giờ sau: restart ngay sau dòng này vẫn không mất tác vụ
+        } catch (RuntimeException e) {
+            pending.remove(entry.id());
+            throw e;
+        }
+        arm(entry, entry.dueAt() - System.currentTimeMillis());
+        return entry.id();
+    }
+
+    /**
+     * Hủy một tác vụ chưa chạy.
+     *
+     * @return {@code true} nếu tác vụ tồn tại và đã bị hủy.
+     */
+    public boolean cancel(@NotNull String id) {
+        Pending removed = pending.remove(id);
+        if (removed == null) return false;
+        if (removed.task() != null) removed.task().cancel();
+        journal.appendDone(id);
+        return true;
+    }
+
+    /** @return Số tác vụ đang chờ (kể cả tác vụ chờ chạy bù). */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Hẹn giờ cho một tác vụ đã có trong {@code pending}. Nếu nó vừa bị hủy trong lúc hẹn thì hủy luôn lần hẹn.
+     */
+    private void arm(TaskJournal.Entry entry, long delayMillis) {
+        arm(entry, delayMillis, 0);
+    }
+
+    private void arm(TaskJournal.Entry entry, long delayMillis, int failures) {
+        Task task = scheduler.runTaskLaterAsync(() -> fire(entry.id()), Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+        if (pending.computeIfPresent(entry.id(), (id, p) -> new Pending(entry, task, failures)) == null) {
+            task.cancel();
+        }
+    }
+
+    private void fire(String id) {
+        Pending current = pending.get(id);
+        if (current == null || closed) return;
+
+        TaskJournal.Entry entry = current.entry();
+        DurableTaskHandler handler = handlers.get(entry.handlerId());
+        if (handler == null) {
+            // Giữ nguyên trong journal để lần khởi động sau (khi handler đã được đăng ký) chạy tiếp
+            logger.warn("Không có handler '{}' cho tác vụ bền vững {}, giữ lại đến lần khởi động sau",
+                    entry.handlerId(), id);
+            return;
+        }
+
+        try {
+            handler.handle(entry.payload());
+        } catch (Exception e) {
+            // Không ghi bản ghi "xong": tác vụ vẫn còn trong journal và được thử lại sau một khoảng backoff
+            int failures = current.failures() + 1;
+            long delay = TimeUnit.NANOSECONDS.toMillis(retryBackoff.delayNanos(failures));
+            logger.error("Tác vụ bền vững {} (handler '{}') gặp lỗi lần {}, thử lại sau {}ms",
+                    id, entry.handlerId(), failures, delay, e);
+            if (closed) return;
+            try {
+                arm(entry, delay, failures);
+            } catch (RuntimeException rejected) {
+                // Scheduler đã shutdown: tác vụ vẫn nằm trong journal cho lần khởi động sau
+                logger.warn("Không thể hẹn lại tác vụ bền vững {}: {}", id, rejected.getMessage());
+            }
+            return;
+        }
+        if (pending.remove(id) != null) {
+            journal.appendDone(id);
+            compactIfNeeded(compactMinRecords);
+        }
+    }
+
+    /**
+     * Chạy bù các tác vụ quá hạn theo đợt: mỗi {@code catchUpInterval} chỉ đẩy tối đa {@code catchUpBatch} tác vụ.
+     */
+    private void startCatchUp(List<TaskJournal.Entry> overdue) {
+        Queue<TaskJournal.Entry> queue = new ArrayDeque<>(overdue);
+        AtomicBoolean finished = new AtomicBoolean(false);
+        AtomicReference<Task> self = new AtomicReference<>();
+        Task timer = scheduler.runTaskTimerAsync(() -> {
+            if (finished.get()) return;
+            for (int i = 0; i < catchUpBatch; i++) {
+                TaskJournal.Entry entry;
+                synchronized (queue) {
+                    entry = queue.poll();
+                }
+                if (entry == null) {
+                    if (finished.compareAndSet(false, true)) {
+                        logger.info("DurableScheduler đã chạy bù xong {} tác vụ quá hạn", overdue.size());
+                    }
+                    Task t = self.get();
+                    if (t != null) t.cancel();
+                    return;
+                }
+                scheduler.runTaskAsync(() -> fire(entry.id()));
+            }
+        }, 0, catchUpInterval.toMillis(), TimeUnit.MILLISECONDS);
+        self.set(timer);
+        // Lần chạy đầu (delay 0) có thể đã xong trước khi self được gán: tự hủy ở đây
+        if (finished.get()) timer.cancel();
+    }
+
+    private void compactIfNeeded() {
+        compactIfNeeded(1);
+    }
+
+    private void compactIfNeeded(long minRecords) {
+        long dead = journal.getDeadRecords();
+        if (closed || dead < minRecords || dead <= pending.size()) return;
+        try {
+            journal.compact(() -> {
+                List<TaskJournal.Entry> live = new ArrayList<>(pending.size());
+                for (Pending p : pending.values()) live.add(p.entry());
+                return live;
+            });
+            logger.debug("Đã compact journal: bỏ {} bản ghi", dead);
+        } catch (UncheckedIOException e) {
+            logger.error("Compaction journal thất bại, sẽ thử lại sau", e);
+        }
+    }
+
+    /**
+     * Dừng các lần hẹn trong bộ nhớ và đóng journal. Tác vụ còn chờ vẫn nằm trong journal cho lần khởi động sau.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (compactTask != null) compactTask.cancel();
+        for (Pending p : pending.values()) {
+            if (p.task() != null) p.task().cancel();
+        }
+        pending.clear();
+        journal.close();
+    }
+
+    private void ensureRunning() {
+        if (!started.get() || closed) {
+            throw new IllegalStateException("DurableScheduler chưa được khởi động hoặc đã đóng");
+        }
+    }
+
+    public static final class Builder {
+        private final Scheduler scheduler;
+        private final Path journalFile;
+        private int catchUpBatch = 20;
+        private Duration catchUpInterval = Duration.ofMillis(500);
+        private long compactMinRecords = 1_000;
+        private Duration compactInterval = Duration.ofMinutes(10);
+        private boolean syncWrites;
+        private Backoff retryBackoff = Backoff.exponential(Duration.ofSeconds(1), Duration.ofMinutes(5));
+
+        private Builder(Scheduler scheduler, Path journalFile) {
+            this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+            this.journalFile = Objects.requireNonNull(journalFile, "journalFile");
+        }
+
+        /**
+         * Tốc độ chạy bù tác vụ quá hạn khi khởi động (mặc định: 20 tác vụ mỗi 500ms).
+         */
+        public Builder catchUp(int batch, @NotNull Duration interval) {
+            if (batch <= 0) throw new IllegalArgumentException("batch phải lớn hơn 0");
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("interval phải lớn hơn 0");
+            }
+            this.catchUpBatch = batch;
+            this.catchUpInterval = interval;
+            return this;
+        }
+
+        /**
+         * Compact ngay khi số bản ghi thừa vượt ngưỡng này (mặc định: 1000), ngoài lần kiểm tra định kỳ.
+         */
+        public Builder compactThreshold(long records) {
+            if (records <= 0) throw new IllegalArgumentException("records phải lớn hơn 0");
+            this.compactMinRecords = records;
+            return this;
+        }
+
+        /**
+         * Chu kỳ kiểm tra compaction định kỳ (mặc định: 10 phút).
+         */
+        public Builder compactInterval(@NotNull Duration interval) {
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("interval phải lớn hơn 0");
+            }
+            this.compactInterval = interval;
+            return this;
+        }
+
+        /**
+         * {@code true}: gọi fsync sau mỗi lần ghi (an toàn cả khi mất điện, chậm hơn).
+         * Mặc định chỉ ghi vào page cache của hệ điều hành, đủ an toàn khi process bị kill / restart.
+         */
+        public Builder syncWrites(boolean sync) {
+            this.syncWrites = sync;
+            return this;
+        }
+
+        /**
+         * Thời gian chờ trước khi chạy lại một tác vụ có handler ném lỗi
+         * (mặc định lũy thừa full-jitter, 1s đến tối đa 5 phút). Tác vụ được thử lại đến khi thành công hoặc bị hủy.
+         */
+        public Builder retryBackoff(@NotNull Backoff backoff) {
+            this.retryBackoff = Objects.requireNonNull(backoff, "backoff");
+            return this;
+        }
+
+        public DurableScheduler build() {
+            return new DurableScheduler(this);
+        }
+    }
+}
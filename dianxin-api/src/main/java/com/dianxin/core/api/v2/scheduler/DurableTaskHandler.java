@@ -0,0 +1,19 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * Xử lý một tác vụ bền vững (durable) khi đến hạn, xem {@link DurableScheduler}.
+ * <p>
+ * Handler phải idempotent: nếu bot tắt đột ngột khi handler đang chạy, tác vụ sẽ được chạy lại sau khi khởi động.
+ * </p>
+ */
+@ReleasedSince("2.2")
+@FunctionalInterface
+public interface DurableTaskHandler {
+
+    /**
+     * @param payload Dữ liệu đã truyền lúc hẹn (ví dụ JSON {@code {"guild":"..","user":".."}}).
+     */
+    void handle(String payload) throws Exception;
+}
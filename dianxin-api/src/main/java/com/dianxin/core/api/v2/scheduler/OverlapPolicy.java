@@ -0,0 +1,26 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * Cách xử lý khi một tác vụ lặp lại đến hạn trong lúc lần chạy trước vẫn chưa xong.
+ *
+ * @see TimerOptions.Builder#overlapPolicy(OverlapPolicy)
+ */
+@ReleasedSince("2.2")
+public enum OverlapPolicy {
+    /**
+     * Bỏ qua lần đến hạn này (tính vào {@link TaskStats#skipped()}).
+     */
+    SKIP,
+
+    /**
+     * Giữ lại tối đa một lần chạy chờ; lần đó chạy ngay khi lần trước xong. Các lần đến hạn tiếp theo bị bỏ qua.
+     */
+    QUEUE_ONE,
+
+    /**
+     * Cho phép chạy chồng lên nhau (hành vi của các phiên bản trước).
+     */
+    CONCURRENT
+}
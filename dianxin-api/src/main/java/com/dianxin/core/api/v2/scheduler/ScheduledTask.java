@@ -0,0 +1,161 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import com.dianxin.core.api.concurrent.ActionResult;
+import com.dianxin.core.api.concurrent.LazyAction;
+import com.dianxin.core.api.concurrent.ResultedAction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link Task} có trả về kết quả, tạo bởi các hàm {@code callTask...} của {@link Scheduler}.
+ * <p>
+ * Kết quả mỗi lần chạy được gói trong {@link ActionResult} (không bao giờ ném exception ra ngoài),
+ * nên có thể nối tiếp thẳng bằng {@link ResultedAction} / {@link LazyAction} mà không phải nhảy thêm một lần qua pool.
+ * </p>
+ *
+ * <pre>{@code
+ * scheduler.callTaskLaterAsync(() -> api.fetchRanking(), 5, TimeUnit.SECONDS)
+ *         .asResultedAction()
+ *         .map(Ranking::top10)
+ *         .queue(result -> ...);
+ *
+ * ScheduledTask<Integer> poll = scheduler.callTaskTimerAsync(() -> queue.size(), 0, 10, TimeUnit.SECONDS, TimerOptions.defaults());
+ * poll.nextResult().thenAccept(r -> ...); // Kết quả của lần chạy kế tiếp
+ * }</pre>
+ *
+ * @param <T> Kiểu dữ liệu trả về của mỗi lần chạy.
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class ScheduledTask<T> extends Task {
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final boolean repeating;
+    private final CompletableFuture<ActionResult<T>> completion = new CompletableFuture<>();
+    private final AtomicReference<CompletableFuture<ActionResult<T>>> next;
+    private final AtomicLong runCount = new AtomicLong();
+    private volatile long lastExecution = NEVER; // epoch millis
+    private volatile ActionResult<T> lastResult;
+
+    ScheduledTask(boolean isSync, boolean repeating) {
+        super(isSync);
+        this.repeating = repeating;
+        this.next = new AtomicReference<>(repeating ? new CompletableFuture<>() : completion);
+    }
+
+    /**
+     * Bọc {@code callable} thành Runnable ghi lại kết quả vào task này.
+     */
+    Runnable bind(Callable<T> callable) {
+        return () -> {
+            lastExecution = currentTimeMillis();
+            ActionResult<T> result;
+            try {
+                result = ActionResult.success(callable.call());
+            } catch (Throwable e) {
+                result = ActionResult.failure(e);
+            }
+            lastResult = result;
+            runCount.incrementAndGet();
+            if (repeating) {
+                next.getAndSet(new CompletableFuture<>()).complete(result);
+            } else {
+                completion.complete(result);
+            }
+        };
+    }
+
+    @Override
+    public void cancel() {
+        super.cancel();
+        ActionResult<T> cancelled = ActionResult.cancelled();
+        completion.complete(cancelled);
+        next.get().complete(cancelled);
+    }
+
+    @Override
+    void onFinished() {
+        super.onFinished();
+        // Lịch cron hết thời điểm hợp lệ: kết thúc với kết quả cuối cùng (nếu có)
+        ActionResult<T> last = lastResult;
+        completion.complete(last != null ? last : ActionResult.cancelled());
+        next.get().complete(ActionResult.cancelled());
+    }
+
+    @Override
+    void onRejected(RejectedExecutionException e) {
+        completion.complete(ActionResult.failure(e));
+    }
+
+    /** @return {@code true} nếu là tác vụ lặp lại ({@code callTaskTimer}, {@code callTaskCron}). */
+    public boolean isRepeating() {
+        return repeating;
+    }
+
+    /**
+     * Future hoàn tất khi tác vụ không còn chạy nữa.
+     * <ul>
+     * <li>Tác vụ chạy một lần: kết quả của lần chạy đó.</li>
+     * <li>Tác vụ lặp lại: {@link ActionResult#cancelled()} khi bị hủy, hoặc kết quả cuối cùng khi lịch cron kết thúc.</li>
+     * </ul>
+     */
+    @NotNull
+    public CompletableFuture<ActionResult<T>> completion() {
+        return completion;
+    }
+
+    /**
+     * Future của lần chạy kế tiếp (với tác vụ chạy một lần thì chính là {@link #completion()}).
+     * Nếu tác vụ bị hủy trước lần chạy đó, Future hoàn tất với {@link ActionResult#cancelled()}.
+     */
+    @NotNull
+    public CompletableFuture<ActionResult<T>> nextResult() {
+        CompletableFuture<ActionResult<T>> f = next.get();
+        if (isCancelled()) f.complete(ActionResult.cancelled());
+        return f;
+    }
+
+    /**
+     * @return ResultedAction đại diện cho {@link #completion()}.
+     */
+    @NotNull
+    public ResultedAction<T> asResultedAction() {
+        return ResultedAction.fromFuture(completion);
+    }
+
+    /**
+     * @return LazyAction mà mỗi lần kích hoạt sẽ chờ kết quả của lần chạy kế tiếp ({@link #nextResult()}).
+     *         Với tác vụ chạy một lần, mọi lần kích hoạt đều nhận cùng một kết quả.
+     */
+    @NotNull
+    public LazyAction<T> asLazyAction() {
+        // Bọc bằng một Future con để cancel() của LazyAction không làm hỏng Future dùng chung
+        return LazyAction.fromFuture(() -> nextResult().thenApply(r -> r));
+    }
+
+    /** @return Số lần đã chạy xong (kể cả lần bị lỗi). */
+    public long getRunCount() {
+        return runCount.get();
+    }
+
+    /** @return Thời điểm bắt đầu lần chạy gần nhất, hoặc {@code null} nếu chưa chạy lần nào. */
+    @Nullable
+    public Instant getLastExecutionTime() {
+        long at = lastExecution;
+        return at == NEVER ? null : Instant.ofEpochMilli(at);
+    }
+
+    /** @return Kết quả của lần chạy gần nhất, hoặc {@code null} nếu chưa chạy lần nào. */
+    @Nullable
+    public ActionResult<T> getLastResult() {
+        return lastResult;
+    }
+}
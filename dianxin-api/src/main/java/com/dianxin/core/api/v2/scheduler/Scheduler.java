@@ -1,5 +1,10 @@
 package com.dianxin.core.api.v2.scheduler;
 
+import com.dianxin.core.api.lifecycle.TaskPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZoneId;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -11,7 +16,7 @@ import java.util.concurrent.TimeUnit;
 public interface Scheduler {
 
     /**
-     * Chạy một task ngay lập tức trên luồng xử lý chính (Pool).
+     * Chạy một task ngay lập tức trên luồng xử lý chính (main tick nếu đã cấu hình {@link TickLoop}, ngược lại là CPU Pool).
      */
     Task runTask(Runnable runnable);
 
@@ -20,6 +25,12 @@ public interface Scheduler {
      */
     Task runTaskAsync(Runnable runnable);
 
+    /**
+     * Chạy một task bất đồng bộ trên IO Pool với làn ưu tiên chỉ định.
+     * @param priority Làn ưu tiên (xem {@link TaskPriority})
+     */
+    Task runTaskAsync(Runnable runnable, TaskPriority priority);
+
     /**
      * Chạy task sau một khoảng thời gian (Delay).
      * @param delay Thời gian chờ (tính bằng mili giây - tick = 50ms)
@@ -31,6 +42,11 @@ public interface Scheduler {
      */
     Task runTaskLaterAsync(Runnable runnable, long delay, TimeUnit unit);
 
+    /**
+     * Chạy task bất đồng bộ sau một khoảng thời gian, với làn ưu tiên chỉ định khi đến hạn.
+     */
+    Task runTaskLaterAsync(Runnable runnable, long delay, TimeUnit unit, TaskPriority priority);
+
     /**
      * Chạy task lặp đi lặp lại (Timer).
      * @param delay Thời gian chờ trước khi bắt đầu
@@ -38,11 +54,191 @@ public interface Scheduler {
      */
     Task runTaskTimer(Runnable runnable, long delay, long period, TimeUnit unit);
 
+    /**
+     * Chạy task lặp lại với cấu hình riêng (chính sách chạy chồng, ...).
+     * Số liệu chạy chồng / độ trễ xem qua {@link Task#getStats()}.
+     */
+    Task runTaskTimer(Runnable runnable, long delay, long period, TimeUnit unit, TimerOptions options);
+
     /**
      * Chạy task lặp lại bất đồng bộ.
      */
     Task runTaskTimerAsync(Runnable runnable, long delay, long period, TimeUnit unit);
 
+    /**
+     * Chạy task lặp lại bất đồng bộ với làn ưu tiên chỉ định (ví dụ {@link TaskPriority#BULK} cho job định kỳ).
+     */
+    Task runTaskTimerAsync(Runnable runnable, long delay, long period, TimeUnit unit, TaskPriority priority);
+
+    /**
+     * Chạy task lặp lại bất đồng bộ với cấu hình riêng (chính sách chạy chồng, làn ưu tiên...).
+     */
+    Task runTaskTimerAsync(Runnable runnable, long delay, long period, TimeUnit unit, TimerOptions options);
+
+    /**
+     * Chạy task trên CPU Pool theo lịch cron (ví dụ {@code "0 0 * * *"} = 00:00 mỗi ngày).
+     * Thời điểm kế tiếp luôn được tính lại theo lịch nên không bị trôi, kể cả qua các lần đổi giờ DST.
+     *
+     * @param expression Biểu thức cron (xem {@link CronExpression}).
+     * @param zone       Múi giờ dùng để hiểu biểu thức.
+     * @throws IllegalArgumentException Nếu biểu thức không hợp lệ.
+     */
+    Task runTaskCron(String expression, ZoneId zone, Runnable runnable);
+
+    /**
+     * Chạy task trên CPU Pool theo lịch cron với cấu hình riêng.
+     */
+    Task runTaskCron(String expression, ZoneId zone, Runnable runnable, TimerOptions options);
+
+    /**
+     * Chạy task bất đồng bộ (IO Pool) theo lịch cron.
+     */
+    Task runTaskCronAsync(String expression, ZoneId zone, Runnable runnable);
+
+    /**
+     * Chạy task bất đồng bộ theo lịch cron với làn ưu tiên chỉ định.
+     */
+    Task runTaskCronAsync(String expression, ZoneId zone, Runnable runnable, TaskPriority priority);
+
+    /**
+     * Chạy task bất đồng bộ theo lịch cron với cấu hình riêng.
+     */
+    Task runTaskCronAsync(String expression, ZoneId zone, Runnable runnable, TimerOptions options);
+
+    // =========================================================================
+    // Tác vụ có kết quả (Callable)
+    // =========================================================================
+
+    /**
+     * Chạy ngay một tác vụ có kết quả trên luồng xử lý chính.
+     * Kết quả lấy qua {@link ScheduledTask#completion()} hoặc {@link ScheduledTask#asResultedAction()}.
+     * Nếu pool từ chối, kết quả là FAILURE thay vì ném exception.
+     */
+    <T> ScheduledTask<T> callTask(Callable<T> callable);
+
+    /**
+     * Chạy ngay một tác vụ có kết quả trên IO Pool.
+     */
+    default <T> ScheduledTask<T> callTaskAsync(Callable<T> callable) {
+        return callTaskAsync(callable, TaskPriority.NORMAL);
+    }
+
+    /**
+     * Chạy ngay một tác vụ có kết quả trên IO Pool với làn ưu tiên chỉ định.
+     */
+    <T> ScheduledTask<T> callTaskAsync(Callable<T> callable, TaskPriority priority);
+
+    /**
+     * Chạy tác vụ có kết quả trên luồng xử lý chính sau một khoảng thời gian.
+     */
+    <T> ScheduledTask<T> callTaskLater(Callable<T> callable, long delay, TimeUnit unit);
+
+    /**
+     * Chạy tác vụ có kết quả trên IO Pool sau một khoảng thời gian.
+     */
+    default <T> ScheduledTask<T> callTaskLaterAsync(Callable<T> callable, long delay, TimeUnit unit) {
+        return callTaskLaterAsync(callable, delay, unit, TaskPriority.NORMAL);
+    }
+
+    /**
+     * Chạy tác vụ có kết quả trên IO Pool sau một khoảng thời gian, với làn ưu tiên chỉ định.
+     */
+    <T> ScheduledTask<T> callTaskLaterAsync(Callable<T> callable, long delay, TimeUnit unit, TaskPriority priority);
+
+    /**
+     * Chạy lặp lại một tác vụ có kết quả; kết quả từng lần lấy qua {@link ScheduledTask#nextResult()}.
+     */
+    <T> ScheduledTask<T> callTaskTimer(Callable<T> callable, long delay, long period, TimeUnit unit, TimerOptions options);
+
+    /**
+     * Chạy lặp lại một tác vụ có kết quả trên IO Pool.
+     */
+    <T> ScheduledTask<T> callTaskTimerAsync(Callable<T> callable, long delay, long period, TimeUnit unit, TimerOptions options);
+
+    /**
+     * Chạy tác vụ có kết quả trên luồng xử lý chính theo lịch cron.
+     */
+    <T> ScheduledTask<T> callTaskCron(String expression, ZoneId zone, Callable<T> callable, TimerOptions options);
+
+    /**
+     * Chạy tác vụ có kết quả trên IO Pool theo lịch cron.
+     */
+    <T> ScheduledTask<T> callTaskCronAsync(String expression, ZoneId zone, Callable<T> callable, TimerOptions options);
+
+    // =========================================================================
+    // Debounce / Throttle theo khóa
+    // =========================================================================
+
+    /**
+     * Chạy {@code runnable} sau {@code delay} kể từ lần gọi <b>cuối cùng</b> với cùng {@code key}.
+     * Một loạt lời gọi dồn dập chỉ dẫn đến một lần chạy (với {@code runnable} của lời gọi cuối).
+     *
+     * <pre>{@code
+     * // Lưu config 2 giây sau lần chỉnh sửa cuối cùng
+     * scheduler.debounceAsync("config:" + guildId, 2, TimeUnit.SECONDS, () -> saveConfig(guildId));
+     * }</pre>
+     *
+     * @return {@code true} nếu lời gọi này mở một đợt mới, {@code false} nếu được gộp vào đợt đang chờ.
+     */
+    boolean debounce(@NotNull Object key, long delay, TimeUnit unit, Runnable runnable);
+
+    /**
+     * Giống {@link #debounce(Object, long, TimeUnit, Runnable)} nhưng chạy trên IO Pool.
+     */
+    boolean debounceAsync(@NotNull Object key, long delay, TimeUnit unit, Runnable runnable);
+
+    /**
+     * Chạy {@code runnable} tối đa một lần mỗi {@code interval} cho cùng {@code key}.
+     * Lời gọi đầu tiên chạy ngay; các lời gọi trong khoảng chờ được gộp thành một lần chạy
+     * (với {@code runnable} mới nhất) khi hết khoảng chờ.
+     *
+     * <pre>{@code
+     * // Cập nhật presence tối đa mỗi 15 giây
+     * scheduler.throttleAsync("presence", 15, TimeUnit.SECONDS, this::updatePresence);
+     * }</pre>
+     *
+     * @return {@code true} nếu chạy ngay, {@code false} nếu được hoãn đến cuối khoảng chờ.
+     */
+    boolean throttle(@NotNull Object key, long interval, TimeUnit unit, Runnable runnable);
+
+    /**
+     * Giống {@link #throttle(Object, long, TimeUnit, Runnable)} nhưng chạy trên IO Pool.
+     */
+    boolean throttleAsync(@NotNull Object key, long interval, TimeUnit unit, Runnable runnable);
+
+    // =========================================================================
+    // Nhóm task theo chủ sở hữu
+    // =========================================================================
+
+    /**
+     * Lấy một view của scheduler này mà mọi task tạo qua nó đều thuộc nhóm của {@code owner}
+     * (guild id, module, phiên chơi...). View dùng chung đồng hồ và pool với scheduler gốc.
+     *
+     * <pre>{@code
+     * Scheduler guildScheduler = scheduler.forOwner(guild.getIdLong());
+     * guildScheduler.runTaskTimerAsync(...);
+     *
+     * // Khi bot rời guild
+     * scheduler.cancelGroup(guild.getIdLong());
+     * }</pre>
+     *
+     * @param owner Khóa chủ sở hữu (so sánh bằng {@code equals}/{@code hashCode}).
+     */
+    Scheduler forOwner(@NotNull Object owner);
+
+    /**
+     * Hủy toàn bộ task của {@code owner}. Các task lập tức được coi là đã hủy (kể cả task đang nằm trong hàng đợi),
+     * sau đó timer của chúng được gỡ. Task tạo mới sau lời gọi này thuộc một nhóm mới.
+     *
+     * @return Số task bị hủy.
+     */
+    int cancelGroup(@NotNull Object owner);
+
+    /**
+     * @return Số task đang chờ/đang lặp lại của {@code owner}.
+     */
+    int getGroupSize(@NotNull Object owner);
+
     /**
      * Hủy một task dựa trên ID.
      */
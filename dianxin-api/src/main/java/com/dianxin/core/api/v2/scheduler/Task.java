@@ -1,15 +1,29 @@
 package com.dianxin.core.api.v2.scheduler;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @SuppressWarnings("unused")
 public class Task {
     private static final AtomicInteger idCounter = new AtomicInteger(0);
+    private static final long NO_FIRE = Long.MIN_VALUE;
 
     private final int taskId;
     private final boolean isSync;
-    private Future<?> future;
+    private volatile Future<?> future;
+    private volatile TimerHandle timer;
+    private volatile boolean cancelled;
+    private volatile Runnable onCancel;
+    private volatile Counters counters;
+    private volatile long nextFireAt = NO_FIRE; // Theo nguồn thời gian của scheduler
+    private volatile TaskGroup group;
+    private volatile AbstractScheduler clock; // Nguồn thời gian của scheduler đã nhận task (null = đồng hồ hệ thống)
 
     public Task(boolean isSync) {
         this.taskId = idCounter.incrementAndGet();
@@ -24,16 +38,164 @@ public class Task {
         return isSync;
     }
 
+    /**
+     * @return {@code true} nếu task đã bị hủy, hoặc nhóm chủ sở hữu của nó đã bị hủy
+     *         ({@link Scheduler#cancelGroup(Object)}).
+     */
+    public boolean isCancelled() {
+        if (cancelled) return true;
+        TaskGroup g = group;
+        return g != null && g.isCancelled();
+    }
+
+    /**
+     * @return Chủ sở hữu của task (xem {@link Scheduler#forOwner(Object)}), hoặc {@code null} nếu không thuộc nhóm nào.
+     */
+    @Nullable
+    public Object getOwner() {
+        TaskGroup g = group;
+        return g != null ? g.getOwner() : null;
+    }
+
     /**
      * Hủy tác vụ. Nếu tác vụ đang chạy, nó sẽ cố gắng ngắt (interrupt) luồng.
+     * Với tác vụ lặp lại, các lần chạy sau sẽ không được hẹn nữa.
      */
     public void cancel() {
-        if (future != null && !future.isCancelled() && !future.isDone()) {
-            future.cancel(true);
+        if (cancelled) return;
+        cancelled = true;
+
+        TimerHandle t = timer;
+        if (t != null) {
+            t.cancel();
+        }
+        Future<?> f = future;
+        if (f != null && !f.isCancelled() && !f.isDone()) {
+            f.cancel(true);
+        }
+        Runnable hook = onCancel;
+        if (hook != null) {
+            hook.run();
         }
     }
 
+    /**
+     * @return Thời điểm (ước tính theo đồng hồ hệ thống) lần chạy kế tiếp được hẹn,
+     *         hoặc {@code null} nếu tác vụ không còn lần hẹn nào (đã chạy, đã hủy, hoặc chạy ngay).
+     */
+    @Nullable
+    public Instant getNextFireTime() {
+        long at = nextFireAt;
+        if (at == NO_FIRE || isCancelled()) return null;
+        AbstractScheduler c = clock;
+        if (c == null) return Instant.now().plusNanos(at - System.nanoTime());
+        return Instant.ofEpochMilli(c.currentTimeMillis()).plusNanos(at - c.nanoTime());
+    }
+
+    /**
+     * @return Số liệu (số lần chạy, chạy chồng, bị bỏ qua, độ trễ...) của tác vụ lặp lại;
+     *         {@link TaskStats#EMPTY} với tác vụ chạy một lần.
+     */
+    public TaskStats getStats() {
+        Counters c = counters;
+        return c != null ? c.snapshot() : TaskStats.EMPTY;
+    }
+
+    Counters enableCounters() {
+        Counters c = new Counters();
+        this.counters = c;
+        return c;
+    }
+
     protected void setFuture(Future<?> future) {
         this.future = future;
+        if (isCancelled()) future.cancel(true);
+    }
+
+    /**
+     * Gắn lần hẹn giờ hiện tại (tác vụ lặp lại đổi handle sau mỗi lần chạy).
+     * Nếu task đã bị hủy trong lúc hẹn, handle mới bị hủy ngay.
+     */
+    void setTimer(TimerHandle timer) {
+        this.timer = timer;
+        if (isCancelled()) timer.cancel();
+    }
+
+    void setNextFireAt(long nanoTime) {
+        this.nextFireAt = nanoTime;
+    }
+
+    void clearNextFire() {
+        this.nextFireAt = NO_FIRE;
+    }
+
+    /**
+     * Gọi khi tác vụ lặp lại tự dừng (không còn lần hẹn nào) mà không bị hủy.
+     */
+    void onFinished() {
+        clearNextFire();
+    }
+
+    /**
+     * Gọi khi executor từ chối lần chạy duy nhất của tác vụ (pool đầy hoặc đã shutdown).
+     */
+    void onRejected(RejectedExecutionException e) {
+    }
+
+    void setClock(AbstractScheduler clock) {
+        this.clock = clock;
+    }
+
+    long currentTimeMillis() {
+        AbstractScheduler c = clock;
+        return c != null ? c.currentTimeMillis() : System.currentTimeMillis();
+    }
+
+    TaskGroup getGroup() {
+        return group;
+    }
+
+    void setGroup(TaskGroup group) {
+        this.group = group;
+    }
+
+    void setOnCancel(Runnable onCancel) {
+        this.onCancel = onCancel;
+    }
+
+    /**
+     * Bộ đếm của tác vụ lặp lại (ghi từ luồng đồng hồ và luồng worker).
+     */
+    static final class Counters {
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong overruns = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong maxDrift = new AtomicLong();
+        private volatile long lastDrift;
+        private volatile long lastRun;
+
+        void onStart(long driftNanos) {
+            long drift = Math.max(0, driftNanos);
+            lastDrift = drift;
+            maxDrift.accumulateAndGet(drift, Math::max);
+        }
+
+        void onFinish(long runNanos) {
+            lastRun = runNanos;
+            runs.incrementAndGet();
+        }
+
+        void onOverrun() {
+            overruns.incrementAndGet();
+        }
+
+        void onSkipped() {
+            skipped.incrementAndGet();
+        }
+
+        TaskStats snapshot() {
+            return new TaskStats(runs.get(), overruns.get(), skipped.get(),
+                    Duration.ofNanos(lastDrift), Duration.ofNanos(maxDrift.get()), Duration.ofNanos(lastRun));
+        }
     }
 }
@@ -0,0 +1,61 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nhóm task của một chủ sở hữu (guild, module...), dùng làm chỉ mục phụ của {@link AbstractScheduler}.
+ * <p>
+ * Khi nhóm bị hủy, cờ {@link #cancelled} được bật trước: mọi task trong nhóm lập tức được coi là đã hủy
+ * ({@link Task#isCancelled()}) và không chạy thêm lần nào nữa, kể cả khi việc gỡ từng timer chưa xong.
+ * </p>
+ */
+final class TaskGroup {
+    private final Object owner;
+    private final Set<Task> tasks = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    TaskGroup(Object owner) {
+        this.owner = owner;
+    }
+
+    Object getOwner() {
+        return owner;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void add(Task task) {
+        tasks.add(task);
+    }
+
+    void remove(Task task) {
+        tasks.remove(task);
+    }
+
+    boolean isEmpty() {
+        return tasks.isEmpty();
+    }
+
+    int size() {
+        return tasks.size();
+    }
+
+    /**
+     * Bật cờ hủy rồi gỡ timer của từng task.
+     *
+     * @return Số task bị hủy.
+     */
+    int cancel() {
+        cancelled = true;
+        int count = 0;
+        for (Task task : tasks) {
+            task.cancel();
+            count++;
+        }
+        tasks.clear();
+        return count;
+    }
+}
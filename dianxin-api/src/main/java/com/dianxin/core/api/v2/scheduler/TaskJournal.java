@@ -0,0 +1,180 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Nhật ký append-only của {@link DurableScheduler}.
+ * <p>
+ * Mỗi dòng là một bản ghi, ngăn cách bằng tab:
+ * <pre>
+ * A  &lt;id&gt;  &lt;dueEpochMillis&gt;  &lt;handlerId&gt;  &lt;payload base64&gt;   (thêm tác vụ)
+ * D  &lt;id&gt;                                                     (đã chạy xong hoặc bị hủy)
+ * </pre>
+ * Dòng cuối bị ghi dở (do tắt đột ngột) được bỏ qua khi đọc lại. Compaction ghi các tác vụ còn sống
+ * ra file tạm rồi thay thế file cũ bằng một lần đổi tên nguyên tử.
+ * </p>
+ */
+final class TaskJournal implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TaskJournal.class);
+    private static final Base64.Encoder ENCODER = Base64.getEncoder();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    record Entry(String id, long dueAt, String handlerId, String payload) { }
+
+    private final Path file;
+    private final boolean sync;
+    private FileChannel channel;
+    private long deadRecords;
+
+    TaskJournal(Path file, boolean sync) {
+        this.file = file;
+        this.sync = sync;
+    }
+
+    /**
+     * Đọc lại journal, trả về các tác vụ chưa hoàn thành (theo thứ tự thêm vào).
+     */
+    synchronized Map<String, Entry> load() throws IOException {
+        Map<String, Entry> live = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            boolean complete = endsWithNewline();
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                String next = reader.readLine();
+                int lineNo = 0;
+                while ((line = next) != null) {
+                    next = reader.readLine();
+                    lineNo++;
+                    if (next == null && !complete) {
+                        // Mỗi bản ghi kết thúc bằng '\n': dòng cuối thiếu nó là bản ghi ghi dở, dù vẫn đọc được
+                        logger.warn("Bỏ qua dòng {} ghi dở ở cuối journal '{}'", lineNo, file);
+                        break;
+                    }
+                    if (line.isEmpty()) continue;
+                    String[] parts = line.split("\t", -1);
+                    try {
+                        if (parts[0].equals("A") && parts.length == 5) {
+                            String payload = new String(DECODER.decode(parts[4]), StandardCharsets.UTF_8);
+                            live.put(parts[1], new Entry(parts[1], Long.parseLong(parts[2]), parts[3], payload));
+                        } else if (parts[0].equals("D") && parts.length == 2) {
+                            live.remove(parts[1]);
+                        } else {
+                            logger.warn("Bỏ qua dòng {} không hợp lệ trong journal '{}'", lineNo, file);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Bỏ qua dòng {} bị hỏng trong journal '{}'", lineNo, file);
+                    }
+                }
+            }
+        }
+        rewrite(live.values());
+        return live;
+    }
+
+    /** @return {@code true} nếu file rỗng hoặc byte cuối là {@code '\n'}. */
+    private boolean endsWithNewline() throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size == 0) return true;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            in.read(last, size - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    synchronized void append(Entry entry) {
+        write("A\t" + entry.id() + "\t" + entry.dueAt() + "\t" + entry.handlerId() + "\t"
+                + ENCODER.encodeToString(entry.payload().getBytes(StandardCharsets.UTF_8)) + "\n");
+    }
+
+    synchronized void appendDone(String id) {
+        write("D\t" + id + "\n");
+        deadRecords += 2; // Bản ghi A và D của tác vụ này đều đã vô dụng
+    }
+
+    /** @return Số bản ghi có thể bỏ đi nếu compaction ngay bây giờ. */
+    synchronized long getDeadRecords() {
+        return deadRecords;
+    }
+
+    /**
+     * Ghi lại journal chỉ gồm các tác vụ còn sống. Danh sách được lấy bên trong lock của journal
+     * để không lọt mất tác vụ được thêm trong lúc compaction.
+     */
+    synchronized void compact(Supplier<Collection<Entry>> live) {
+        try {
+            rewrite(live.get());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không thể compact journal '" + file + "'", e);
+        }
+    }
+
+    private void rewrite(Collection<Entry> live) throws IOException {
+        closeChannel();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder sb = new StringBuilder();
+            for (Entry entry : live) {
+                sb.append("A\t").append(entry.id()).append('\t').append(entry.dueAt()).append('\t')
+                        .append(entry.handlerId()).append('\t')
+                        .append(ENCODER.encodeToString(entry.payload().getBytes(StandardCharsets.UTF_8))).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) out.write(buffer);
+            out.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deadRecords = 0;
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void write(String record) {
+        if (channel == null) {
+            throw new IllegalStateException("Journal '" + file + "' chưa được mở (chưa gọi start())");
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) channel.write(buffer);
+            if (sync) channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Không thể ghi journal '" + file + "'", e);
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            closeChannel();
+        } catch (IOException e) {
+            logger.warn("Không thể đóng journal '{}'", file, e);
+        }
+    }
+}
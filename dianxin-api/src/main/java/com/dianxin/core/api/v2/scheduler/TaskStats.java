@@ -0,0 +1,21 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+import java.time.Duration;
+
+/**
+ * Số liệu của một tác vụ lặp lại, xem {@link Task#getStats()}.
+ *
+ * @param runs      Số lần đã chạy xong.
+ * @param overruns  Số lần đến hạn trong khi lần chạy trước vẫn chưa xong.
+ * @param skipped   Số lần bị bỏ qua do {@link OverlapPolicy} (hoặc bị pool từ chối).
+ * @param lastDrift Độ trễ của lần chạy gần nhất so với lịch (bắt đầu chạy thực tế - thời điểm đến hạn).
+ * @param maxDrift  Độ trễ lớn nhất từng ghi nhận.
+ * @param lastRun   Thời gian chạy của lần gần nhất.
+ */
+@ReleasedSince("2.2")
+public record TaskStats(long runs, long overruns, long skipped, Duration lastDrift, Duration maxDrift, Duration lastRun) {
+
+    static final TaskStats EMPTY = new TaskStats(0, 0, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+}
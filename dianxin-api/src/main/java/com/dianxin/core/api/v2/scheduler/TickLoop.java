@@ -0,0 +1,298 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import com.dianxin.core.api.lifecycle.RejectableTask;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Vòng lặp tick một luồng (kiểu Bukkit) cho tác vụ "sync".
+ * <p>
+ * Mọi tác vụ đưa vào qua {@link #execute(Runnable)} đều chạy tuần tự trên cùng một luồng
+ * {@code dianxin-main-tick}, theo lô ở đầu mỗi tick. Nhờ vậy logic trạng thái (game, phiên chơi...) chạy
+ * trên luồng này không cần khóa. Tác vụ được đưa vào trong lúc đang tick sẽ chạy ở tick sau.
+ * </p>
+ *
+ * <pre>{@code
+ * TickLoop main = TickLoop.builder().tickRate(20).build();
+ * main.start();
+ * scheduler.useTickLoop(main); // runTask / runTaskLater / runTaskTimer giờ chạy trên main tick
+ * }</pre>
+ *
+ * <p>
+ * Nếu một tick chạy quá lâu, vòng lặp bị trễ so với lịch. Khi trễ vượt {@link Builder#overloadThreshold(Duration)}
+ * sẽ có cảnh báo (tối đa một lần mỗi 15 giây) và các tick bị lỡ được bỏ qua thay vì chạy dồn.
+ * </p>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class TickLoop implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(TickLoop.class);
+
+    /** Số tick gần nhất dùng để tính {@link TickStats}. */
+    public static final int STATS_WINDOW = 100;
+    private static final long WARN_INTERVAL_NANOS = Duration.ofSeconds(15).toNanos();
+
+    private final long periodNanos;
+    private final int maxTasksPerTick;
+    private final long overloadThresholdNanos;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final List<Runnable> tickListeners = new CopyOnWriteArrayList<>();
+    private final Thread thread;
+    private volatile boolean started;
+    private volatile boolean running = true;
+
+    // Chỉ luồng tick đọc/ghi
+    private final long[] tickStarts = new long[STATS_WINDOW];
+    private final long[] tickDurations = new long[STATS_WINDOW];
+    private long ticks;
+    private long overloads;
+    private long lastWarnAt;
+
+    private volatile TickStats stats = TickStats.EMPTY;
+
+    private TickLoop(Builder builder) {
+        this.periodNanos = 1_000_000_000L / builder.tickRate;
+        this.maxTasksPerTick = builder.maxTasksPerTick;
+        this.overloadThresholdNanos = builder.overloadThreshold.toNanos();
+        this.thread = new Thread(this::loop, builder.threadName);
+        this.thread.setDaemon(true);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Khởi động luồng tick.
+     *
+     * @throws IllegalStateException Nếu đã khởi động trước đó.
+     */
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("TickLoop đã được khởi động");
+        }
+        started = true;
+        thread.start();
+    }
+
+    /**
+     * Dừng vòng lặp sau tick hiện tại. Các tác vụ còn trong hàng đợi không được chạy nữa: tác vụ là
+     * {@link RejectableTask} (tác vụ của {@code Scheduler}, {@code ResultedAction}...) được báo bị từ chối,
+     * {@link Future} bị hủy, để người đang chờ kết quả không bị treo.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+        RejectedExecutionException cause = new RejectedExecutionException("TickLoop đã dừng trước khi tác vụ kịp chạy");
+        int dropped = 0;
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            pending.decrementAndGet();
+            dropped++;
+            reject(task, cause);
+        }
+        if (dropped > 0) {
+            logger.warn("TickLoop dừng, bỏ {} tác vụ chưa chạy", dropped);
+        }
+    }
+
+    /**
+     * Đưa tác vụ vào hàng đợi, chạy ở tick kế tiếp.
+     *
+     * @throws RejectedExecutionException Nếu vòng lặp đã dừng.
+     */
+    @Override
+    public void execute(@NotNull Runnable command) {
+        Objects.requireNonNull(command, "command");
+        if (!running) {
+            throw new RejectedExecutionException("TickLoop đã dừng");
+        }
+        pending.incrementAndGet();
+        tasks.add(command);
+        if (!running && tasks.remove(command)) {
+            // shutdown() vừa dọn hàng đợi trước khi tác vụ này kịp vào
+            pending.decrementAndGet();
+            throw new RejectedExecutionException("TickLoop đã dừng");
+        }
+    }
+
+    /**
+     * Đăng ký một hàm chạy ở đầu mỗi tick (trước các tác vụ trong hàng đợi).
+     */
+    public void addTickListener(@NotNull Runnable listener) {
+        tickListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public void removeTickListener(@NotNull Runnable listener) {
+        tickListeners.remove(listener);
+    }
+
+    /** @return {@code true} nếu luồng hiện tại là luồng tick. */
+    public boolean isTickThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /** @return Độ dài một tick theo cấu hình. */
+    public Duration getTickPeriod() {
+        return Duration.ofNanos(periodNanos);
+    }
+
+    public boolean isRunning() {
+        return started && running;
+    }
+
+    public TickStats getStats() {
+        return stats;
+    }
+
+    private void loop() {
+        long nextTick = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            long behind = now - nextTick;
+            if (behind < 0) {
+                LockSupport.parkNanos(this, -behind);
+                continue;
+            }
+            if (behind > overloadThresholdNanos) {
+                overloads++;
+                if (now - lastWarnAt > WARN_INTERVAL_NANOS || lastWarnAt == 0) {
+                    lastWarnAt = now;
+                    logger.warn("TickLoop không theo kịp! Trễ {}ms ({} tick), bỏ qua các tick bị lỡ",
+                            behind / 1_000_000, behind / periodNanos);
+                }
+                nextTick = now; // Không chạy dồn các tick đã lỡ
+            }
+
+            tick(now);
+            nextTick += periodNanos;
+        }
+    }
+
+    private void tick(long start) {
+        for (Runnable listener : tickListeners) {
+            runSafely(listener);
+        }
+
+        // Chỉ chạy những tác vụ đã có trước khi tick bắt đầu, tác vụ mới thêm vào để tick sau
+        int budget = Math.min(pending.get(), maxTasksPerTick);
+        for (int i = 0; i < budget; i++) {
+            Runnable task = tasks.poll();
+            if (task == null) break;
+            pending.decrementAndGet();
+            runSafely(task);
+        }
+
+        long duration = System.nanoTime() - start;
+        int slot = (int) (ticks % STATS_WINDOW);
+        tickStarts[slot] = start;
+        tickDurations[slot] = duration;
+        ticks++;
+        publishStats(slot);
+    }
+
+    private void publishStats(int lastSlot) {
+        int samples = (int) Math.min(ticks, STATS_WINDOW);
+        long total = 0;
+        long max = 0;
+        for (int i = 0; i < samples; i++) {
+            total += tickDurations[i];
+            max = Math.max(max, tickDurations[i]);
+        }
+        double tps = 0;
+        if (samples > 1) {
+            int firstSlot = (int) ((ticks - samples) % STATS_WINDOW);
+            long span = tickStarts[lastSlot] - tickStarts[firstSlot];
+            tps = span > 0 ? (samples - 1) * 1_000_000_000.0 / span : 0;
+        }
+        stats = new TickStats(ticks, tps, total / (double) samples / 1_000_000.0, max / 1_000_000.0,
+                pending.get(), overloads);
+    }
+
+    private static void reject(Runnable task, RejectedExecutionException cause) {
+        try {
+            if (task instanceof RejectableTask rejectable) {
+                rejectable.reject(cause);
+            } else if (task instanceof Future<?> future) {
+                future.cancel(false);
+            }
+        } catch (Throwable t) {
+            logger.error("Tác vụ trên TickLoop ném lỗi khi bị từ chối", t);
+        }
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            logger.error("Tác vụ trên TickLoop ném lỗi", t);
+        }
+    }
+
+    public static final class Builder {
+        private int tickRate = 20;
+        private int maxTasksPerTick = 10_000;
+        private Duration overloadThreshold = Duration.ofSeconds(2);
+        private String threadName = "dianxin-main-tick";
+
+        private Builder() { }
+
+        /**
+         * Số tick mỗi giây (mặc định 20, tức 50ms/tick như Minecraft).
+         */
+        public Builder tickRate(int ticksPerSecond) {
+            if (ticksPerSecond < 1 || ticksPerSecond > 1000) {
+                throw new IllegalArgumentException("tickRate phải nằm trong khoảng 1..1000");
+            }
+            this.tickRate = ticksPerSecond;
+            return this;
+        }
+
+        /**
+         * Số tác vụ tối đa chạy trong một tick (mặc định 10000). Phần còn lại dời sang tick sau,
+         * để một đợt dồn tác vụ không làm một tick kéo dài vô hạn.
+         */
+        public Builder maxTasksPerTick(int max) {
+            if (max < 1) {
+                throw new IllegalArgumentException("maxTasksPerTick phải lớn hơn 0");
+            }
+            this.maxTasksPerTick = max;
+            return this;
+        }
+
+        /**
+         * Mức trễ so với lịch mà từ đó coi là quá tải: ghi cảnh báo và bỏ qua các tick bị lỡ (mặc định 2 giây).
+         */
+        public Builder overloadThreshold(@NotNull Duration threshold) {
+            if (threshold.isNegative()) {
+                throw new IllegalArgumentException("overloadThreshold không được âm");
+            }
+            this.overloadThreshold = threshold;
+            return this;
+        }
+
+        public Builder threadName(@NotNull String name) {
+            this.threadName = Objects.requireNonNull(name, "name");
+            return this;
+        }
+
+        public TickLoop build() {
+            return new TickLoop(this);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * Số liệu của {@link TickLoop}, tính trên cửa sổ {@link TickLoop#STATS_WINDOW} tick gần nhất.
+ *
+ * @param ticks          Tổng số tick đã chạy.
+ * @param tps            Số tick thực tế mỗi giây (tối đa bằng tick rate đã cấu hình).
+ * @param meanTickMillis Thời gian trung bình một tick (ms).
+ * @param maxTickMillis  Thời gian tick lâu nhất trong cửa sổ (ms).
+ * @param pendingTasks   Số tác vụ đang chờ chạy ở các tick sau.
+ * @param overloads      Tổng số tick bị trễ quá ngưỡng cảnh báo.
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public record TickStats(long ticks, double tps, double meanTickMillis, double maxTickMillis, int pendingTasks, long overloads) {
+    public static final TickStats EMPTY = new TickStats(0, 0, 0, 0, 0, 0);
+}
@@ -0,0 +1,18 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+
+/**
+ * Một lần hẹn giờ đã đăng ký với "đồng hồ" của {@link AbstractScheduler}.
+ */
+@ReleasedSince("2.2")
+@FunctionalInterface
+public interface TimerHandle {
+
+    /**
+     * Hủy lần hẹn giờ nếu nó chưa đến hạn.
+     *
+     * @return {@code true} nếu hủy thành công (callback sẽ không bao giờ được gọi).
+     */
+    boolean cancel();
+}
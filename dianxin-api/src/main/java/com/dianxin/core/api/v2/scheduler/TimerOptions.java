@@ -0,0 +1,111 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import com.dianxin.core.api.lifecycle.TaskPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Cấu hình cho tác vụ lặp lại ({@code runTaskTimer}, {@code runTaskCron}...).
+ *
+ * <pre>{@code
+ * scheduler.runTaskTimerAsync(this::syncLeaderboard, 0, 1, TimeUnit.MINUTES, TimerOptions.builder()
+ *         .overlapPolicy(OverlapPolicy.SKIP)
+ *         .priority(TaskPriority.BULK)
+ *         .tolerance(Duration.ofSeconds(10), CoalescingMode.SPREAD) // Rải các guild trong 10 giây
+ *         .build());
+ * }</pre>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class TimerOptions {
+    private static final TimerOptions DEFAULTS = builder().build();
+
+    private final OverlapPolicy overlapPolicy;
+    private final TaskPriority priority;
+    private final Duration tolerance;
+    private final CoalescingMode coalescingMode;
+
+    private TimerOptions(Builder builder) {
+        this.overlapPolicy = builder.overlapPolicy;
+        this.priority = builder.priority;
+        this.tolerance = builder.tolerance;
+        this.coalescingMode = builder.coalescingMode;
+    }
+
+    /**
+     * Cấu hình mặc định: {@link OverlapPolicy#CONCURRENT}, {@link TaskPriority#NORMAL}.
+     */
+    public static TimerOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public OverlapPolicy getOverlapPolicy() {
+        return overlapPolicy;
+    }
+
+    /** @return Làn ưu tiên trên IO Pool (chỉ áp dụng cho các biến thể {@code Async}). */
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    /** @return Khoảng dung sai cho phép chạy trễ; {@link Duration#ZERO} nghĩa là chạy đúng hạn. */
+    public Duration getTolerance() {
+        return tolerance;
+    }
+
+    public CoalescingMode getCoalescingMode() {
+        return coalescingMode;
+    }
+
+    public static final class Builder {
+        private OverlapPolicy overlapPolicy = OverlapPolicy.CONCURRENT;
+        private TaskPriority priority = TaskPriority.NORMAL;
+        private Duration tolerance = Duration.ZERO;
+        private CoalescingMode coalescingMode = CoalescingMode.BATCH;
+
+        private Builder() { }
+
+        /**
+         * Cách xử lý khi lần chạy trước chưa xong (mặc định: {@link OverlapPolicy#CONCURRENT}).
+         */
+        public Builder overlapPolicy(@NotNull OverlapPolicy policy) {
+            this.overlapPolicy = Objects.requireNonNull(policy, "policy");
+            return this;
+        }
+
+        /**
+         * Làn ưu tiên trên IO Pool (mặc định: {@link TaskPriority#NORMAL}).
+         */
+        public Builder priority(@NotNull TaskPriority priority) {
+            this.priority = Objects.requireNonNull(priority, "priority");
+            return this;
+        }
+
+        /**
+         * Cho phép mỗi lần chạy trễ tối đa {@code tolerance} để giảm đỉnh tải (mặc định không có dung sai).
+         * Tác vụ không bao giờ chạy sớm hơn hạn.
+         *
+         * @param tolerance Khoảng dung sai.
+         * @param mode      Gom các hạn gần nhau ({@link CoalescingMode#BATCH}) hay rải đều ({@link CoalescingMode#SPREAD}).
+         */
+        public Builder tolerance(@NotNull Duration tolerance, @NotNull CoalescingMode mode) {
+            if (tolerance.isNegative()) {
+                throw new IllegalArgumentException("tolerance không được âm");
+            }
+            this.tolerance = tolerance;
+            this.coalescingMode = Objects.requireNonNull(mode, "mode");
+            return this;
+        }
+
+        public TimerOptions build() {
+            return new TimerOptions(this);
+        }
+    }
+}
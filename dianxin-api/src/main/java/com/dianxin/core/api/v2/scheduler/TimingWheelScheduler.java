@@ -0,0 +1,288 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link Scheduler} dùng bánh xe thời gian phân cấp (hierarchical hashed timing wheel), giống timer của nhân Linux.
+ * <p>
+ * 4 tầng × 256 ô: tầng 0 có độ phân giải bằng {@code tick}, mỗi tầng sau thô hơn 256 lần
+ * (với tick 10ms, tầng 3 phủ khoảng 497 ngày). Hẹn giờ và hủy đều là O(1):
+ * <ul>
+ * <li>Thread gọi chỉ đẩy timer vào một hàng đợi lock-free; luồng đồng hồ mới đặt nó vào đúng ô.</li>
+ * <li>Hủy chỉ là một phép CAS trạng thái; luồng đồng hồ gỡ timer khỏi danh sách liên kết đôi của ô.</li>
+ * <li>Timer ở tầng cao được "đổ" (cascade) xuống tầng thấp khi kim tầng 0 quay hết một vòng.</li>
+ * </ul>
+ * Đổi lại, thời điểm chạy bị làm tròn lên theo {@code tick}. Khi đến hạn, tác vụ được chuyển sang CPU/IO pool
+ * y hệt {@link SchedulerImpl}.
+ * </p>
+ *
+ * <pre>{@code
+ * Scheduler scheduler = new TimingWheelScheduler(Duration.ofMillis(50)); // 1 tick = 50ms
+ * scheduler.runTaskLaterAsync(() -> cooldowns.remove(userId), 30, TimeUnit.SECONDS);
+ * }</pre>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class TimingWheelScheduler extends AbstractScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheelScheduler.class);
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    /** Khoảng cách tối đa (tính bằng tick) mà bánh xe biểu diễn được. */
+    private static final long MAX_SPAN = (1L << (LEVELS * SLOT_BITS)) - 1;
+
+    /** Độ phân giải mặc định. */
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(10);
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Bucket[][] wheel = new Bucket[LEVELS][SLOTS];
+    private final Queue<Timeout> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancellations = new ConcurrentLinkedQueue<>();
+    private final LongAdder pending = new LongAdder();
+    private final Thread clock;
+    private volatile boolean running = true;
+
+    /** Tick tiếp theo cần xử lý (chỉ luồng đồng hồ đọc/ghi). */
+    private long currentTick;
+
+    public TimingWheelScheduler() {
+        this(DEFAULT_TICK);
+    }
+
+    /**
+     * @param tick Độ phân giải của bánh xe (tối thiểu 1ms). Tick nhỏ chính xác hơn nhưng luồng đồng hồ thức dậy nhiều hơn.
+     */
+    public TimingWheelScheduler(@NotNull Duration tick) {
+        if (tick.toMillis() < 1) {
+            throw new IllegalArgumentException("tick phải từ 1ms trở lên");
+        }
+        this.tickNanos = tick.toNanos();
+        for (Bucket[] level : wheel) {
+            for (int i = 0; i < SLOTS; i++) level[i] = new Bucket();
+        }
+        this.startNanos = System.nanoTime();
+        this.clock = new Thread(this::loop, "dianxin-timer-wheel");
+        this.clock.setDaemon(true);
+        this.clock.start();
+    }
+
+    /** @return Độ phân giải của bánh xe. */
+    public Duration getTick() {
+        return Duration.ofNanos(tickNanos);
+    }
+
+    /** @return Số lần hẹn giờ đang chờ trên bánh xe (kể cả các lần hẹn nội bộ của tác vụ lặp lại). */
+    public long getScheduledTimers() {
+        return pending.sum();
+    }
+
+    @Override
+    protected TimerHandle scheduleOnClock(Runnable callback, long delayNanos) {
+        if (!running) {
+            throw new RejectedExecutionException("TimingWheelScheduler đã shutdown");
+        }
+        long elapsed = System.nanoTime() - startNanos + Math.max(0, delayNanos);
+        // Làm tròn lên để không bao giờ chạy sớm hơn hạn
+        long deadlineTick = (elapsed + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(this, callback, deadlineTick);
+        pending.increment();
+        additions.add(timeout);
+        return timeout;
+    }
+
+    @Override
+    protected void shutdownClock() {
+        running = false;
+        LockSupport.unpark(clock);
+    }
+
+    // =========================================================================
+    // Luồng đồng hồ
+    // =========================================================================
+
+    private void loop() {
+        while (running) {
+            long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+            transferAdditions();
+            removeCancelled();
+            while (currentTick <= nowTick) {
+                advance();
+            }
+            long sleep = startNanos + currentTick * tickNanos - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+        }
+        pending.reset();
+    }
+
+    private void transferAdditions() {
+        Timeout timeout;
+        while ((timeout = additions.poll()) != null) {
+            if (timeout.state == Timeout.ST_INIT) {
+                insert(timeout);
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void insert(Timeout timeout) {
+        long expires = timeout.deadlineTick;
+        long idx = expires - currentTick;
+        Bucket bucket;
+        if (idx < 0) {
+            // Đã quá hạn (luồng đồng hồ bị trễ): chạy ở tick kế tiếp
+            bucket = wheel[0][(int) (currentTick & SLOT_MASK)];
+        } else if (idx < SLOTS) {
+            bucket = wheel[0][(int) (expires & SLOT_MASK)];
+        } else if (idx < 1L << (2 * SLOT_BITS)) {
+            bucket = wheel[1][(int) ((expires >>> SLOT_BITS) & SLOT_MASK)];
+        } else if (idx < 1L << (3 * SLOT_BITS)) {
+            bucket = wheel[2][(int) ((expires >>> (2 * SLOT_BITS)) & SLOT_MASK)];
+        } else {
+            if (idx > MAX_SPAN) {
+                // Xa hơn tầm bánh xe: đặt ở ô xa nhất, sẽ được đổ lại đúng chỗ khi tới gần
+                expires = currentTick + MAX_SPAN;
+            }
+            bucket = wheel[3][(int) ((expires >>> (3 * SLOT_BITS)) & SLOT_MASK)];
+        }
+        bucket.add(timeout);
+    }
+
+    /**
+     * Xử lý tick {@code currentTick}: đổ tầng cao xuống nếu kim tầng 0 vừa hết vòng, rồi chạy các timer đến hạn.
+     */
+    private void advance() {
+        int index = (int) (currentTick & SLOT_MASK);
+        if (index == 0) {
+            for (int level = 1; level < LEVELS; level++) {
+                int slot = (int) ((currentTick >>> (level * SLOT_BITS)) & SLOT_MASK);
+                cascade(wheel[level][slot]);
+                if (slot != 0) break;
+            }
+        }
+
+        Bucket bucket = wheel[0][index];
+        Timeout timeout = bucket.head;
+        bucket.head = bucket.tail = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.next = timeout.prev = null;
+            timeout.bucket = null;
+            if (timeout.deadlineTick > currentTick) {
+                insert(timeout); // Timer bị kẹp ở MAX_SPAN, chưa tới hạn thật
+            } else {
+                expire(timeout);
+            }
+            timeout = next;
+        }
+        currentTick++;
+    }
+
+    private void cascade(Bucket bucket) {
+        Timeout timeout = bucket.head;
+        bucket.head = bucket.tail = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.next = timeout.prev = null;
+            timeout.bucket = null;
+            insert(timeout);
+            timeout = next;
+        }
+    }
+
+    private void expire(Timeout timeout) {
+        if (!Timeout.STATE.compareAndSet(timeout, Timeout.ST_INIT, Timeout.ST_EXPIRED)) return;
+        pending.decrement();
+        try {
+            timeout.callback.run();
+        } catch (Throwable t) {
+            logger.error("Callback của timing wheel gặp lỗi", t);
+        }
+    }
+
+    // =========================================================================
+    // Cấu trúc dữ liệu
+    // =========================================================================
+
+    /** Danh sách liên kết đôi các timer trong một ô (chỉ luồng đồng hồ chạm vào). */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) timeout.prev.next = next;
+            if (next != null) next.prev = timeout.prev;
+            if (timeout == head) head = next;
+            if (timeout == tail) tail = timeout.prev;
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    private static final class Timeout implements TimerHandle {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheelScheduler owner;
+        private final Runnable callback;
+        private final long deadlineTick;
+        private volatile int state = ST_INIT;
+
+        // Chỉ luồng đồng hồ chạm vào
+        private Timeout prev;
+        private Timeout next;
+        private Bucket bucket;
+
+        private Timeout(TimingWheelScheduler owner, Runnable callback, long deadlineTick) {
+            this.owner = owner;
+            this.callback = callback;
+            this.deadlineTick = deadlineTick;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) return false;
+            owner.pending.decrement();
+            owner.cancellations.add(this);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import com.dianxin.core.api.annotations.ReleasedSince;
+import com.dianxin.core.api.lifecycle.RejectableTask;
+import com.dianxin.core.api.lifecycle.TaskPriority;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Scheduler} chạy theo đồng hồ ảo, dùng cho test, mô phỏng và load test các tính năng nhiều timer
+ * (cooldown, temp-mute, nhắc nhở...).
+ * <p>
+ * Thời gian chỉ trôi khi gọi {@link #advance(Duration)} (hoặc khi bật {@link #startRealtime(double) chế độ N×}).
+ * Mọi ngữ nghĩa của {@link Task} (lặp lại fixed-rate, cron, {@link OverlapPolicy}, nhóm chủ sở hữu, debounce...)
+ * giống hệt {@link SchedulerImpl} vì dùng chung {@link AbstractScheduler}; chỉ khác nguồn thời gian.
+ * </p>
+ * <p>
+ * Ở chế độ {@link Builder#inline(boolean) inline} (mặc định), tác vụ không đi qua pool mà chạy ngay trên luồng
+ * đang gọi {@code advance}, theo đúng thứ tự hạn chạy (cùng hạn thì theo thứ tự lên lịch), nên kết quả
+ * hoàn toàn tất định. Tác vụ {@code runTask} gọi ngoài {@code advance} sẽ chờ đến lần {@code advance}/
+ * {@link #runPending()} kế tiếp.
+ * </p>
+ *
+ * <pre>{@code
+ * VirtualClockScheduler clock = VirtualClockScheduler.builder()
+ *         .startTime(Instant.parse("2026-01-01T00:00:00Z"))
+ *         .build();
+ * clock.runTaskLater(() -> unmute(member), 10, TimeUnit.MINUTES);
+ * clock.advance(Duration.ofDays(1)); // Phát lại một ngày trong vài mili giây
+ * }</pre>
+ */
+@ReleasedSince("2.2")
+@SuppressWarnings("unused")
+public final class VirtualClockScheduler extends AbstractScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualClockScheduler.class);
+    private static final long REALTIME_STEP_NANOS = 1_000_000L; // Luồng N× thức dậy mỗi 1ms thời gian thật
+
+    private final Object lock = new Object();
+    private final PriorityQueue<VirtualTimer> timers = new PriorityQueue<>();
+    private final ArrayDeque<Runnable> runQueue = new ArrayDeque<>(); // Hàng đợi của executor inline
+    private final ReentrantLock advanceLock = new ReentrantLock();
+    private final long startMillis;
+    private final boolean inline;
+    private final Executor inlineExecutor = this::enqueue;
+    private final AtomicLong firedTimers = new AtomicLong();
+    private final AtomicLong executedTasks = new AtomicLong();
+
+    private volatile long now; // Nano giây ảo kể từ lúc khởi tạo
+    private long sequence; // Giữ dưới lock
+    private volatile boolean shutdown;
+    private volatile Thread driver;
+
+    private VirtualClockScheduler(Builder builder) {
+        this.startMillis = builder.startTime.toEpochMilli();
+        this.inline = builder.inline;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // =========================================================================
+    // Điều khiển đồng hồ
+    // =========================================================================
+
+    /**
+     * Cho thời gian ảo trôi thêm {@code duration}, chạy mọi timer đến hạn trong khoảng đó theo thứ tự.
+     *
+     * @return Số timer đã kích hoạt.
+     * @throws IllegalStateException Nếu gọi từ bên trong một tác vụ đang chạy inline.
+     */
+    public long advance(@NotNull Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("duration không được âm");
+        }
+        return advanceBy(duration.toNanos());
+    }
+
+    /**
+     * Cho thời gian ảo trôi đến mốc {@code instant} (bỏ qua nếu mốc đã qua).
+     *
+     * @return Số timer đã kích hoạt.
+     */
+    public long advanceTo(@NotNull Instant instant) {
+        long target = Duration.between(getVirtualTime(), instant).toNanos();
+        return advanceBy(Math.max(0, target));
+    }
+
+    /**
+     * Nhảy thẳng đến timer gần nhất và chạy nó (cùng các timer trùng hạn).
+     *
+     * @return {@code false} nếu không còn timer nào.
+     */
+    public boolean advanceToNext() {
+        long next;
+        synchronized (lock) {
+            VirtualTimer t = timers.peek();
+            if (t == null) return false;
+            next = t.deadline;
+        }
+        advanceBy(Math.max(0, next - now));
+        return true;
+    }
+
+    /**
+     * Chạy các tác vụ đang chờ ở thời điểm hiện tại mà không cho thời gian trôi.
+     */
+    public void runPending() {
+        advanceBy(0);
+    }
+
+    /**
+     * Cho đồng hồ ảo tự trôi nhanh gấp {@code speed} lần thời gian thật trên một luồng riêng
+     * (ví dụ {@code 3600} = một giờ ảo mỗi giây). Tác vụ inline sẽ chạy trên luồng đó.
+     *
+     * @throws IllegalStateException Nếu chế độ N× đang chạy.
+     */
+    public synchronized void startRealtime(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed phải lớn hơn 0");
+        }
+        if (driver != null) {
+            throw new IllegalStateException("Chế độ realtime đang chạy");
+        }
+        Thread t = new Thread(() -> drive(speed), "dianxin-virtual-clock");
+        t.setDaemon(true);
+        driver = t;
+        t.start();
+    }
+
+    /**
+     * Dừng chế độ N× (chờ lần {@code advance} đang dở kết thúc).
+     */
+    public synchronized void stopRealtime() {
+        Thread t = driver;
+        if (t == null) return;
+        driver = null;
+        LockSupport.unpark(t);
+        if (t != Thread.currentThread()) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // =========================================================================
+    // Số liệu
+    // =========================================================================
+
+    /** @return Thời điểm hiện tại theo đồng hồ ảo. */
+    public Instant getVirtualTime() {
+        return Instant.ofEpochMilli(startMillis).plusNanos(now);
+    }
+
+    /** @return Thời gian ảo đã trôi kể từ lúc khởi tạo. */
+    public Duration getElapsed() {
+        return Duration.ofNanos(now);
+    }
+
+    /** @return Tổng số timer đã kích hoạt. */
+    public long getFiredTimers() {
+        return firedTimers.get();
+    }
+
+    /** @return Tổng số tác vụ đã chạy qua executor inline. */
+    public long getExecutedTasks() {
+        return executedTasks.get();
+    }
+
+    /** @return Số timer đang chờ (kể cả timer đã hủy nhưng chưa đến hạn để dọn). */
+    public int getScheduledTimers() {
+        synchronized (lock) {
+            return timers.size();
+        }
+    }
+
+    // =========================================================================
+    // AbstractScheduler
+    // =========================================================================
+
+    @Override
+    protected TimerHandle scheduleOnClock(Runnable callback, long delayNanos) {
+        synchronized (lock) {
+            // Kiểm tra dưới lock: shutdownClock() dọn timers cũng dưới lock, nên không có lần hẹn nào lọt lại
+            if (shutdown) {
+                throw new RejectedExecutionException("VirtualClockScheduler đã shutdown");
+            }
+            VirtualTimer timer = new VirtualTimer(now + Math.max(0, delayNanos), sequence++, callback);
+            timers.add(timer);
+            return timer;
+        }
+    }
+
+    @Override
+    protected void shutdownClock() {
+        shutdown = true;
+        stopRealtime();
+        List<Runnable> queued;
+        synchronized (lock) {
+            timers.clear();
+            queued = new ArrayList<>(runQueue);
+            runQueue.clear();
+        }
+        // Tác vụ đã vào hàng đợi inline nhưng chưa chạy: báo bị từ chối để completion() không treo
+        RejectedExecutionException cause = new RejectedExecutionException("VirtualClockScheduler đã shutdown");
+        for (Runnable task : queued) {
+            try {
+                if (task instanceof RejectableTask rejectable) {
+                    rejectable.reject(cause);
+                } else if (task instanceof Future<?> future) {
+                    future.cancel(false);
+                }
+            } catch (Throwable t) {
+                logger.error("Tác vụ trên VirtualClockScheduler ném lỗi khi bị từ chối", t);
+            }
+        }
+    }
+
+    @Override
+    protected Executor syncExecutor() {
+        return inline ? inlineExecutor : super.syncExecutor();
+    }
+
+    @Override
+    protected Executor asyncExecutor(TaskPriority priority) {
+        return inline ? inlineExecutor : super.asyncExecutor(priority);
+    }
+
+    @Override
+    protected long nanoTime() {
+        return now;
+    }
+
+    @Override
+    protected long currentTimeMillis() {
+        return startMillis + now / 1_000_000L;
+    }
+
+    // =========================================================================
+    // Nội bộ
+    // =========================================================================
+
+    private long advanceBy(long nanos) {
+        if (advanceLock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Không thể advance từ bên trong một tác vụ của VirtualClockScheduler");
+        }
+        advanceLock.lock();
+        try {
+            long target = now + nanos;
+            long fired = 0;
+            drain();
+            while (true) {
+                VirtualTimer timer;
+                synchronized (lock) {
+                    timer = timers.peek();
+                    if (timer == null || timer.deadline > target) break;
+                    timers.poll();
+                    if (!timer.fire()) continue; // Đã hủy
+                    if (timer.deadline > now) now = timer.deadline;
+                }
+                fired++;
+                firedTimers.incrementAndGet();
+                timer.callback.run();
+                drain();
+            }
+            now = target;
+            drain();
+            return fired;
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+
+    private void enqueue(Runnable task) {
+        synchronized (lock) {
+            if (shutdown) {
+                throw new RejectedExecutionException("VirtualClockScheduler đã shutdown");
+            }
+            runQueue.add(task);
+        }
+    }
+
+    /** Chạy hết hàng đợi inline (tác vụ sinh thêm tác vụ thì chạy tiếp, theo FIFO). */
+    private void drain() {
+        while (true) {
+            Runnable task;
+            synchronized (lock) {
+                task = runQueue.poll();
+            }
+            if (task == null) return;
+            executedTasks.incrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                logger.error("Tác vụ trên VirtualClockScheduler ném lỗi", t);
+            }
+        }
+    }
+
+    private void drive(double speed) {
+        long last = System.nanoTime();
+        double carry = 0;
+        while (driver == Thread.currentThread() && !shutdown) {
+            LockSupport.parkNanos(this, REALTIME_STEP_NANOS);
+            long real = System.nanoTime();
+            double step = (real - last) * speed + carry;
+            last = real;
+            long whole = (long) step;
+            carry = step - whole;
+            advanceBy(whole);
+        }
+    }
+
+    /**
+     * Một lần hẹn trên đồng hồ ảo. Sắp xếp theo hạn chạy, cùng hạn thì theo thứ tự lên lịch.
+     */
+    private final class VirtualTimer implements TimerHandle, Comparable<VirtualTimer> {
+        private final long deadline;
+        private final long seq;
+        private final Runnable callback;
+        private boolean done; // Giữ dưới lock: đã chạy hoặc đã hủy
+
+        private VirtualTimer(long deadline, long seq, Runnable callback) {
+            this.deadline = deadline;
+            this.seq = seq;
+            this.callback = callback;
+        }
+
+        /** Gọi dưới lock. */
+        private boolean fire() {
+            if (done) return false;
+            done = true;
+            return true;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (lock) {
+                return fire(); // Timer bị hủy nằm lại trong heap đến hạn rồi bị bỏ qua
+            }
+        }
+
+        @Override
+        public int compareTo(VirtualTimer o) {
+            int c = Long.compare(deadline, o.deadline);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+
+    public static final class Builder {
+        private Instant startTime = Instant.now();
+        private boolean inline = true;
+
+        private Builder() { }
+
+        /**
+         * Mốc thời gian ban đầu của đồng hồ ảo (mặc định là thời điểm tạo builder).
+         * Cố định mốc này để lịch cron và kết quả phát lại tất định giữa các lần chạy.
+         */
+        public Builder startTime(@NotNull Instant startTime) {
+            this.startTime = Objects.requireNonNull(startTime, "startTime");
+            return this;
+        }
+
+        /**
+         * {@code true} (mặc định): tác vụ chạy ngay trên luồng gọi {@code advance}, tất định.
+         * {@code false}: tác vụ đến hạn được đẩy sang CPU/IO Pool như {@link SchedulerImpl}
+         * (cần {@code ExecutorManager.initialize()}), dùng để đo tải thật trên pool.
+         */
+        public Builder inline(boolean inline) {
+            this.inline = inline;
+            return this;
+        }
+
+        public VirtualClockScheduler build() {
+            return new VirtualClockScheduler(this);
+        }
+    }
+}
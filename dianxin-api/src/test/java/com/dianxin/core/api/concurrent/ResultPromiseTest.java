@@ -0,0 +1,91 @@
+package com.dianxin.core.api.concurrent;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ResultPromiseTest {
+    private static final int DEEP_CHAIN = 20_000;
+
+    @Test
+    public void throwingCallbackDoesNotBlockLaterStages() {
+        CompletableFuture<ActionResult<Integer>> source = new CompletableFuture<>();
+        ResultedAction<Integer> action = ResultedAction.fromFuture(source);
+        AtomicInteger seen = new AtomicInteger();
+
+        action.queue(value -> {
+            throw new IllegalStateException("boom");
+        }, error -> {
+        });
+        ResultedAction<Integer> mapped = action.map(value -> value + 1);
+        action.queue(value -> seen.set(value), error -> {
+        });
+
+        source.complete(ActionResult.success(1)); // Không được ném lỗi của callback ra đây
+
+        ActionResult<Integer> result = mapped.complete();
+        assertTrue(result.isSuccess());
+        assertEquals(Integer.valueOf(2), result.getValue());
+        assertEquals(1, seen.get());
+    }
+
+    @Test
+    public void deepMapChainDoesNotOverflowStack() {
+        CompletableFuture<ActionResult<Integer>> source = new CompletableFuture<>();
+        ResultedAction<Integer> action = ResultedAction.fromFuture(source);
+        for (int i = 0; i < DEEP_CHAIN; i++) {
+            action = action.map(value -> value + 1);
+        }
+
+        source.complete(ActionResult.success(0));
+
+        ActionResult<Integer> result = action.complete();
+        assertTrue(result.isSuccess());
+        assertEquals(Integer.valueOf(DEEP_CHAIN), result.getValue());
+    }
+
+    @Test
+    public void deepComposeChainDoesNotOverflowStack() {
+        ResultPromise<Integer> source = new ResultPromise<>();
+        ResultPromise<Integer> tail = source;
+        for (int i = 0; i < DEEP_CHAIN; i++) {
+            tail = tail.thenCompose(r -> ResultPromise.completed(ActionResult.success(r.getValue() + 1)));
+        }
+
+        source.complete(ActionResult.success(0));
+
+        ActionResult<Integer> result = tail.getNow();
+        assertTrue(result != null && result.isSuccess());
+        assertEquals(Integer.valueOf(DEEP_CHAIN), result.getValue());
+    }
+
+    @Test
+    public void blockingInsideCallbackRunsDeferredStages() throws Exception {
+        AtomicReference<ActionResult<Integer>> seen = new AtomicReference<>();
+        Thread worker = new Thread(() -> {
+            CompletableFuture<ActionResult<Integer>> outer = new CompletableFuture<>();
+            CompletableFuture<ActionResult<Integer>> inner = new CompletableFuture<>();
+            ResultedAction.fromFuture(outer).queue(value -> {
+                ResultedAction<Integer> mapped = ResultedAction.fromFuture(inner).map(x -> x + 1);
+                inner.complete(ActionResult.success(1)); // map bị hoãn vì đang ở trong callback
+                seen.set(mapped.complete());
+            }, error -> {
+            });
+            outer.complete(ActionResult.success(0));
+        });
+        worker.setDaemon(true);
+        worker.start();
+        worker.join(TimeUnit.SECONDS.toMillis(2));
+
+        assertFalse(worker.isAlive());
+        assertTrue(seen.get().isSuccess());
+        assertEquals(Integer.valueOf(2), seen.get().getValue());
+    }
+}
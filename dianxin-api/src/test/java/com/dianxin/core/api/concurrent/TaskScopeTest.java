@@ -0,0 +1,60 @@
+package com.dianxin.core.api.concurrent;
+
+import com.dianxin.core.api.lifecycle.ExecutorManager;
+import com.dianxin.core.api.lifecycle.PoolOptions;
+import com.dianxin.core.api.lifecycle.RejectionPolicy;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaskScopeTest {
+
+    @Test
+    public void forkDroppedByPoolCompletesWithRejection() throws Exception {
+        ExecutorManager.initialize();
+        ExecutorService pool = ExecutorManager.named("task-scope-drop", PoolOptions.builder()
+                .threads(1)
+                .queueCapacity(3)
+                .rejectionPolicy(RejectionPolicy.DROP_OLDEST)
+                .build());
+        CountDownLatch release = new CountDownLatch(1);
+        pool.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        try (TaskScope<Object> scope = TaskScope.shutdownOnFailure(pool)) {
+            TaskScope.Subtask<Integer> dropped = scope.fork(() -> 1);
+            for (int i = 0; i < 3; i++) {
+                pool.execute(() -> { }); // Hàng đợi đầy: tác vụ con ở đầu hàng bị bỏ
+            }
+
+            scope.join(2, TimeUnit.SECONDS);
+
+            assertTrue(dropped.isDone());
+            assertTrue(dropped.result().isFailure());
+            assertTrue(dropped.result().getException() instanceof RejectedExecutionException);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void forkRunsNormally() throws Exception {
+        ExecutorManager.initialize();
+        try (TaskScope<Object> scope = TaskScope.shutdownOnFailure()) {
+            TaskScope.Subtask<Integer> value = scope.fork(() -> 41 + 1);
+            scope.join(2, TimeUnit.SECONDS).throwIfFailed();
+            assertEquals(Integer.valueOf(42), value.get());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.dianxin.core.api.lifecycle;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KeyedSerialExecutorTest {
+
+    @Test
+    public void eachTaskRunsUnderItsOwnContext() {
+        Queue<Runnable> pool = new ArrayDeque<>();
+        KeyedSerialExecutor<Long> executor = new KeyedSerialExecutor<>(pool::add);
+        List<String> traces = new ArrayList<>();
+
+        ExecutionContext first = ExecutionContext.builder().traceId("first").build();
+        ExecutionContext second = ExecutionContext.builder().traceId("second").build();
+        try (ExecutionContext.Scope ignored = first.attach()) {
+            executor.execute(1L, () -> traces.add(ExecutionContext.current().getTraceId()));
+        }
+        try (ExecutionContext.Scope ignored = second.attach()) {
+            executor.execute(1L, () -> traces.add(ExecutionContext.current().getTraceId()));
+        }
+        executor.execute(1L, () -> traces.add(ExecutionContext.current().getTraceId()));
+
+        // Cả ba tác vụ chạy trong cùng một lượt của mailbox; pool gắn ngữ cảnh của người mở mailbox
+        assertEquals(1, pool.size());
+        try (ExecutionContext.Scope ignored = first.attach()) {
+            pool.poll().run();
+        }
+
+        assertEquals(Arrays.asList("first", "second", null), traces);
+        assertEquals(0, executor.activeKeys());
+    }
+
+    @Test
+    public void queuedSubmitsFailWhenPoolIsShutDownNow() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        pool.execute(() -> awaitQuietly(release));
+        KeyedSerialExecutor<Long> executor = new KeyedSerialExecutor<>(pool);
+
+        CompletableFuture<Integer> first = executor.submit(1L, () -> 1);
+        CompletableFuture<Integer> second = executor.submit(1L, () -> 2);
+
+        // Giống ExecutorManager khi tắt: các tác vụ còn trong hàng đợi của pool bị từ chối
+        RejectedExecutionException cause = new RejectedExecutionException("shutdown");
+        for (Runnable abandoned : pool.shutdownNow()) {
+            TrackedTask.reject(abandoned, cause);
+        }
+
+        assertRejected(first, cause);
+        assertRejected(second, cause);
+        assertEquals(0, executor.activeKeys());
+    }
+
+    @Test
+    public void remainingSubmitsFailWhenPoolShutsDownMidMailbox() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        pool.execute(() -> awaitQuietly(release));
+        KeyedSerialExecutor<Long> executor = new KeyedSerialExecutor<>(pool);
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int value = i;
+            futures.add(executor.submit(1L, () -> value));
+        }
+        pool.shutdown();
+        release.countDown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.SECONDS));
+
+        // Lượt đầu của mailbox vẫn chạy; phần còn lại không gửi tiếp được vào pool đã tắt
+        for (int i = 0; i < 32; i++) {
+            assertEquals(Integer.valueOf(i), futures.get(i).get(2, TimeUnit.SECONDS));
+        }
+        for (int i = 32; i < 40; i++) {
+            assertTrue(futures.get(i).isCompletedExceptionally());
+        }
+        assertEquals(0, executor.activeKeys());
+    }
+
+    private static void assertRejected(CompletableFuture<?> future, RejectedExecutionException cause) throws Exception {
+        try {
+            future.get(2, TimeUnit.SECONDS);
+            fail("future phải bị từ chối");
+        } catch (ExecutionException e) {
+            assertEquals(cause, e.getCause());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
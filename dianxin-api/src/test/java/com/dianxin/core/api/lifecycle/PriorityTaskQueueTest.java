@@ -0,0 +1,54 @@
+package com.dianxin.core.api.lifecycle;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class PriorityTaskQueueTest {
+    private final PoolMetrics metrics = new PoolMetrics("test", () -> 0);
+    private final Set<TrackedTask> running = ConcurrentHashMap.newKeySet();
+
+    private TrackedTask task(String name, List<String> log, TaskPriority priority) {
+        return new TrackedTask(() -> log.add(name), metrics, running, priority);
+    }
+
+    @Test
+    public void dropOldestKeepsFifoWithinLane() {
+        PriorityTaskQueue queue = new PriorityTaskQueue(3);
+        List<String> ran = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            TrackedTask task = task("t" + i, ran, TaskPriority.NORMAL);
+            if (!queue.offer(task)) {
+                queue.pollLeastUrgent(); // Giống nhánh DROP_OLDEST của ManagedThreadPool
+                queue.offer(task);
+            }
+        }
+
+        Runnable next;
+        while ((next = queue.poll()) != null) next.run();
+        assertEquals(List.of("t3", "t4", "t5"), ran);
+    }
+
+    @Test
+    public void dropOldestPrefersLowestLane() throws Exception {
+        PriorityTaskQueue queue = new PriorityTaskQueue(3);
+        List<String> ran = new ArrayList<>();
+        TrackedTask bulk = task("bulk", ran, TaskPriority.BULK);
+        queue.offer(bulk);
+        queue.offer(task("normal1", ran, TaskPriority.NORMAL));
+        queue.offer(task("interactive", ran, TaskPriority.INTERACTIVE));
+
+        // BULK bị bỏ trước dù là tác vụ cũ nhất và NORMAL vào sau có hạn ảo muộn hơn
+        assertSame(bulk, queue.pollLeastUrgent());
+        queue.offer(task("normal2", ran, TaskPriority.NORMAL));
+        TrackedTask oldestNormal = (TrackedTask) queue.pollLeastUrgent();
+        oldestNormal.getDelegate().run();
+        assertEquals(List.of("normal1"), ran);
+    }
+}
@@ -0,0 +1,86 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CronExpressionTest {
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    @Test
+    public void dayOfMonthOrDayOfWeek() {
+        // Cả hai trường đều bị giới hạn: khớp thứ Sáu HOẶC ngày 13
+        CronExpression cron = CronExpression.parse("0 0 13 * FRI");
+
+        ZonedDateTime friday = cron.next(utc("2024-01-06T00:00:00Z"));
+        assertEquals(utc("2024-01-12T00:00:00Z"), friday);
+        assertEquals(utc("2024-01-13T00:00:00Z"), cron.next(friday)); // thứ Bảy, nhưng là ngày 13
+        assertEquals(utc("2024-01-19T00:00:00Z"), cron.next(utc("2024-01-13T00:00:00Z")));
+    }
+
+    @Test
+    public void sevenIsSunday() {
+        ZonedDateTime monday = utc("2024-01-01T00:00:00Z");
+
+        assertEquals(utc("2024-01-07T00:00:00Z"), CronExpression.parse("0 0 * * 7").next(monday));
+        assertEquals(utc("2024-01-07T00:00:00Z"), CronExpression.parse("0 0 * * 0").next(monday));
+        assertEquals(utc("2024-01-05T00:00:00Z"), CronExpression.parse("0 0 * * 5-7").next(monday));
+        assertEquals(utc("2024-01-07T00:00:00Z"), CronExpression.parse("0 0 * * 6-7").next(utc("2024-01-06T00:00:00Z")));
+    }
+
+    @Test
+    public void february29RollsToNextLeapYear() {
+        CronExpression cron = CronExpression.parse("0 0 29 2 *");
+
+        assertEquals(utc("2028-02-29T00:00:00Z"), cron.next(utc("2024-03-01T00:00:00Z")));
+    }
+
+    @Test
+    public void impossibleDateNeverMatches() {
+        assertNull(CronExpression.parse("0 0 30 2 *").next(utc("2024-01-01T00:00:00Z")));
+    }
+
+    @Test
+    public void springForwardGapFiresAtTransition() {
+        // 2024-03-10: New York nhảy từ 02:00 lên 03:00, nên 02:30 không tồn tại
+        CronExpression cron = CronExpression.parse("30 2 * * *");
+
+        ZonedDateTime gap = cron.next(ZonedDateTime.of(2024, 3, 10, 0, 0, 0, 0, NEW_YORK));
+        assertEquals(ZonedDateTime.of(2024, 3, 10, 3, 0, 0, 0, NEW_YORK), gap);
+        assertEquals(ZoneOffset.ofHours(-4), gap.getOffset());
+        assertEquals(ZonedDateTime.of(2024, 3, 11, 2, 30, 0, 0, NEW_YORK), cron.next(gap));
+    }
+
+    @Test
+    public void springForwardGapFiresOnceForSeveralSkippedTimes() {
+        CronExpression cron = CronExpression.parse("0,30 2 * * *");
+
+        ZonedDateTime gap = cron.next(ZonedDateTime.of(2024, 3, 10, 0, 0, 0, 0, NEW_YORK));
+        assertEquals(ZonedDateTime.of(2024, 3, 10, 3, 0, 0, 0, NEW_YORK), gap);
+        assertEquals(ZonedDateTime.of(2024, 3, 11, 2, 0, 0, 0, NEW_YORK), cron.next(gap));
+    }
+
+    @Test
+    public void fallBackOverlapFiresOnce() {
+        // 2024-11-03: New York lùi từ 02:00 về 01:00, nên 01:30 xuất hiện hai lần
+        CronExpression cron = CronExpression.parse("30 1 * * *");
+
+        ZonedDateTime first = cron.next(ZonedDateTime.of(2024, 11, 3, 0, 0, 0, 0, NEW_YORK));
+        assertEquals(ZoneOffset.ofHours(-4), first.getOffset());
+        assertEquals(1, first.getHour());
+        assertEquals(30, first.getMinute());
+
+        ZonedDateTime next = cron.next(first);
+        assertEquals(ZonedDateTime.of(2024, 11, 4, 1, 30, 0, 0, NEW_YORK), next);
+        assertEquals(ZoneOffset.ofHours(-5), next.getOffset());
+    }
+
+    private static ZonedDateTime utc(String instant) {
+        return ZonedDateTime.parse(instant).withZoneSameInstant(ZoneOffset.UTC);
+    }
+}
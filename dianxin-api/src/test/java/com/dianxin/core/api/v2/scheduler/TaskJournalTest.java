@@ -0,0 +1,54 @@
+package com.dianxin.core.api.v2.scheduler;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaskJournalTest {
+
+    @Test
+    public void truncatedTailIsDropped() throws Exception {
+        Path file = Files.createTempDirectory("task-journal").resolve("tasks.journal");
+        String full = base64("{\"guild\":1}");
+        String torn = base64("{\"guild\":2}").substring(0, 8); // vẫn là Base64 hợp lệ, chỉ ngắn hơn
+        Files.writeString(file, "A\tt1\t1000\treminder\t" + full + "\n"
+                + "A\tt2\t2000\treminder\t" + torn, StandardCharsets.UTF_8);
+
+        try (TaskJournal journal = new TaskJournal(file, false)) {
+            Map<String, TaskJournal.Entry> live = journal.load();
+
+            assertEquals(List.of("t1"), List.copyOf(live.keySet()));
+            assertEquals("{\"guild\":1}", live.get("t1").payload());
+        }
+        // Bản ghi ghi dở không được ghi lại khi rewrite
+        String rewritten = Files.readString(file, StandardCharsets.UTF_8);
+        assertEquals("A\tt1\t1000\treminder\t" + full + "\n", rewritten);
+    }
+
+    @Test
+    public void truncatedDoneRecordDoesNotRemoveTask() throws Exception {
+        Path file = Files.createTempDirectory("task-journal").resolve("tasks.journal");
+        Files.writeString(file, "A\tt1\t1000\treminder\t" + base64("x") + "\n"
+                + "A\tt12\t2000\treminder\t" + base64("y") + "\n"
+                + "D\tt1", StandardCharsets.UTF_8); // "D\tt12" bị cắt còn "D\tt1"
+
+        try (TaskJournal journal = new TaskJournal(file, false)) {
+            Map<String, TaskJournal.Entry> live = journal.load();
+
+            assertTrue(live.containsKey("t1"));
+            assertTrue(live.containsKey("t12"));
+        }
+    }
+
+    private static String base64(String text) {
+        return Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
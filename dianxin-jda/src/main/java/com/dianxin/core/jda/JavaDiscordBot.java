@@ -4,6 +4,7 @@ import com.dianxin.core.api.lifecycle.ExecutorManager;
 import com.dianxin.core.jda.annotations.lifecycle.RegisterToriService;
 import com.dianxin.core.api.exceptions.ServiceUnavailableException;
 import com.dianxin.core.api.console.commands.ConsoleCommandManager;
+import com.dianxin.core.api.console.commands.ExecutorStatsConsoleCommand;
 import com.dianxin.core.jda.commands.console.StopConsoleCommand;
 import com.dianxin.core.jda.meta.BotMeta;
 import com.dianxin.core.jda.utils.services.ToriServices;
@@ -146,6 +147,7 @@ public abstract class JavaDiscordBot {
         }
 
         this.getConsoleManager().register(new StopConsoleCommand());
+        this.getConsoleManager().register(new ExecutorStatsConsoleCommand());
 
         started = true;
 
@@ -219,14 +221,15 @@ public abstract class JavaDiscordBot {
 
     /**
      * Gracefully shuts down the bot, updating its status to offline,
-     * calling {@link #onDisable()}, and closing the JDA connection.
+     * calling {@link #onDisable()}, draining pending executor tasks
+     * and closing the JDA connection.
      */
     public void onShutdown() {
         onDisable();
         logger.info("⏹ Đang tắt bot {}...", botName);
         jda.getPresence().setStatus(OnlineStatus.OFFLINE);
 
-        ExecutorManager.shutdown(); // PUSH-10032026-01: released the executor manager
+        ExecutorManager.shutdownGracefully(); // chờ các tác vụ đang xếp hàng (ghi DB...) chạy xong trước khi exit
 
         jda.shutdown();
         System.exit(0);
@@ -1,5 +1,6 @@
 package com.dianxin.core.jda.commands;
 
+import com.dianxin.core.api.lifecycle.ExecutionContext;
 import com.dianxin.core.jda.meta.BotMeta;
 import com.dianxin.core.jda.utils.services.ToriServices;
 import net.dv8tion.jda.api.JDA;
@@ -122,15 +123,26 @@ public abstract class LegacyBaseCommand {
         if (!checkUserPermissions(event)) return;
         if (!checkBotPermissions(event)) return;
 
-        applyDeferIfNeeded(event);
+        // Mọi tác vụ async sinh ra từ lệnh này (ExecutorManager, Scheduler, Action) đều mang theo
+        // traceId (id của interaction) và guildId trong MDC
+        ExecutionContext context = ExecutionContext.builder()
+                .traceId(event.getId())
+                .guildId(event.getGuild() != null ? event.getGuild().getId() : null)
+                .userId(event.getUser().getId())
+                .put("command", event.getName())
+                .build();
+
+        try (ExecutionContext.Scope ignored = context.attach()) {
+            applyDeferIfNeeded(event);
+
+            try {
+                execute(event);
+            } catch (Exception e) {
+                logger.error("❌ Lỗi khi thực thi command {}", event.getName(), e);
+            }
 
-        try {
-            execute(event);
-        } catch (Exception e) {
-            logger.error("❌ Lỗi khi thực thi command {}", event.getName(), e);
+            logDebug(event);
         }
-
-        logDebug(event);
     }
 
     // =========================================
@@ -113,9 +113,7 @@ public final class ToriServices {
             scheduler.shutdown();
         }
 
-        ExecutorManager.shutdown();
-
-        bot.onShutdown();
+        bot.onShutdown(); // Tự drain ExecutorManager trước khi đóng JDA
 
         initialized = false;
     }